@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.build;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Build tool which compiles the NRNUM, NRVAR, and units of measure files into Java classes
+ * containing sorted tables, so the built-in models can be created without reading or parsing any
+ * files at runtime.
+ *
+ * <p>The parsing rules here must stay the same as the ones in {@code NumberModelLoader} and
+ * {@code UnitRecognizer}, the tests compare the generated models against the parsed ones.</p>
+ *
+ * <br>Usage:
+ * <pre>
+ *   {@code
+java edu.umn.biomedicus.build.LexiconTableGenerator NRNUM NRVAR unitsOfMeasure.txt outputDir
+ *   }
+ * </pre>
+ */
+public final class LexiconTableGenerator {
+
+  private static final String HEADER = "/*\n"
+      + " * Generated by edu.umn.biomedicus.build.LexiconTableGenerator from %s, do not edit.\n"
+      + " */\n\n";
+
+  private LexiconTableGenerator() {
+    throw new UnsupportedOperationException("Instantiation of utility class");
+  }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 4) {
+      throw new IllegalArgumentException(
+          "Usage: LexiconTableGenerator NRNUM NRVAR unitsOfMeasure outputDir");
+    }
+    Path outputDir = Paths.get(args[3]);
+    writeNumberTables(Paths.get(args[0]), Paths.get(args[1]),
+        outputDir.resolve("edu/umn/biomedicus/numbers/NumberTables.java"));
+    writeUnitTables(Paths.get(args[2]),
+        outputDir.resolve("edu/umn/biomedicus/measures/UnitTables.java"));
+  }
+
+  private static void writeNumberTables(Path nrnum, Path nrvar, Path output) throws IOException {
+    List<Integer> values = new ArrayList<>();
+    List<String> types = new ArrayList<>();
+    Map<String, Integer> numbers = new HashMap<>();
+    for (String line : Files.readAllLines(nrnum, StandardCharsets.UTF_8)) {
+      String[] split = line.split("\\|");
+      String type = typeFromString(split[2]);
+      int value = Integer.valueOf("MAGNITUDE".equals(type) ? split[5] : split[3]);
+      numbers.put(split[1], values.size());
+      values.add(value);
+      types.add(type);
+    }
+
+    Map<String, Integer> ordinals = new HashMap<>();
+    Map<String, Integer> denominators = new HashMap<>();
+    for (String line : Files.readAllLines(nrvar, StandardCharsets.UTF_8)) {
+      String[] split = line.split("\\|");
+      Integer definition = numbers.get(split[3]);
+      if (split[2].contains("ordinal")) {
+        ordinals.put(split[0], definition);
+      }
+      if (split[2].contains("denominator")) {
+        denominators.put(split[0], definition);
+      }
+    }
+
+    TreeSet<String> words = new TreeSet<>(numbers.keySet());
+    words.addAll(ordinals.keySet());
+    words.addAll(denominators.keySet());
+
+    StringBuilder source = new StringBuilder(String.format(HEADER, "NRNUM and NRVAR"))
+        .append("package edu.umn.biomedicus.numbers;\n\n")
+        .append("/**\n * The built-in number lexicon, the words are sorted and each word has the")
+        .append(" index of its number,\n * ordinal, and denominator definition or -1.\n */\n")
+        .append("final class NumberTables {\n\n")
+        .append("  private NumberTables() {\n")
+        .append("    throw new UnsupportedOperationException(\"Instantiation of utility class\");\n")
+        .append("  }\n\n");
+    appendInts(source, "DEFINITION_VALUES", values);
+    source.append("  static final BasicNumberType[] DEFINITION_TYPES = {\n");
+    for (String type : types) {
+      source.append("      BasicNumberType.").append(type).append(",\n");
+    }
+    source.append("  };\n\n");
+    appendStrings(source, "WORDS", new ArrayList<>(words));
+    appendInts(source, "NUMBERS", definitions(words, numbers));
+    appendInts(source, "ORDINALS", definitions(words, ordinals));
+    appendInts(source, "DENOMINATORS", definitions(words, denominators));
+    source.append("}\n");
+    write(output, source);
+  }
+
+  private static void writeUnitTables(Path unitsOfMeasure, Path output) throws IOException {
+    TreeMap<String, String> units = new TreeMap<>();
+    for (String line : Files.readAllLines(unitsOfMeasure, StandardCharsets.UTF_8)) {
+      if (line.isEmpty()) {
+        continue;
+      }
+      String[] splits = line.split(":");
+      if (splits.length != 2) {
+        continue;
+      }
+      units.put(splits[0], splits[1]);
+    }
+
+    StringBuilder source = new StringBuilder(String.format(HEADER, "unitsOfMeasure.txt"))
+        .append("package edu.umn.biomedicus.measures;\n\n")
+        .append("/**\n * The built-in units of measure, the units are sorted and each has the")
+        .append(" UCUM code at the\n * same index.\n */\n")
+        .append("final class UnitTables {\n\n")
+        .append("  private UnitTables() {\n")
+        .append("    throw new UnsupportedOperationException(\"Instantiation of utility class\");\n")
+        .append("  }\n\n");
+    appendStrings(source, "UNITS", new ArrayList<>(units.keySet()));
+    appendStrings(source, "CODES", new ArrayList<>(units.values()));
+    source.append("}\n");
+    write(output, source);
+  }
+
+  private static List<Integer> definitions(TreeSet<String> words, Map<String, Integer> map) {
+    List<Integer> definitions = new ArrayList<>();
+    for (String word : words) {
+      Integer definition = map.get(word);
+      definitions.add(definition == null ? -1 : definition);
+    }
+    return definitions;
+  }
+
+  private static String typeFromString(String st) {
+    switch (st) {
+      case "unit":
+      case "teen":
+      case "decade":
+      case "magnitude":
+        return st.toUpperCase();
+    }
+    throw new IllegalStateException("Unrecognized number type: " + st);
+  }
+
+  private static void appendInts(StringBuilder source, String name, List<Integer> values) {
+    source.append("  static final int[] ").append(name).append(" = {");
+    for (int i = 0; i < values.size(); i++) {
+      source.append(i % 16 == 0 ? "\n      " : " ").append(values.get(i)).append(',');
+    }
+    source.append("\n  };\n\n");
+  }
+
+  private static void appendStrings(StringBuilder source, String name, List<String> values) {
+    source.append("  static final String[] ").append(name).append(" = {\n");
+    for (String value : values) {
+      source.append("      \"");
+      for (char ch : value.toCharArray()) {
+        if (ch == '"' || ch == '\\') {
+          source.append('\\').append(ch);
+        } else if (ch < 0x20 || ch > 0x7E) {
+          source.append(String.format("\\u%04x", (int) ch));
+        } else {
+          source.append(ch);
+        }
+      }
+      source.append("\",\n");
+    }
+    source.append("  };\n\n");
+  }
+
+  private static void write(Path output, StringBuilder source) throws IOException {
+    Files.createDirectories(output.getParent());
+    Files.write(output, source.toString().getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -0,0 +1,340 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.internal;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * A compact, immutable table from words to integer values that is probed with lowercased regions
+ * of character sequences without allocating.
+ *
+ * <p>The words are stored sorted and concatenated in a single char buffer. Lookups lowercase the
+ * probed characters one at a time, ASCII characters directly and other characters using {@link
+ * Character#toLowerCase(char)}, and binary search the words that share the probe's first
+ * character. Words containing uppercase characters are stored as-is and so will never be found,
+ * the same as when probing a map with a lowercased key.</p>
+ *
+ * <p>The tables are either on the heap or views of a buffer the lexicon was {@link
+ * #map(ByteBuffer, int) mapped} from, such as a memory-mapped file, in which case lookups read
+ * the buffer directly.</p>
+ *
+ * <p>This class is immutable so it is thread-safe.</p>
+ *
+ * @since 2.1.0
+ */
+public final class Lexicon {
+
+  private static final int ASCII = 128;
+
+  private final CharBuffer chars;
+
+  private final IntBuffer offsets;
+
+  private final IntBuffer values;
+
+  private final int size;
+
+  /**
+   * For each ASCII first character, the index of the first word starting with it, and at index
+   * {@code ch + 1} the index after the last word starting with it.
+   */
+  private final int[] asciiStarts;
+
+  private Lexicon(CharBuffer chars, IntBuffer offsets, IntBuffer values) {
+    this.chars = chars;
+    this.offsets = offsets;
+    this.values = values;
+    size = values.limit();
+
+    asciiStarts = new int[ASCII + 1];
+    // words are unique so there is at most one empty word, which sorts before everything else
+    int word = size > 0 && offsets.get(0) == offsets.get(1) ? 1 : 0;
+    for (int ch = 0; ch <= ASCII; ch++) {
+      while (word < size && chars.get(offsets.get(word)) < ch) {
+        word++;
+      }
+      asciiStarts[ch] = word;
+    }
+  }
+
+  /**
+   * Creates a lexicon containing the words and their values.
+   *
+   * @param entries a map from words to their non-negative values
+   * @return newly created lexicon
+   */
+  public static Lexicon create(Map<String, Integer> entries) {
+    String[] words = entries.keySet().toArray(new String[0]);
+    Arrays.sort(words);
+
+    int[] values = new int[words.length];
+    for (int i = 0; i < words.length; i++) {
+      int value = entries.get(words[i]);
+      if (value < 0) {
+        throw new IllegalArgumentException("Negative value for word: " + words[i]);
+      }
+      values[i] = value;
+    }
+
+    return createSorted(words, values);
+  }
+
+  /**
+   * Creates a lexicon from words that are already sorted.
+   *
+   * @param words the words, in strictly increasing {@link String#compareTo(String)} order
+   * @param values the non-negative value of each word
+   * @return newly created lexicon
+   */
+  public static Lexicon createSorted(String[] words, int[] values) {
+    if (words.length != values.length) {
+      throw new IllegalArgumentException("There must be one value for each word");
+    }
+    int[] offsets = new int[words.length + 1];
+    int length = 0;
+    for (int i = 0; i < words.length; i++) {
+      if (i > 0 && words[i - 1].compareTo(words[i]) >= 0) {
+        throw new IllegalArgumentException("Words are not sorted at: " + words[i]);
+      }
+      if (values[i] < 0) {
+        throw new IllegalArgumentException("Negative value for word: " + words[i]);
+      }
+      offsets[i] = length;
+      length += words[i].length();
+    }
+    offsets[words.length] = length;
+
+    char[] chars = new char[length];
+    for (int i = 0; i < words.length; i++) {
+      words[i].getChars(0, words[i].length(), chars, offsets[i]);
+    }
+
+    return new Lexicon(CharBuffer.wrap(chars), IntBuffer.wrap(offsets),
+        IntBuffer.wrap(values.clone()));
+  }
+
+  /**
+   * Writes the lexicon to a snapshot.
+   *
+   * @param out the output to write to
+   * @throws IOException if there is an error writing
+   */
+  public void write(DataOutput out) throws IOException {
+    out.writeInt(size);
+    for (int i = 0; i < size; i++) {
+      out.writeInt(values.get(i));
+    }
+    for (int i = 0; i <= size; i++) {
+      out.writeInt(offsets.get(i));
+    }
+    out.writeInt(chars.limit());
+    for (int i = 0; i < chars.limit(); i++) {
+      out.writeChar(chars.get(i));
+    }
+  }
+
+  /**
+   * Reads a lexicon written by {@link #write(DataOutput)}, copying it onto the heap.
+   *
+   * @param buffer the buffer to read from, it is advanced past the lexicon
+   * @param valueBound the values in the lexicon must be less than this bound
+   * @return the lexicon
+   * @throws IOException if the buffer does not contain a valid lexicon
+   */
+  public static Lexicon read(ByteBuffer buffer, int valueBound) throws IOException {
+    Lexicon mapped = map(buffer, valueBound);
+    int[] values = new int[mapped.size];
+    mapped.values.get(values);
+    int[] offsets = new int[mapped.size + 1];
+    mapped.offsets.get(offsets);
+    char[] chars = new char[mapped.chars.limit()];
+    mapped.chars.get(chars);
+    return new Lexicon(CharBuffer.wrap(chars), IntBuffer.wrap(offsets), IntBuffer.wrap(values));
+  }
+
+  /**
+   * Maps a lexicon written by {@link #write(DataOutput)}. The lexicon is not copied, lookups will
+   * read directly from the buffer, so the buffer's contents must not be modified afterwards.
+   *
+   * @param buffer the buffer to map from, it is advanced past the lexicon
+   * @param valueBound the values in the lexicon must be less than this bound
+   * @return the lexicon
+   * @throws IOException if the buffer does not contain a valid lexicon
+   */
+  public static Lexicon map(ByteBuffer buffer, int valueBound) throws IOException {
+    int size = Snapshots.readCount(buffer, 2 * Integer.BYTES);
+    IntBuffer values = section(buffer, size * Integer.BYTES).asIntBuffer();
+    IntBuffer offsets = section(buffer, (size + 1) * Integer.BYTES).asIntBuffer();
+    int length = Snapshots.readCount(buffer, Character.BYTES);
+    CharBuffer chars = section(buffer, length * Character.BYTES).asCharBuffer();
+
+    for (int i = 0; i < size; i++) {
+      int value = values.get(i);
+      if (value < 0 || value >= valueBound || offsets.get(i) < 0
+          || offsets.get(i) > offsets.get(i + 1)) {
+        throw new IOException("Invalid lexicon entry in snapshot: " + i);
+      }
+    }
+    if (offsets.get(0) != 0 || offsets.get(size) != length) {
+      throw new IOException("Invalid lexicon offsets in snapshot");
+    }
+    return new Lexicon(chars, offsets, values);
+  }
+
+  private static ByteBuffer section(ByteBuffer buffer, int bytes) throws IOException {
+    if (bytes > buffer.remaining()) {
+      throw new IOException("Snapshot data is truncated");
+    }
+    ByteBuffer section = buffer.slice();
+    section.limit(bytes);
+    buffer.position(buffer.position() + bytes);
+    return section;
+  }
+
+  /**
+   * The number of words in the lexicon.
+   *
+   * @return count of words
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Looks up the value of a word.
+   *
+   * @param word the word, it will be lowercased for the lookup
+   * @return the value, or -1 if the word is not in the lexicon
+   */
+  public int lookup(CharSequence word) {
+    return lookup(word, 0, word.length());
+  }
+
+  /**
+   * Looks up the value of the word that is the region from {@code begin} to {@code end}.
+   *
+   * @param text the text containing the word
+   * @param begin the offset of the first character of the word
+   * @param end the offset after the last character of the word
+   * @return the value, or -1 if the word is not in the lexicon
+   */
+  public int lookup(CharSequence text, int begin, int end) {
+    int low;
+    int high;
+    if (begin == end) {
+      low = 0;
+      high = size - 1;
+    } else {
+      char first = fold(text.charAt(begin));
+      if (first < ASCII) {
+        low = asciiStarts[first];
+        high = asciiStarts[first + 1] - 1;
+      } else {
+        low = asciiStarts[ASCII];
+        high = size - 1;
+      }
+    }
+
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int cmp = compare(mid, text, begin, end);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return values.get(mid);
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * The word at an index.
+   *
+   * @param index the index of the word in sorted order, less than {@link #size()}
+   * @return the word
+   */
+  public String getWord(int index) {
+    int begin = offsets.get(index);
+    int length = offsets.get(index + 1) - begin;
+    char[] word = new char[length];
+    for (int i = 0; i < length; i++) {
+      word[i] = chars.get(begin + i);
+    }
+    return new String(word);
+  }
+
+  /**
+   * The value of the word at an index.
+   *
+   * @param index the index of the word in sorted order, less than {@link #size()}
+   * @return the value
+   */
+  public int getValue(int index) {
+    return values.get(index);
+  }
+
+  /**
+   * Whether any word starts with the character after it is lowercased. For characters that are
+   * not ASCII after lowercasing this is true if any word starts with a non-ASCII character.
+   *
+   * @param ch the character
+   * @return false if no word can start with the character
+   */
+  public boolean hasWordStartingWith(char ch) {
+    char first = fold(ch);
+    if (first < ASCII) {
+      return asciiStarts[first] < asciiStarts[first + 1];
+    }
+    return asciiStarts[ASCII] < size;
+  }
+
+  private int compare(int word, CharSequence text, int begin, int end) {
+    int wordBegin = offsets.get(word);
+    int wordLength = offsets.get(word + 1) - wordBegin;
+    int length = end - begin;
+    int n = Math.min(wordLength, length);
+    for (int i = 0; i < n; i++) {
+      char wordChar = chars.get(wordBegin + i);
+      char textChar = fold(text.charAt(begin + i));
+      if (wordChar != textChar) {
+        return wordChar - textChar;
+      }
+    }
+    return wordLength - length;
+  }
+
+  /**
+   * Lowercases a single character.
+   *
+   * @param ch the character
+   * @return the lowercase form of the character
+   */
+  static char fold(char ch) {
+    if (ch < ASCII) {
+      return ch >= 'A' && ch <= 'Z' ? (char) (ch | 0x20) : ch;
+    }
+    return Character.toLowerCase(ch);
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.umn.biomedicus.internal;
+
+import edu.umn.biomedicus.numbers.NumberModel;
+import edu.umn.biomedicus.numbers.NumberPrefilter;
+import edu.umn.biomedicus.numbers.TokenClassifier;
+import edu.umn.biomedicus.numbers.TokenDescriptor;
+
+/**
+ * Gives the measures package access to the members of the numbers package that take internal
+ * types, so that those members do not have to be public. The numbers package registers the only
+ * instance when {@link TokenDescriptor} is initialized.
+ *
+ * <p>Instances are stateless so they are thread-safe.</p>
+ *
+ * @since 2.1.0
+ */
+public abstract class NumbersBridge {
+
+  private static volatile NumbersBridge instance;
+
+  protected NumbersBridge() {
+  }
+
+  /**
+   * Registers the numbers package's bridge.
+   *
+   * @param bridge the bridge
+   * @throws IllegalStateException if a bridge has already been registered
+   */
+  public static synchronized void register(NumbersBridge bridge) {
+    if (instance != null) {
+      throw new IllegalStateException("Numbers bridge is already registered");
+    }
+    instance = bridge;
+  }
+
+  /**
+   * The numbers package's bridge.
+   *
+   * @return the registered bridge
+   */
+  public static NumbersBridge get() {
+    NumbersBridge bridge = instance;
+    if (bridge == null) {
+      try {
+        Class.forName(TokenDescriptor.class.getName(), true,
+            TokenDescriptor.class.getClassLoader());
+      } catch (ClassNotFoundException e) {
+        throw new IllegalStateException(e);
+      }
+      bridge = instance;
+    }
+    return bridge;
+  }
+
+  /**
+   * Creates a token classifier which also looks up tokens in a units lexicon.
+   *
+   * @param numberModel the number model to look up number words in
+   * @param units the units of measure to look up tokens in
+   * @return newly created token classifier
+   */
+  public abstract TokenClassifier createTokenClassifier(NumberModel numberModel, Lexicon units);
+
+  /**
+   * Creates a prefilter which also finds units of measure.
+   *
+   * @param numberModel the number model
+   * @param units the units of measure to also find
+   * @return newly created prefilter
+   */
+  public abstract NumberPrefilter createPrefilter(NumberModel numberModel, Lexicon units);
+
+  /**
+   * Which unit of measure a classified token is, looking it up if it was classified using a
+   * different units lexicon.
+   *
+   * @param token the classified token
+   * @param units the units lexicon
+   * @return the value of the unit in the lexicon, or -1 if the token is not a unit
+   */
+  public abstract int getUnit(TokenDescriptor token, Lexicon units);
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Reading and writing of the binary snapshot files used to store compiled models, so that they
+ * can be loaded without parsing the text files they were created from.
+ *
+ * <p>A snapshot file consists of a 4 byte magic number identifying the kind of model, a 4 byte
+ * format version, the model data, and an 8 byte CRC32 checksum of everything before it. All values
+ * are big-endian. Snapshots with the wrong magic number, an unsupported version or a checksum that
+ * does not match are rejected with an {@link IOException}.</p>
+ *
+ * @since 2.1.0
+ */
+public final class Snapshots {
+
+  private static final int HEADER_BYTES = 8;
+
+  private static final int CHECKSUM_BYTES = 8;
+
+  private Snapshots() {
+    throw new UnsupportedOperationException("Instantiation of utility class");
+  }
+
+  /**
+   * Writes the data of a model to a snapshot file.
+   *
+   * @param path the path to write the snapshot to, it will be replaced if it exists
+   * @param magic the magic number identifying the kind of model
+   * @param version the version of the model's data format
+   * @param body writes the data of the model
+   * @throws IOException if there is an error writing the file
+   */
+  public static void write(Path path, int magic, int version, Body body) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(magic);
+    out.writeInt(version);
+    body.write(out);
+    out.flush();
+
+    CRC32 crc32 = new CRC32();
+    crc32.update(bytes.toByteArray(), 0, bytes.size());
+    out.writeLong(crc32.getValue());
+    out.flush();
+
+    Files.write(path, bytes.toByteArray());
+  }
+
+  /**
+   * Reads a snapshot file with a single channel read and verifies its header and checksum.
+   *
+   * @param path the path to the snapshot file
+   * @param magic the magic number identifying the kind of model
+   * @param version the version of the model's data format that is supported
+   * @return a buffer positioned at the start of the model data with its limit at the end of the
+   * model data
+   * @throws IOException if the file can't be read or is not a valid snapshot
+   */
+  public static ByteBuffer read(Path path, int magic, int version) throws IOException {
+    ByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("Snapshot is too large: " + path);
+      }
+      buffer = ByteBuffer.allocate((int) size);
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer) == -1) {
+          throw new IOException("Unexpected end of snapshot: " + path);
+        }
+      }
+    }
+    buffer.flip();
+    return verify(buffer, magic, version, path.toString());
+  }
+
+  /**
+   * Maps a snapshot file into memory read-only and verifies its header and checksum. The mapping
+   * is shared with any other processes that map the same file.
+   *
+   * @param path the path to the snapshot file
+   * @param magic the magic number identifying the kind of model
+   * @param version the version of the model's data format that is supported
+   * @return a buffer positioned at the start of the model data with its limit at the end of the
+   * model data
+   * @throws IOException if the file can't be mapped or is not a valid snapshot
+   */
+  public static ByteBuffer map(Path path, int magic, int version) throws IOException {
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("Snapshot is too large: " + path);
+      }
+      buffer = channel.map(MapMode.READ_ONLY, 0, size);
+    }
+    return verify(buffer, magic, version, path.toString());
+  }
+
+  /**
+   * Verifies the header and checksum of a snapshot that is in memory.
+   *
+   * @param buffer a buffer containing the snapshot from its position to its limit
+   * @param magic the magic number identifying the kind of model
+   * @param version the version of the model's data format that is supported
+   * @param source a description of where the snapshot came from for error messages
+   * @return a buffer positioned at the start of the model data with its limit at the end of the
+   * model data
+   * @throws IOException if the buffer does not contain a valid snapshot
+   */
+  public static ByteBuffer verify(ByteBuffer buffer, int magic, int version, String source)
+      throws IOException {
+    ByteBuffer snapshot = buffer.slice();
+    int length = snapshot.remaining();
+    if (length < HEADER_BYTES + CHECKSUM_BYTES) {
+      throw new IOException("Snapshot is truncated: " + source);
+    }
+
+    long checksum = snapshot.getLong(length - CHECKSUM_BYTES);
+    CRC32 crc32 = new CRC32();
+    ByteBuffer checked = snapshot.duplicate();
+    checked.limit(length - CHECKSUM_BYTES);
+    crc32.update(checked);
+    if (crc32.getValue() != checksum) {
+      throw new IOException("Snapshot checksum does not match, the file is corrupt: " + source);
+    }
+
+    if (snapshot.getInt() != magic) {
+      throw new IOException("Not the expected kind of snapshot: " + source);
+    }
+    int snapshotVersion = snapshot.getInt();
+    if (snapshotVersion != version) {
+      throw new IOException("Snapshot version " + snapshotVersion + " is not the supported version "
+          + version + ", it needs to be recreated: " + source);
+    }
+    snapshot.limit(length - CHECKSUM_BYTES);
+    return snapshot;
+  }
+
+  /**
+   * Writes a string as its length followed by its UTF-8 bytes.
+   *
+   * @param out the output to write to
+   * @param string the string to write
+   * @throws IOException if there is an error writing
+   */
+  public static void writeString(DataOutput out, String string) throws IOException {
+    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * Reads a string written by {@link #writeString(DataOutput, String)}.
+   *
+   * @param buffer the buffer to read from
+   * @return the string
+   * @throws IOException if the buffer does not contain a complete string
+   */
+  public static String readString(ByteBuffer buffer) throws IOException {
+    int length = readCount(buffer, 1);
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Reads a count of items and checks that it is possible for the buffer to contain that many
+   * items of the specified size.
+   *
+   * @param buffer the buffer to read from
+   * @param itemBytes the minimum number of bytes used by each item
+   * @return the count
+   * @throws IOException if the count is negative or larger than the remaining bytes allow
+   */
+  public static int readCount(ByteBuffer buffer, int itemBytes) throws IOException {
+    try {
+      int count = buffer.getInt();
+      if (count < 0 || (long) count * itemBytes > buffer.remaining()) {
+        throw new IOException("Invalid count in snapshot: " + count);
+      }
+      return count;
+    } catch (BufferUnderflowException e) {
+      throw new IOException("Snapshot data is truncated", e);
+    }
+  }
+
+  /**
+   * Writes the data of a model to a snapshot.
+   */
+  @FunctionalInterface
+  public interface Body {
+
+    /**
+     * Writes the data.
+     *
+     * @param out the output to write to
+     * @throws IOException if there is an error writing
+     */
+    void write(DataOutputStream out) throws IOException;
+  }
+}
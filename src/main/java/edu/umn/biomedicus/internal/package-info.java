@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+/**
+ * Support classes shared by the numbers and measures packages. They are public only so that the
+ * two packages can use them, they are not part of the library's API and may change in any
+ * release without notice.
+ *
+ * @since 2.1.0
+ */
+@ParametersAreNonnullByDefault
+package edu.umn.biomedicus.internal;
+
+import javax.annotation.ParametersAreNonnullByDefault;
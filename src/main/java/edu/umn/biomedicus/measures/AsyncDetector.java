@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+import edu.umn.biomedicus.numbers.Numbers.DetectorFactory;
+import edu.umn.biomedicus.numbers.Token;
+import edu.umn.biomedicus.numbers.Tokenizer;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+/**
+ * Finds the numbers and units of measure in documents asynchronously on an {@link Executor}.
+ *
+ * <p>Detectors are pooled: a request borrows an idle detector and returns it when done, so new
+ * detectors are only created when more requests are running at once than ever before. Since
+ * detection does not block, that is at most the number of threads the executor runs at once. A
+ * detector whose request fails is not returned to the pool.</p>
+ *
+ * <p>By default the requests run on the common fork join pool. When the library is used on Java
+ * 21 or newer the default is instead a new virtual thread per request.</p>
+ *
+ * <br>Usage:
+ * <pre>
+ *   {@code
+AsyncDetector asyncDetector = new AsyncDetector(Numbers.createFactory(),
+    UnitRecognizer.createDefaultFactory());
+asyncDetector.detectAsync(document)
+    .thenAccept(results -> store(results.getNumbers(), results.getUnits()));
+ *   }
+ * </pre>
+ *
+ * <p>An instance of this class can be used from multiple threads at once.</p>
+ *
+ * @since 2.1.0
+ */
+public final class AsyncDetector {
+
+  private final DetectorFactory detectorFactory;
+
+  private final UnitRecognizer.Factory unitFactory;
+
+  @Nullable
+  private final Function<? super CharSequence, ? extends Iterable<Token>> tokenizer;
+
+  private final Executor executor;
+
+  private final Deque<DocumentDetector> idle = new ConcurrentLinkedDeque<>();
+
+  private final AtomicLong requests = new AtomicLong();
+
+  /**
+   * Creates an asynchronous detector which uses the default executor and splits documents into
+   * tokens with the built-in {@link Tokenizer}.
+   *
+   * @param detectorFactory the factory for the number detectors
+   * @param unitFactory the factory for the unit recognizers
+   */
+  public AsyncDetector(DetectorFactory detectorFactory, UnitRecognizer.Factory unitFactory) {
+    this(detectorFactory, unitFactory, null, DefaultExecutor.get());
+  }
+
+  /**
+   * Creates an asynchronous detector which splits documents into tokens with the built-in {@link
+   * Tokenizer}.
+   *
+   * @param detectorFactory the factory for the number detectors
+   * @param unitFactory the factory for the unit recognizers
+   * @param executor the executor to run detection on
+   */
+  public AsyncDetector(DetectorFactory detectorFactory, UnitRecognizer.Factory unitFactory,
+      Executor executor) {
+    this(detectorFactory, unitFactory, null, executor);
+  }
+
+  /**
+   * Creates an asynchronous detector which uses the default executor.
+   *
+   * @param detectorFactory the factory for the number detectors
+   * @param unitFactory the factory for the unit recognizers
+   * @param tokenizer splits a document into tokens, it must be thread-safe
+   */
+  public AsyncDetector(DetectorFactory detectorFactory, UnitRecognizer.Factory unitFactory,
+      Function<? super CharSequence, ? extends Iterable<Token>> tokenizer) {
+    this(detectorFactory, unitFactory, tokenizer, DefaultExecutor.get());
+  }
+
+  /**
+   * Creates an asynchronous detector.
+   *
+   * @param detectorFactory the factory for the number detectors
+   * @param unitFactory the factory for the unit recognizers
+   * @param tokenizer splits a document into tokens, it must be thread-safe, or null to use the
+   *     built-in {@link Tokenizer}
+   * @param executor the executor to run detection on
+   */
+  public AsyncDetector(DetectorFactory detectorFactory, UnitRecognizer.Factory unitFactory,
+      @Nullable Function<? super CharSequence, ? extends Iterable<Token>> tokenizer,
+      Executor executor) {
+    this.detectorFactory = detectorFactory;
+    this.unitFactory = unitFactory;
+    this.tokenizer = tokenizer;
+    this.executor = executor;
+  }
+
+  /**
+   * Finds the numbers and units of measure in a document on the executor. The index of the
+   * results is the order in which this method was called.
+   *
+   * @param document the document text, it should not be modified until the future completes
+   * @return a future which completes with the results, or exceptionally if detection fails
+   */
+  public CompletableFuture<DocumentResults> detectAsync(CharSequence document) {
+    long index = requests.getAndIncrement();
+    return CompletableFuture.supplyAsync(() -> detect(index, document), executor);
+  }
+
+  private DocumentResults detect(long index, CharSequence document) {
+    DocumentDetector documentDetector = idle.pollFirst();
+    if (documentDetector == null) {
+      documentDetector = new DocumentDetector(detectorFactory, unitFactory, tokenizer);
+    }
+    // a detector is only returned to the pool when detection completes, one that threw may be in
+    // the middle of a number or unit and is dropped
+    DocumentResults results = documentDetector.detect(index, document);
+    idle.offerFirst(documentDetector);
+    return results;
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+/**
+ * The codes of composite units, which join the codes of their component units with "/", cached by
+ * their components so that the code of a composite unit is only built the first time it is found.
+ * Composites of up to four components are cached, in an open addressing table keyed by the
+ * component code indices packed into a long.
+ *
+ * <p>It is not safe to use an instance of this class from multiple threads at once, use multiple
+ * instances for concurrency.</p>
+ *
+ * @since 2.1.0
+ */
+final class CompositeCodes {
+
+  private static final int MAX_CACHED_COMPONENTS = 4;
+
+  private static final int COMPONENT_BITS = 16;
+
+  private final String[] codes;
+
+  private long[] keys = new long[16];
+
+  private String[] values = new String[16];
+
+  private int size = 0;
+
+  CompositeCodes(String[] codes) {
+    this.codes = codes;
+  }
+
+  /**
+   * The code of the composite of the components.
+   *
+   * @param components the code indices of the component units
+   * @param count the number of components
+   * @return the code
+   */
+  String get(int[] components, int count) {
+    if (count > MAX_CACHED_COMPONENTS || codes.length >= (1 << COMPONENT_BITS) - 1) {
+      return build(components, count);
+    }
+    long key = 0;
+    for (int i = 0; i < count; i++) {
+      // plus one so that no key is zero, which marks an empty slot
+      key = (key << COMPONENT_BITS) | (components[i] + 1);
+    }
+    int mask = keys.length - 1;
+    int slot = hash(key) & mask;
+    while (keys[slot] != 0) {
+      if (keys[slot] == key) {
+        return values[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    String code = build(components, count);
+    keys[slot] = key;
+    values[slot] = code;
+    if (++size * 2 > keys.length) {
+      grow();
+    }
+    return code;
+  }
+
+  private String build(int[] components, int count) {
+    StringBuilder builder = new StringBuilder(codes[components[0]]);
+    for (int i = 1; i < count; i++) {
+      builder.append('/').append(codes[components[i]]);
+    }
+    return builder.toString();
+  }
+
+  private void grow() {
+    long[] oldKeys = keys;
+    String[] oldValues = values;
+    keys = new long[oldKeys.length * 2];
+    values = new String[oldKeys.length * 2];
+    int mask = keys.length - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != 0) {
+        int slot = hash(oldKeys[i]) & mask;
+        while (keys[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  private static int hash(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+}
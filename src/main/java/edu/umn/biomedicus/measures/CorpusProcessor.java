@@ -0,0 +1,238 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+import edu.umn.biomedicus.numbers.Numbers.DetectorFactory;
+import edu.umn.biomedicus.numbers.Token;
+import edu.umn.biomedicus.numbers.Tokenizer;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+
+/**
+ * Finds the numbers and units of measure in many documents in parallel on a {@link ForkJoinPool}.
+ * Each worker thread of the pool gets its own detector and unit recognizer from the factories,
+ * which share the immutable models.
+ *
+ * <p>The documents are read lazily and only a few documents per worker are in progress at once,
+ * so corpora which do not fit in memory can be processed. The results of each document are passed
+ * to a consumer on the thread that called the process method, so the consumer does not need to be
+ * thread-safe.</p>
+ *
+ * <br>Usage:
+ * <pre>
+ *   {@code
+CorpusProcessor processor = new CorpusProcessor(Numbers.createFactory(),
+    UnitRecognizer.createDefaultFactory(), ForkJoinPool.commonPool());
+processor.process(documents, results -> {
+  NumberResultBuffer numbers = results.getNumbers();
+  for (int i = 0; i < numbers.size(); i++) {
+    // store numbers.getBegin(i), numbers.getEnd(i) and numbers.getNumerator(i)
+  }
+});
+ *   }
+ * </pre>
+ *
+ * <p>An instance of this class can be used from multiple threads at once.</p>
+ *
+ * @since 2.1.0
+ */
+public final class CorpusProcessor {
+
+  /**
+   * The number of documents per worker of the pool that can be in progress at once.
+   */
+  private static final int DOCUMENTS_PER_WORKER = 4;
+
+  private final ForkJoinPool pool;
+
+  private final ThreadLocal<DocumentDetector> workers;
+
+  /**
+   * Creates a corpus processor which splits documents into tokens with the built-in {@link
+   * Tokenizer}.
+   *
+   * @param detectorFactory the factory for the number detectors
+   * @param unitFactory the factory for the unit recognizers
+   * @param pool the pool to run detection on
+   */
+  public CorpusProcessor(DetectorFactory detectorFactory, UnitRecognizer.Factory unitFactory,
+      ForkJoinPool pool) {
+    this.pool = pool;
+    workers = ThreadLocal.withInitial(
+        () -> new DocumentDetector(detectorFactory, unitFactory, null));
+  }
+
+  /**
+   * Creates a corpus processor.
+   *
+   * @param detectorFactory the factory for the number detectors
+   * @param unitFactory the factory for the unit recognizers
+   * @param tokenizer splits a document into tokens, it is called from the pool's threads so it
+   *     must be thread-safe
+   * @param pool the pool to run detection on
+   */
+  public CorpusProcessor(DetectorFactory detectorFactory, UnitRecognizer.Factory unitFactory,
+      Function<? super CharSequence, ? extends Iterable<Token>> tokenizer, ForkJoinPool pool) {
+    this.pool = pool;
+    workers = ThreadLocal.withInitial(
+        () -> new DocumentDetector(detectorFactory, unitFactory, tokenizer));
+  }
+
+  /**
+   * Processes the documents, passing the results of each document to the consumer in the same
+   * order as the documents. Returns after the results of the last document are consumed.
+   *
+   * @param documents the documents
+   * @param consumer receives the results of each document
+   */
+  public void process(Iterable<? extends CharSequence> documents,
+      Consumer<? super DocumentResults> consumer) {
+    process(documents.iterator(), consumer, null);
+  }
+
+  /**
+   * Processes a stream of documents, passing the results of each document to the consumer in the
+   * same order as the documents.
+   *
+   * @param documents the documents
+   * @param consumer receives the results of each document
+   */
+  public void process(Stream<? extends CharSequence> documents,
+      Consumer<? super DocumentResults> consumer) {
+    process(documents.iterator(), consumer, null);
+  }
+
+  /**
+   * Processes the documents, passing the results of each document to the consumer as soon as it
+   * is done. Use {@link DocumentResults#getIndex()} to tell which document results are from.
+   * Returns after the results of the last document are consumed.
+   *
+   * @param documents the documents
+   * @param consumer receives the results of each document
+   */
+  public void processUnordered(Iterable<? extends CharSequence> documents,
+      Consumer<? super DocumentResults> consumer) {
+    process(documents.iterator(), consumer, new LinkedBlockingQueue<>());
+  }
+
+  /**
+   * Processes a stream of documents, passing the results of each document to the consumer as soon
+   * as it is done.
+   *
+   * @param documents the documents
+   * @param consumer receives the results of each document
+   */
+  public void processUnordered(Stream<? extends CharSequence> documents,
+      Consumer<? super DocumentResults> consumer) {
+    process(documents.iterator(), consumer, new LinkedBlockingQueue<>());
+  }
+
+  /**
+   * Runs the documents, keeping at most a window of them in progress.
+   *
+   * @param completed the queue that jobs add themselves to when done for unordered delivery, or
+   *     null to deliver in the order of the documents
+   */
+  private void process(Iterator<? extends CharSequence> documents,
+      Consumer<? super DocumentResults> consumer, @Nullable BlockingQueue<Job> completed) {
+    int window = Math.max(1, pool.getParallelism() * DOCUMENTS_PER_WORKER);
+    ArrayDeque<Job> inProgress = new ArrayDeque<>(window);
+    long index = 0;
+    try {
+      while (documents.hasNext()) {
+        if (inProgress.size() == window) {
+          consumer.accept(next(inProgress, completed));
+        }
+        Job job = new Job(index++, documents.next(), completed);
+        inProgress.add(job);
+        pool.execute(job);
+      }
+      while (!inProgress.isEmpty()) {
+        consumer.accept(next(inProgress, completed));
+      }
+    } finally {
+      for (Job job : inProgress) {
+        job.cancel(false);
+      }
+    }
+  }
+
+  private static DocumentResults next(ArrayDeque<Job> inProgress,
+      @Nullable BlockingQueue<Job> completed) {
+    Job job;
+    if (completed == null) {
+      job = inProgress.remove();
+    } else {
+      try {
+        job = completed.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for a document", e);
+      }
+      inProgress.remove(job);
+    }
+    return job.join();
+  }
+
+  /**
+   * Finds the numbers and units in one document on the current thread, using the current
+   * thread's worker.
+   */
+  DocumentResults detect(long index, CharSequence document) {
+    return workers.get().detect(index, document);
+  }
+
+  /**
+   * Detection of one document on the pool.
+   */
+  private final class Job extends RecursiveTask<DocumentResults> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long index;
+
+    private final CharSequence document;
+
+    @Nullable
+    private final BlockingQueue<Job> completed;
+
+    Job(long index, CharSequence document, @Nullable BlockingQueue<Job> completed) {
+      this.index = index;
+      this.document = document;
+      this.completed = completed;
+    }
+
+    @Override
+    protected DocumentResults compute() {
+      try {
+        return detect(index, document);
+      } finally {
+        if (completed != null) {
+          completed.add(this);
+        }
+      }
+    }
+  }
+}
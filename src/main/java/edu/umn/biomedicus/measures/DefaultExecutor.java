@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The executor that {@link AsyncDetector} uses when none is given. The multi-release jar replaces
+ * this class on Java 21 and newer with one that uses virtual threads, see src/main/java21.
+ *
+ * @since 2.1.0
+ */
+final class DefaultExecutor {
+
+  private DefaultExecutor() {
+    throw new UnsupportedOperationException("Instantiation of utility class");
+  }
+
+  /**
+   * The default executor.
+   *
+   * @return the common fork join pool
+   */
+  static Executor get() {
+    return ForkJoinPool.commonPool();
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+import edu.umn.biomedicus.numbers.CombinedNumberDetector;
+import edu.umn.biomedicus.numbers.NumberResultBuffer;
+import edu.umn.biomedicus.numbers.Numbers.DetectorFactory;
+import edu.umn.biomedicus.numbers.Token;
+import edu.umn.biomedicus.numbers.Tokenizer;
+import java.util.Arrays;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+/**
+ * Finds the numbers and units of measure in whole documents, reusing one detector, one unit
+ * recognizer and the token offset arrays for every document.
+ *
+ * <p>It is not safe to use an instance of this class from multiple threads at once, use multiple
+ * instances for concurrency.</p>
+ *
+ * @since 2.1.0
+ */
+final class DocumentDetector {
+
+  private final CombinedNumberDetector detector;
+
+  private final UnitRecognizer unitRecognizer;
+
+  /**
+   * The tokenizer given by the user, or null to use {@link #builtInTokenizer}.
+   */
+  @Nullable
+  private final Function<? super CharSequence, ? extends Iterable<Token>> tokenizer;
+
+  private final Tokenizer builtInTokenizer = new Tokenizer();
+
+  private int[] begins = new int[256];
+
+  private int[] ends = new int[256];
+
+  DocumentDetector(DetectorFactory detectorFactory, UnitRecognizer.Factory unitFactory,
+      @Nullable Function<? super CharSequence, ? extends Iterable<Token>> tokenizer) {
+    detector = detectorFactory.createCombinedNumberDetector();
+    unitRecognizer = unitFactory.create();
+    this.tokenizer = tokenizer;
+  }
+
+  /**
+   * Tokenizes the document and finds its numbers and units.
+   *
+   * @param index the index of the document to put in the results
+   * @param document the document text
+   * @return the results
+   */
+  DocumentResults detect(long index, CharSequence document) {
+    int count = 0;
+    int[] begins;
+    int[] ends;
+    if (tokenizer == null) {
+      count = builtInTokenizer.tokenize(document);
+      begins = builtInTokenizer.getBegins();
+      ends = builtInTokenizer.getEnds();
+    } else {
+      for (Token token : tokenizer.apply(document)) {
+        if (count == this.begins.length) {
+          this.begins = Arrays.copyOf(this.begins, count * 2);
+          this.ends = Arrays.copyOf(this.ends, count * 2);
+        }
+        this.begins[count] = token.getBegin();
+        this.ends[count] = token.getEnd();
+        count++;
+      }
+      begins = this.begins;
+      ends = this.ends;
+    }
+    NumberResultBuffer numbers = new NumberResultBuffer();
+    detector.reset();
+    unitRecognizer.reset();
+    detector.detect(document, begins, ends, count, numbers);
+    UnitResultBuffer units = new UnitResultBuffer();
+    unitRecognizer.detect(document, begins, ends, count, units);
+    return new DocumentResults(index, document, numbers, units);
+  }
+}
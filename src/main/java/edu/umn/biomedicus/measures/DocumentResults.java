@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+import edu.umn.biomedicus.numbers.NumberResultBuffer;
+
+/**
+ * The numbers and units of measure found in one document.
+ *
+ * @since 2.1.0
+ */
+public final class DocumentResults {
+
+  private final long index;
+
+  private final CharSequence document;
+
+  private final NumberResultBuffer numbers;
+
+  private final UnitResultBuffer units;
+
+  DocumentResults(long index, CharSequence document, NumberResultBuffer numbers,
+      UnitResultBuffer units) {
+    this.index = index;
+    this.document = document;
+    this.numbers = numbers;
+    this.units = units;
+  }
+
+  /**
+   * The position of the document in the sequence of documents it was processed with, starting
+   * at 0.
+   *
+   * @return document index
+   */
+  public long getIndex() {
+    return index;
+  }
+
+  /**
+   * The text of the document.
+   *
+   * @return document text
+   */
+  public CharSequence getDocument() {
+    return document;
+  }
+
+  /**
+   * The numbers found in the document.
+   *
+   * @return buffer of numbers, with offsets into the document
+   */
+  public NumberResultBuffer getNumbers() {
+    return numbers;
+  }
+
+  /**
+   * The units of measure found in the document.
+   *
+   * @return buffer of units, with offsets into the document
+   */
+  public UnitResultBuffer getUnits() {
+    return units;
+  }
+}
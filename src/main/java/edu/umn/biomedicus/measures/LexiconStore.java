@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+import edu.umn.biomedicus.internal.Snapshots;
+import edu.umn.biomedicus.measures.UnitRecognizer.Factory;
+import edu.umn.biomedicus.numbers.NumberModel;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * A single read-only file containing both the number model and the units of measure, which is
+ * memory-mapped rather than read onto the heap. Lookups read the words directly from the mapping,
+ * so multiple processes on the same host mapping the same store share one copy of the lexicons in
+ * the page cache.
+ *
+ * <br>Usage:
+ * <pre>
+ *   {@code
+LexiconStore.write(path, NumberModel.createNumberModel(nrnumPath, nrvarPath),
+    UnitRecognizer.createFactory(unitsPath));
+
+// in each worker process
+LexiconStore store = LexiconStore.map(path);
+DetectorFactory detectorFactory = Numbers.createFactory(store.getNumberModel());
+UnitRecognizer unitRecognizer = store.getUnitRecognizerFactory().create();
+ *   }
+ * </pre>
+ *
+ * <p>The file must not be modified while it is mapped. This class is immutable so it is
+ * thread-safe.</p>
+ *
+ * @since 2.1.0
+ */
+public final class LexiconStore {
+
+  /**
+   * Identifies lexicon stores, the ASCII characters "BMLS".
+   */
+  private static final int MAGIC = 0x424D4C53;
+
+  /**
+   * The version of the store format, must be incremented whenever the format of the store, the
+   * number model, or the units changes.
+   */
+  private static final int VERSION = 1;
+
+  private final NumberModel numberModel;
+
+  private final Factory unitRecognizerFactory;
+
+  private LexiconStore(NumberModel numberModel, Factory unitRecognizerFactory) {
+    this.numberModel = numberModel;
+    this.unitRecognizerFactory = unitRecognizerFactory;
+  }
+
+  /**
+   * Writes a number model and units of measure to a lexicon store file.
+   *
+   * @param path the path to write the store to, it will be replaced if it exists
+   * @param numberModel the number model
+   * @param unitRecognizerFactory the factory containing the units of measure
+   * @throws IOException if there is an error writing the file
+   */
+  public static void write(Path path, NumberModel numberModel, Factory unitRecognizerFactory)
+      throws IOException {
+    Snapshots.write(path, MAGIC, VERSION, out -> {
+      numberModel.write(out);
+      unitRecognizerFactory.write(out);
+    });
+  }
+
+  /**
+   * Memory-maps a lexicon store file written by {@link #write(Path, NumberModel, Factory)}.
+   *
+   * @param path the path to the store
+   * @return the store
+   * @throws IOException if the file can't be mapped, is corrupt, or was written by an
+   * incompatible version
+   */
+  public static LexiconStore map(Path path) throws IOException {
+    ByteBuffer buffer = Snapshots.map(path, MAGIC, VERSION);
+    NumberModel numberModel = NumberModel.map(buffer);
+    Factory unitRecognizerFactory = Factory.read(buffer, true);
+    if (buffer.hasRemaining()) {
+      throw new IOException("Unexpected data at the end of the lexicon store: " + path);
+    }
+    return new LexiconStore(numberModel, unitRecognizerFactory);
+  }
+
+  /**
+   * The number model, whose words are read from the mapped file.
+   *
+   * @return number model
+   */
+  public NumberModel getNumberModel() {
+    return numberModel;
+  }
+
+  /**
+   * The factory for unit recognizers, whose units are read from the mapped file.
+   *
+   * @return unit recognizer factory
+   */
+  public Factory getUnitRecognizerFactory() {
+    return unitRecognizerFactory;
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+import edu.umn.biomedicus.numbers.NumberResult;
+
+/**
+ * A measurement, a number directly followed by a unit of measure, like "5 mg" or "1/2 mL".
+ *
+ * <p>Instances are immutable and safe to share between threads.</p>
+ *
+ * @since 2.1.0
+ */
+public final class Measurement {
+
+  private final NumberResult number;
+
+  private final int unitBegin;
+
+  private final int unitEnd;
+
+  private final String unitCode;
+
+  Measurement(NumberResult number, int unitBegin, int unitEnd, String unitCode) {
+    this.number = number;
+    this.unitBegin = unitBegin;
+    this.unitEnd = unitEnd;
+    this.unitCode = unitCode;
+  }
+
+  /**
+   * The begin offset of the measurement, which is the begin of its number.
+   *
+   * @return begin offset
+   */
+  public int getBegin() {
+    return number.getBegin();
+  }
+
+  /**
+   * The end offset of the measurement, which is the end of its unit.
+   *
+   * @return end offset
+   */
+  public int getEnd() {
+    return unitEnd;
+  }
+
+  /**
+   * The number of the measurement, with its offsets and value.
+   *
+   * @return the number result
+   */
+  public NumberResult getNumber() {
+    return number;
+  }
+
+  /**
+   * The begin offset of the unit of measure.
+   *
+   * @return begin offset
+   */
+  public int getUnitBegin() {
+    return unitBegin;
+  }
+
+  /**
+   * The end offset of the unit of measure.
+   *
+   * @return end offset
+   */
+  public int getUnitEnd() {
+    return unitEnd;
+  }
+
+  /**
+   * The Unified Code for Units of Measure code of the unit.
+   *
+   * @return the UCUM code
+   */
+  public String getUnitCode() {
+    return unitCode;
+  }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+import edu.umn.biomedicus.numbers.CombinedNumberDetector;
+import edu.umn.biomedicus.numbers.NumberModel;
+import edu.umn.biomedicus.numbers.NumberResult;
+import edu.umn.biomedicus.numbers.NumberSink;
+import edu.umn.biomedicus.numbers.NumberType;
+import edu.umn.biomedicus.numbers.Numbers;
+import edu.umn.biomedicus.numbers.Token;
+import edu.umn.biomedicus.numbers.TokenClassifier;
+import edu.umn.biomedicus.numbers.TokenDescriptor;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import javax.annotation.Nullable;
+
+/**
+ * Detects measurements, numbers directly followed by units of measure, in a single pass over the
+ * tokens. Each token is classified once and the classification is passed to both a {@link
+ * CombinedNumberDetector} and a {@link UnitRecognizer}. A number and a unit are a measurement
+ * when the first token of the unit is the token right after the last token of the number, so
+ * "5 mg", "two mg", "1/2 mL" and "120/80 mmhg" are measurements, but "5 daily mg" is not.
+ *
+ * <p>Measurements are found when their unit is complete, which is a token or more after its last
+ * token.</p>
+ *
+ * <br>Usage:
+ * <pre>
+ *   {@code
+MeasurementDetector detector = new MeasurementDetector(NumberModel.createDefaultNumberModel(),
+    UnitRecognizer.createDefaultFactory());
+for (Measurement measurement : detector.findMeasurements(tokens)) {
+  NumberResult number = measurement.getNumber();
+  String code = measurement.getUnitCode();
+}
+ *   }
+ * </pre>
+ *
+ * <p>It is not safe to use an instance of this class from multiple threads at once, use multiple
+ * instances for concurrency.</p>
+ *
+ * @since 2.1.0
+ */
+public final class MeasurementDetector {
+
+  /**
+   * The number of recent tokens remembered to find the token after a number, numbers are found
+   * at most a few tokens after they end.
+   */
+  private static final int RECENT_TOKENS = 16;
+
+  private final TokenClassifier tokenClassifier;
+
+  private final CombinedNumberDetector detector;
+
+  private final UnitRecognizer unitRecognizer;
+
+  private final int[] recentBegins = new int[RECENT_TOKENS];
+
+  private int tokenCount = 0;
+
+  /**
+   * Numbers which could still be followed by a unit, with the begin offsets of the tokens after
+   * them in {@link #followingBegins}.
+   */
+  private final ArrayDeque<NumberResult> pendingNumbers = new ArrayDeque<>();
+
+  private final ArrayDeque<Integer> followingBegins = new ArrayDeque<>();
+
+  /**
+   * Numbers which end with the last token passed, so the begin of the token after them is not
+   * known until the next token.
+   */
+  private final List<NumberResult> unfollowedNumbers = new ArrayList<>();
+
+  private final List<Measurement> found = new ArrayList<>();
+
+  private final NumberSink numberSink = new NumberSink() {
+    @Override
+    public void number(int begin, int end, NumberType numberType, long numeratorUnscaled,
+        int numeratorScale, long denominatorUnscaled, int denominatorScale) {
+      addNumber(new NumberResult(begin, end, numeratorUnscaled, numeratorScale,
+          denominatorUnscaled, denominatorScale, numberType));
+    }
+
+    @Override
+    public void bigNumber(int begin, int end, NumberType numberType, BigDecimal numerator,
+        @Nullable BigDecimal denominator) {
+      addNumber(new NumberResult(begin, end, numerator, denominator, numberType));
+    }
+  };
+
+  private final UnitSink unitSink = this::addUnit;
+
+  /**
+   * Creates a measurement detector.
+   *
+   * @param numberModel the number model
+   * @param unitFactory the factory for the unit recognizer, whose units are also used to
+   * classify the tokens
+   */
+  public MeasurementDetector(NumberModel numberModel, UnitRecognizer.Factory unitFactory) {
+    tokenClassifier = unitFactory.createTokenClassifier(numberModel);
+    detector = Numbers.createFactory(numberModel).createCombinedNumberDetector();
+    unitRecognizer = unitFactory.create();
+  }
+
+  /**
+   * Passes the detector the specified token, returning any measurements that it completes.
+   *
+   * @param token the token to check, it will not be retained after this method returns
+   * @param begin the begin offset of the token
+   * @param end the end offset of the token
+   * @return list of measurements, if any, that are found because of the token passed in
+   */
+  public List<Measurement> tryToken(CharSequence token, int begin, int end) {
+    TokenDescriptor descriptor = tokenClassifier.classify(token, begin, end);
+    recentBegins[tokenCount++ % RECENT_TOKENS] = begin;
+    for (NumberResult number : unfollowedNumbers) {
+      pendingNumbers.addLast(number);
+      followingBegins.addLast(begin);
+    }
+    unfollowedNumbers.clear();
+    detector.tryToken(descriptor, numberSink);
+    unitRecognizer.advance(descriptor, unitSink);
+    if (!unitRecognizer.inProgress()) {
+      // the numbers before this token have not been followed by a unit
+      while (!followingBegins.isEmpty() && followingBegins.peekFirst() <= begin) {
+        pendingNumbers.removeFirst();
+        followingBegins.removeFirst();
+      }
+    }
+    return take();
+  }
+
+  /**
+   * Informs the detector that it is done being passed tokens, returning any measurements
+   * completed by the end of the tokens. The detector is reset for a new sequence of tokens.
+   *
+   * @return list of measurements
+   */
+  public List<Measurement> finish() {
+    detector.finish(numberSink);
+    unitRecognizer.finish(unitSink);
+    reset();
+    return take();
+  }
+
+  /**
+   * Resets the detector, discarding any numbers and units in progress.
+   */
+  public void reset() {
+    detector.reset();
+    if (unitRecognizer.inProgress()) {
+      unitRecognizer.finish((begin, end, code) -> { });
+    }
+    tokenCount = 0;
+    pendingNumbers.clear();
+    followingBegins.clear();
+    unfollowedNumbers.clear();
+  }
+
+  /**
+   * Checks all the tokens in the sequence, returning the measurements.
+   *
+   * @param tokens the sequence of tokens to check
+   * @return list of measurements
+   */
+  public List<Measurement> checkTokens(Iterable<Token> tokens) {
+    List<Measurement> measurements = new ArrayList<>();
+    for (Token token : tokens) {
+      measurements.addAll(tryToken(token.getText(), token.getBegin(), token.getEnd()));
+    }
+    measurements.addAll(finish());
+    return measurements;
+  }
+
+  /**
+   * Iteratively finds the measurements in an iterable sequence of tokens.
+   *
+   * @param tokens the sequence of tokens to check
+   * @return iterable of measurements
+   */
+  public Iterable<Measurement> findMeasurements(Iterable<Token> tokens) {
+    return () -> new Iterator<Measurement>() {
+      Iterator<Token> tokenIt = tokens.iterator();
+
+      Iterator<Measurement> current = Collections.emptyIterator();
+
+      boolean finished = false;
+
+      @Override
+      public boolean hasNext() {
+        while (!current.hasNext()) {
+          if (tokenIt.hasNext()) {
+            Token token = tokenIt.next();
+            current = tryToken(token.getText(), token.getBegin(), token.getEnd()).iterator();
+          } else if (!finished) {
+            finished = true;
+            current = finish().iterator();
+          } else {
+            return false;
+          }
+        }
+        return true;
+      }
+
+      @Override
+      public Measurement next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return current.next();
+      }
+    };
+  }
+
+  private void addNumber(NumberResult number) {
+    // the token after the number is the first recent token that begins at or after its end
+    int following = -1;
+    int oldest = Math.max(0, tokenCount - RECENT_TOKENS);
+    for (int i = tokenCount - 1; i >= oldest; i--) {
+      int begin = recentBegins[i % RECENT_TOKENS];
+      if (begin < number.getEnd()) {
+        break;
+      }
+      following = begin;
+    }
+    if (following != -1) {
+      pendingNumbers.addLast(number);
+      followingBegins.addLast(following);
+    } else {
+      // the number ends with the last token, which happens when it is only known to be complete
+      // at its last token, like "two and a half"
+      unfollowedNumbers.add(number);
+    }
+  }
+
+  private void addUnit(int begin, int end, String code) {
+    while (!followingBegins.isEmpty() && followingBegins.peekFirst() <= begin) {
+      NumberResult number = pendingNumbers.removeFirst();
+      if (followingBegins.removeFirst() == begin) {
+        found.add(new Measurement(number, begin, end, code));
+      }
+    }
+  }
+
+  private List<Measurement> take() {
+    if (found.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<Measurement> taken = new ArrayList<>(found);
+    found.clear();
+    return taken;
+  }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+import edu.umn.biomedicus.numbers.CombinedNumberDetector;
+import edu.umn.biomedicus.numbers.NumberSink;
+import edu.umn.biomedicus.numbers.Numbers.DetectorFactory;
+import edu.umn.biomedicus.numbers.Tokenizer;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Finds the numbers and units of measure in a document which is read in chunks, for documents
+ * that are too large to hold in memory. The document is read through a buffer of a fixed size,
+ * tokenized with the built-in {@link Tokenizer}, and detected token by token. The detectors are
+ * only finished at the end of the document, so numbers and units that span the chunks are found
+ * the same as if the whole document was read at once, and their offsets are from the start of the
+ * document.
+ *
+ * <p>Tokens are held back until the whitespace after them has been read, so the buffer must be
+ * larger than the longest run of text without whitespace. Longer runs are split where the buffer
+ * is full.</p>
+ *
+ * <br>Usage:
+ * <pre>
+ *   {@code
+StreamingDetector streamingDetector = new StreamingDetector(Numbers.createFactory(),
+    UnitRecognizer.createDefaultFactory());
+try (Reader reader = Files.newBufferedReader(path)) {
+  streamingDetector.detect(reader, numberSink, unitSink);
+}
+ *   }
+ * </pre>
+ *
+ * <p>It is not safe to use an instance of this class from multiple threads at once, use multiple
+ * instances for concurrency.</p>
+ *
+ * @since 2.1.0
+ */
+public final class StreamingDetector {
+
+  private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+  private final CombinedNumberDetector detector;
+
+  private final UnitRecognizer unitRecognizer;
+
+  private final Tokenizer tokenizer = new Tokenizer();
+
+  private final Window window;
+
+  /**
+   * Creates a streaming detector with a buffer of 65536 characters.
+   *
+   * @param detectorFactory the factory for the number detector
+   * @param unitFactory the factory for the unit recognizer
+   */
+  public StreamingDetector(DetectorFactory detectorFactory, UnitRecognizer.Factory unitFactory) {
+    this(detectorFactory, unitFactory, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * Creates a streaming detector.
+   *
+   * @param detectorFactory the factory for the number detector
+   * @param unitFactory the factory for the unit recognizer
+   * @param bufferSize the number of characters to read at a time
+   */
+  public StreamingDetector(DetectorFactory detectorFactory, UnitRecognizer.Factory unitFactory,
+      int bufferSize) {
+    if (bufferSize < 2) {
+      throw new IllegalArgumentException("Buffer size must be at least 2: " + bufferSize);
+    }
+    detector = detectorFactory.createCombinedNumberDetector();
+    unitRecognizer = unitFactory.create();
+    window = new Window(new char[bufferSize]);
+  }
+
+  /**
+   * Reads a document from a reader until it is exhausted, sending the numbers and units in it to
+   * the sinks. The reader is not closed.
+   *
+   * @param reader the reader of the document text
+   * @param numbers the sink for the numbers
+   * @param units the sink for the units of measure
+   * @return the length of the document in characters
+   * @throws IOException if reading fails
+   */
+  public long detect(Reader reader, NumberSink numbers, UnitSink units) throws IOException {
+    detector.reset();
+    unitRecognizer.reset();
+    char[] chars = window.chars;
+    window.base = 0;
+    int filled = 0;
+    boolean done = false;
+    while (!done) {
+      int read = reader.read(chars, filled, chars.length - filled);
+      if (read == -1) {
+        done = true;
+      } else {
+        filled += read;
+        if (filled < chars.length) {
+          continue;
+        }
+      }
+      if (window.base > Integer.MAX_VALUE - filled) {
+        throw new IllegalStateException("Document is longer than the largest offset");
+      }
+      window.length = window.base + filled;
+      int end = done ? -1 : Tokenizer.findBreak(window, window.base, window.length);
+      if (end <= window.base) {
+        end = window.length;
+      }
+      int count = tokenizer.tokenize(window, window.base, end);
+      int[] begins = tokenizer.getBegins();
+      int[] ends = tokenizer.getEnds();
+      for (int i = 0; i < count; i++) {
+        detector.tryTokenAt(window, begins[i], ends[i], numbers);
+        unitRecognizer.advanceAt(window, begins[i], ends[i], units);
+      }
+      // keeps the text after the break, starting with the whitespace at the break
+      int consumed = end - window.base;
+      filled -= consumed;
+      System.arraycopy(chars, consumed, chars, 0, filled);
+      window.base = end;
+    }
+    detector.finish(numbers);
+    unitRecognizer.finish(units);
+    return window.base;
+  }
+
+  /**
+   * Reads a document from a channel until it is exhausted, sending the numbers and units in it to
+   * the sinks. Malformed bytes are replaced. The offsets of the results are in characters, not
+   * bytes. The channel is not closed.
+   *
+   * @param channel the channel of the document bytes
+   * @param charset the charset to decode the bytes with
+   * @param numbers the sink for the numbers
+   * @param units the sink for the units of measure
+   * @return the length of the document in characters
+   * @throws IOException if reading fails
+   */
+  public long detect(ReadableByteChannel channel, Charset charset, NumberSink numbers,
+      UnitSink units) throws IOException {
+    CharsetDecoder decoder = charset.newDecoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    return detect(Channels.newReader(channel, decoder, window.chars.length), numbers, units);
+  }
+
+  /**
+   * The part of the document in the buffer, as a character sequence indexed by offsets from the
+   * start of the document.
+   */
+  private static final class Window implements CharSequence {
+
+    private final char[] chars;
+
+    /**
+     * The offset in the document of the first character in the buffer.
+     */
+    private int base;
+
+    /**
+     * The offset in the document after the last character in the buffer.
+     */
+    private int length;
+
+    Window(char[] chars) {
+      this.chars = chars;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+      if (index < base || index >= length) {
+        throw new IndexOutOfBoundsException("Offset " + index + " is not in the buffer");
+      }
+      return chars[index - base];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      if (start < base || end > length || start > end) {
+        throw new IndexOutOfBoundsException("Offsets " + start + " to " + end
+            + " are not in the buffer");
+      }
+      return new String(chars, start - base, end - start);
+    }
+
+    @Override
+    public String toString() {
+      return new String(chars, 0, length - base);
+    }
+  }
+}
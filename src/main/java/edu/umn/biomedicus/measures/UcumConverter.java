@@ -0,0 +1,668 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Converts values between units of measure given by the codes that {@link UnitRecognizer} finds,
+ * like "mg/dL" to "g/L" or "mL" to "L".
+ *
+ * <p>Each code is parsed once into its canonical form: a vector of the exponents of the base
+ * units and an exact rational scale factor to them. The canonical forms of the codes of the
+ * units of measure file are computed when the converter is created, and composite codes which are
+ * not in the file, like the "mg/dL" found by joining "mg" and "dL", are parsed the first time
+ * they are converted and cached. Converting checks that the two codes have the same base unit
+ * vector and multiplies by the ratio of their factors.</p>
+ *
+ * <p>The codes follow UCUM with the conventions of the units of measure file: "C" and "F" are
+ * degrees Celsius and Fahrenheit, "*" followed by a number after a unit is an exponent, like
+ * "cm*2", a number by itself is a dimensionless factor, like the unity "1", and moles are a base
+ * unit rather than a count. Temperatures in degrees Celsius and Fahrenheit can only be converted by
+ * themselves, not as parts of composite units, and logarithmic units like decibels can't be
+ * converted.</p>
+ *
+ * <br>Usage:
+ * <pre>
+ *   {@code
+UcumConverter converter = new UcumConverter(UnitRecognizer.createDefaultFactory());
+double gramsPerLiter = converter.convert(90, "mg/dL", "g/L");
+BigDecimal liters = converter.convert(new BigDecimal("250"), "mL", "L", MathContext.DECIMAL64);
+converter.convert(values, 0, values.length, "mg/dL", "g/L");
+ *   }
+ * </pre>
+ *
+ * <p>This class is thread-safe, the cache of canonical forms can be shared between threads.</p>
+ *
+ * @since 2.1.0
+ */
+public final class UcumConverter {
+
+  private static final String[] BASE_UNITS = {"m", "s", "g", "rad", "K", "mol", "[iU]"};
+
+  private static final int METER = 0;
+
+  private static final int SECOND = 1;
+
+  private static final int GRAM = 2;
+
+  private static final int RADIAN = 3;
+
+  private static final int KELVIN = 4;
+
+  private static final int MOLE = 5;
+
+  private static final int INTERNATIONAL_UNIT = 6;
+
+  private static final BigDecimal PI
+      = new BigDecimal("3.14159265358979323846264338327950288419716939937510582097494459");
+
+  private static final Pattern POWER_OF_TEN = Pattern.compile("10[*^](-?\\d+)");
+
+  /**
+   * A number by itself, a dimensionless factor like the unity "1" or the "1000" in "1000/mL".
+   */
+  private static final Pattern FACTOR = Pattern.compile("\\d+");
+
+  private static final Pattern EXPONENT = Pattern.compile("(.*?[^*^\\d-])[*^]?(-?\\d+)");
+
+  private static final Map<String, Integer> PREFIXES = new HashMap<>();
+
+  private static final Map<String, Canonical> ATOMS = new HashMap<>();
+
+  /**
+   * The atoms which can take a metric prefix.
+   */
+  private static final Set<String> METRIC = new HashSet<>();
+
+  static {
+    String[] prefixes = {"Y", "Z", "E", "P", "T", "G", "M", "k", "h", "da", "d", "c", "m", "u",
+        "n", "p", "f", "a", "z", "y"};
+    int[] exponents = {24, 21, 18, 15, 12, 9, 6, 3, 2, 1, -1, -2, -3, -6, -9, -12, -15, -18, -21,
+        -24};
+    for (int i = 0; i < prefixes.length; i++) {
+      PREFIXES.put(prefixes[i], exponents[i]);
+    }
+
+    metric("m", base(METER));
+    metric("s", base(SECOND));
+    metric("g", base(GRAM));
+    metric("rad", base(RADIAN));
+    metric("K", base(KELVIN));
+    metric("mol", base(MOLE));
+    metric("[iU]", base(INTERNATIONAL_UNIT));
+    metric("eq", base(MOLE));
+    metric("osm", base(MOLE));
+    metric("L", base(METER).pow(3).scale(Rational.of(1, 1000)));
+    metric("l", ATOMS.get("L"));
+    metric("U", base(MOLE).divide(base(SECOND)).scale(Rational.of(1, 60_000_000)));
+    metric("Hz", base(SECOND).pow(-1));
+    // kg.m-1.s-2 and kg.m2.s-3
+    metric("Pa", base(GRAM).divide(base(METER)).divide(base(SECOND).pow(2))
+        .scale(Rational.of(1000, 1)));
+    metric("W", base(GRAM).multiply(base(METER).pow(2)).divide(base(SECOND).pow(3))
+        .scale(Rational.of(1000, 1)));
+    metric("m[Hg]", ATOMS.get("Pa").scale(Rational.of(133_322, 1)));
+    metric("B", Canonical.LOGARITHMIC);
+
+    atom("min", base(SECOND).scale(Rational.of(60, 1)));
+    atom("h", base(SECOND).scale(Rational.of(3600, 1)));
+    atom("d", base(SECOND).scale(Rational.of(86_400, 1)));
+    atom("wk", base(SECOND).scale(Rational.of(604_800, 1)));
+    // the julian year and month, like UCUM
+    atom("a", base(SECOND).scale(Rational.of(31_557_600, 1)));
+    atom("mo", base(SECOND).scale(Rational.of(2_629_800, 1)));
+    atom("[IN_US]", base(METER).scale(Rational.of(100, 3937)));
+    atom("[FT_US]", base(METER).scale(Rational.of(1200, 3937)));
+    atom("[YD_US]", base(METER).scale(Rational.of(3600, 3937)));
+    atom("[MI_US]", base(METER).scale(Rational.of(6_336_000, 3937)));
+    atom("[LB_AV]", base(GRAM).scale(Rational.of(45_359_237, 100_000)));
+    atom("[OZ_AV]", base(GRAM).scale(Rational.of(45_359_237, 1_600_000)));
+    // 231 cubic international inches divided by 8
+    atom("[PT_US]", base(METER).pow(3).scale(Rational.of(473_176_473, 1_000_000_000_000L)));
+    atom("[HPF]", Canonical.ONE);
+    atom("[LPF]", Canonical.ONE.scale(Rational.of(100, 1)));
+    atom("%", Canonical.ONE.scale(Rational.of(1, 100)));
+    atom("[ppth]", Canonical.ONE.scale(Rational.of(1, 1000)));
+    atom("[ppm]", Canonical.ONE.scale(Rational.of(1, 1_000_000)));
+    atom("[ppb]", Canonical.ONE.scale(Rational.of(1, 1_000_000_000)));
+    atom("[pptr]", Canonical.ONE.scale(Rational.of(1, 1_000_000_000_000L)));
+    atom("[pi]", Canonical.ONE.withPi(1));
+    atom("deg", base(RADIAN).scale(Rational.of(1, 180)).withPi(1));
+    atom("[lg]", Canonical.LOGARITHMIC);
+    atom("C", Canonical.temperature(Rational.ONE, Rational.of(27_315, 100)));
+    atom("F", Canonical.temperature(Rational.of(5, 9), Rational.of(45_967, 180)));
+  }
+
+  private final ConcurrentHashMap<String, Canonical> cache = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a converter which parses codes the first time they are converted.
+   */
+  public UcumConverter() {
+  }
+
+  /**
+   * Creates a converter, computing the canonical forms of the codes of a unit recognizer
+   * factory's units up front.
+   *
+   * @param unitFactory the factory whose codes are computed
+   */
+  public UcumConverter(UnitRecognizer.Factory unitFactory) {
+    for (String code : unitFactory.getCodes()) {
+      try {
+        cache.put(code, parse(code));
+      } catch (IllegalArgumentException e) {
+        // codes which are not units by themselves, like the "/" of "per"
+      }
+    }
+  }
+
+  private static Canonical base(int dimension) {
+    int[] dimensions = new int[BASE_UNITS.length];
+    dimensions[dimension] = 1;
+    return new Canonical(dimensions, Rational.ONE, 0);
+  }
+
+  private static void metric(String code, Canonical canonical) {
+    atom(code, canonical);
+    METRIC.add(code);
+  }
+
+  private static void atom(String code, Canonical canonical) {
+    ATOMS.put(code, canonical);
+  }
+
+  /**
+   * Whether values can be converted from one unit to another.
+   *
+   * @param from the code of the unit to convert from
+   * @param to the code of the unit to convert to
+   * @return true if the units measure the same kind of quantity and can be converted
+   */
+  public boolean isConvertible(String from, String to) {
+    try {
+      return from.equals(to) || canonical(from).isConvertibleTo(canonical(to));
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Converts a value from one unit to another.
+   *
+   * @param value the value in the unit {@code from}
+   * @param from the code of the unit to convert from
+   * @param to the code of the unit to convert to
+   * @return the value in the unit {@code to}
+   * @throws IllegalArgumentException if a code can't be parsed or the units can't be converted
+   */
+  public double convert(double value, String from, String to) {
+    if (from.equals(to)) {
+      return value;
+    }
+    Canonical source = canonical(from);
+    Canonical target = canonical(to);
+    checkConvertible(source, target, from, to);
+    if (source.offset != null || target.offset != null) {
+      return (value * source.scale + source.offsetValue - target.offsetValue) / target.scale;
+    }
+    return value * (source.scale / target.scale);
+  }
+
+  /**
+   * Converts values which share a unit in place.
+   *
+   * @param values the array of values
+   * @param offset the index of the first value to convert
+   * @param count the number of values to convert
+   * @param from the code of the unit to convert from
+   * @param to the code of the unit to convert to
+   * @throws IllegalArgumentException if a code can't be parsed or the units can't be converted
+   */
+  public void convert(double[] values, int offset, int count, String from, String to) {
+    checkRange(values.length, offset, count);
+    if (from.equals(to)) {
+      return;
+    }
+    Canonical source = canonical(from);
+    Canonical target = canonical(to);
+    checkConvertible(source, target, from, to);
+    int end = offset + count;
+    if (source.offset != null || target.offset != null) {
+      double scale = source.scale / target.scale;
+      double shift = (source.offsetValue - target.offsetValue) / target.scale;
+      for (int i = offset; i < end; i++) {
+        values[i] = values[i] * scale + shift;
+      }
+    } else {
+      double scale = source.scale / target.scale;
+      for (int i = offset; i < end; i++) {
+        values[i] *= scale;
+      }
+    }
+  }
+
+  /**
+   * Converts a value from one unit to another using exact arithmetic. The result is exact when it
+   * has a finite decimal expansion, otherwise, or when one of the units is a multiple of pi like
+   * degrees of angle, it is rounded using the math context.
+   *
+   * @param value the value in the unit {@code from}
+   * @param from the code of the unit to convert from
+   * @param to the code of the unit to convert to
+   * @param mathContext the precision and rounding of results that can't be exact
+   * @return the value in the unit {@code to}
+   * @throws IllegalArgumentException if a code can't be parsed or the units can't be converted
+   */
+  public BigDecimal convert(BigDecimal value, String from, String to, MathContext mathContext) {
+    if (from.equals(to)) {
+      return value;
+    }
+    Canonical source = canonical(from);
+    Canonical target = canonical(to);
+    checkConvertible(source, target, from, to);
+    return convert(value, source, target, mathContext);
+  }
+
+  /**
+   * Converts values which share a unit in place using exact arithmetic, the same as {@link
+   * #convert(BigDecimal, String, String, MathContext)}.
+   *
+   * @param values the array of values
+   * @param offset the index of the first value to convert
+   * @param count the number of values to convert
+   * @param from the code of the unit to convert from
+   * @param to the code of the unit to convert to
+   * @param mathContext the precision and rounding of results that can't be exact
+   * @throws IllegalArgumentException if a code can't be parsed or the units can't be converted
+   */
+  public void convert(BigDecimal[] values, int offset, int count, String from, String to,
+      MathContext mathContext) {
+    checkRange(values.length, offset, count);
+    if (from.equals(to)) {
+      return;
+    }
+    Canonical source = canonical(from);
+    Canonical target = canonical(to);
+    checkConvertible(source, target, from, to);
+    for (int i = offset; i < offset + count; i++) {
+      values[i] = convert(values[i], source, target, mathContext);
+    }
+  }
+
+  private static BigDecimal convert(BigDecimal value, Canonical source, Canonical target,
+      MathContext mathContext) {
+    Rational result = Rational.of(value).multiply(source.factor);
+    if (source.offset != null) {
+      result = result.add(source.offset);
+    }
+    if (target.offset != null) {
+      result = result.subtract(target.offset);
+    }
+    result = result.divide(target.factor);
+    int pi = source.pi - target.pi;
+    if (pi == 0) {
+      return result.toBigDecimal(mathContext);
+    }
+    BigDecimal piPower = pi > 0 ? PI.pow(pi, mathContext)
+        : BigDecimal.ONE.divide(PI.pow(-pi, mathContext), mathContext);
+    return new BigDecimal(result.numerator).multiply(piPower, mathContext)
+        .divide(new BigDecimal(result.denominator), mathContext);
+  }
+
+  private static void checkRange(int length, int offset, int count) {
+    if (offset < 0 || count < 0 || offset > length - count) {
+      throw new IndexOutOfBoundsException("Offset " + offset + " and count " + count
+          + " are outside of the array of length " + length);
+    }
+  }
+
+  private static void checkConvertible(Canonical source, Canonical target, String from,
+      String to) {
+    if (source == Canonical.LOGARITHMIC || target == Canonical.LOGARITHMIC) {
+      throw new IllegalArgumentException("Logarithmic units can't be converted: " + from + " to "
+          + to);
+    }
+    if (!source.isConvertibleTo(target)) {
+      throw new IllegalArgumentException("Units measure different quantities: " + from + " is "
+          + source.describe() + " and " + to + " is " + target.describe());
+    }
+  }
+
+  private Canonical canonical(String code) {
+    Canonical canonical = cache.get(code);
+    if (canonical == null) {
+      canonical = parse(code);
+      Canonical existing = cache.putIfAbsent(code, canonical);
+      if (existing != null) {
+        canonical = existing;
+      }
+    }
+    return canonical;
+  }
+
+  /**
+   * Parses a code, which is components joined by "." for multiplication and "/" for division,
+   * evaluated from left to right.
+   */
+  private static Canonical parse(String code) {
+    Canonical result = null;
+    boolean divide = false;
+    int begin = 0;
+    int depth = 0;
+    for (int i = 0; i <= code.length(); i++) {
+      char ch = i < code.length() ? code.charAt(i) : '.';
+      if (ch == '[') {
+        depth++;
+      } else if (ch == ']') {
+        depth--;
+      } else if (depth == 0 && (ch == '.' || ch == '/')) {
+        if (i == 0 && ch == '/') {
+          // a leading "/", like "/h"
+          result = Canonical.ONE;
+        } else {
+          if (i == begin) {
+            throw new IllegalArgumentException("Invalid unit code: " + code);
+          }
+          Canonical component = parseComponent(code.substring(begin, i), code);
+          if (result == null) {
+            result = component;
+          } else {
+            result = divide ? result.divide(component) : result.multiply(component);
+          }
+        }
+        divide = ch == '/';
+        begin = i + 1;
+      }
+    }
+    if (result == null || depth != 0) {
+      throw new IllegalArgumentException("Invalid unit code: " + code);
+    }
+    return result;
+  }
+
+  private static Canonical parseComponent(String component, String code) {
+    Matcher powerOfTen = POWER_OF_TEN.matcher(component);
+    if (powerOfTen.matches()) {
+      int exponent = Integer.parseInt(powerOfTen.group(1));
+      return Canonical.ONE.scale(Rational.ONE.scaleByPowerOfTen(exponent));
+    }
+    if (FACTOR.matcher(component).matches()) {
+      BigInteger factor = new BigInteger(component);
+      if (factor.signum() == 0) {
+        throw new IllegalArgumentException("Zero factor " + component + " in code: " + code);
+      }
+      return Canonical.ONE.scale(Rational.of(factor, BigInteger.ONE));
+    }
+    Canonical atom = parseAtom(component);
+    if (atom != null) {
+      return atom;
+    }
+    Matcher exponent = EXPONENT.matcher(component);
+    if (exponent.matches()) {
+      atom = parseAtom(exponent.group(1));
+      if (atom != null) {
+        return atom.pow(Integer.parseInt(exponent.group(2)));
+      }
+    }
+    throw new IllegalArgumentException("Unknown unit " + component + " in code: " + code);
+  }
+
+  private static Canonical parseAtom(String atom) {
+    Canonical canonical = ATOMS.get(atom);
+    if (canonical != null) {
+      return canonical;
+    }
+    for (int length = 1; length <= 2 && length < atom.length(); length++) {
+      Integer prefix = PREFIXES.get(atom.substring(0, length));
+      String unit = atom.substring(length);
+      if (prefix != null && METRIC.contains(unit)) {
+        canonical = ATOMS.get(unit);
+        return canonical == Canonical.LOGARITHMIC ? canonical
+            : canonical.scale(Rational.ONE.scaleByPowerOfTen(prefix));
+      }
+    }
+    return null;
+  }
+
+  /**
+   * The canonical form of a unit: the exponents of the base units and the factor from the unit
+   * to them, an exact rational times a power of pi.
+   */
+  private static final class Canonical {
+
+    static final Canonical ONE = new Canonical(new int[BASE_UNITS.length], Rational.ONE, 0);
+
+    /**
+     * Logarithmic units, which have no factor to any other unit.
+     */
+    static final Canonical LOGARITHMIC = new Canonical(new int[BASE_UNITS.length], Rational.ONE,
+        0);
+
+    private final int[] dimensions;
+
+    private final Rational factor;
+
+    private final int pi;
+
+    /**
+     * The factor as a double, computed once for the fast conversions.
+     */
+    private final double scale;
+
+    /**
+     * For temperatures on interval scales, the kelvins at zero of the unit, otherwise null.
+     */
+    private final Rational offset;
+
+    private final double offsetValue;
+
+    private Canonical(int[] dimensions, Rational factor, int pi) {
+      this(dimensions, factor, pi, null);
+    }
+
+    private Canonical(int[] dimensions, Rational factor, int pi, Rational offset) {
+      this.dimensions = dimensions;
+      this.factor = factor;
+      this.pi = pi;
+      this.offset = offset;
+      scale = factor.doubleValue() * Math.pow(Math.PI, pi);
+      offsetValue = offset == null ? 0 : offset.doubleValue();
+    }
+
+    static Canonical temperature(Rational factor, Rational offset) {
+      return new Canonical(base(KELVIN).dimensions, factor, 0, offset);
+    }
+
+    Canonical scale(Rational scale) {
+      checkRatio();
+      return new Canonical(dimensions, factor.multiply(scale), pi);
+    }
+
+    Canonical withPi(int pi) {
+      return new Canonical(dimensions, factor, this.pi + pi);
+    }
+
+    Canonical multiply(Canonical other) {
+      checkRatio();
+      other.checkRatio();
+      int[] product = new int[dimensions.length];
+      for (int i = 0; i < product.length; i++) {
+        product[i] = dimensions[i] + other.dimensions[i];
+      }
+      return new Canonical(product, factor.multiply(other.factor), pi + other.pi);
+    }
+
+    Canonical divide(Canonical other) {
+      return multiply(other.pow(-1));
+    }
+
+    Canonical pow(int exponent) {
+      if (exponent == 1) {
+        return this;
+      }
+      checkRatio();
+      int[] power = new int[dimensions.length];
+      for (int i = 0; i < power.length; i++) {
+        power[i] = dimensions[i] * exponent;
+      }
+      return new Canonical(power, factor.pow(exponent), pi * exponent);
+    }
+
+    private void checkRatio() {
+      if (offset != null || this == LOGARITHMIC) {
+        throw new IllegalArgumentException(
+            "Temperatures and logarithmic units can't be scaled or combined with other units");
+      }
+    }
+
+    boolean isConvertibleTo(Canonical other) {
+      return this != LOGARITHMIC && other != LOGARITHMIC
+          && Arrays.equals(dimensions, other.dimensions);
+    }
+
+    String describe() {
+      StringBuilder builder = new StringBuilder();
+      for (int i = 0; i < dimensions.length; i++) {
+        if (dimensions[i] != 0) {
+          if (builder.length() > 0) {
+            builder.append('.');
+          }
+          builder.append(BASE_UNITS[i]);
+          if (dimensions[i] != 1) {
+            builder.append(dimensions[i]);
+          }
+        }
+      }
+      return builder.length() == 0 ? "dimensionless" : builder.toString();
+    }
+  }
+
+  /**
+   * An exact rational number in lowest terms with a positive denominator.
+   */
+  private static final class Rational {
+
+    static final Rational ONE = new Rational(BigInteger.ONE, BigInteger.ONE);
+
+    private static final BigInteger TWO = BigInteger.valueOf(2);
+
+    private static final BigInteger FIVE = BigInteger.valueOf(5);
+
+    private final BigInteger numerator;
+
+    private final BigInteger denominator;
+
+    private Rational(BigInteger numerator, BigInteger denominator) {
+      this.numerator = numerator;
+      this.denominator = denominator;
+    }
+
+    static Rational of(long numerator, long denominator) {
+      return of(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+    }
+
+    static Rational of(BigDecimal value) {
+      if (value.scale() > 0) {
+        return of(value.unscaledValue(), BigInteger.TEN.pow(value.scale()));
+      }
+      return new Rational(value.unscaledValue().multiply(BigInteger.TEN.pow(-value.scale())),
+          BigInteger.ONE);
+    }
+
+    static Rational of(BigInteger numerator, BigInteger denominator) {
+      if (denominator.signum() == 0) {
+        throw new ArithmeticException("Zero denominator");
+      }
+      if (denominator.signum() < 0) {
+        numerator = numerator.negate();
+        denominator = denominator.negate();
+      }
+      BigInteger gcd = numerator.gcd(denominator);
+      if (!gcd.equals(BigInteger.ONE) && gcd.signum() != 0) {
+        numerator = numerator.divide(gcd);
+        denominator = denominator.divide(gcd);
+      }
+      return new Rational(numerator, denominator);
+    }
+
+    Rational multiply(Rational other) {
+      return of(numerator.multiply(other.numerator), denominator.multiply(other.denominator));
+    }
+
+    Rational divide(Rational other) {
+      return of(numerator.multiply(other.denominator), denominator.multiply(other.numerator));
+    }
+
+    Rational add(Rational other) {
+      return of(numerator.multiply(other.denominator).add(other.numerator.multiply(denominator)),
+          denominator.multiply(other.denominator));
+    }
+
+    Rational subtract(Rational other) {
+      return add(new Rational(other.numerator.negate(), other.denominator));
+    }
+
+    Rational pow(int exponent) {
+      if (exponent < 0) {
+        return of(denominator.pow(-exponent), numerator.pow(-exponent));
+      }
+      return new Rational(numerator.pow(exponent), denominator.pow(exponent));
+    }
+
+    Rational scaleByPowerOfTen(int exponent) {
+      BigInteger power = BigInteger.TEN.pow(Math.abs(exponent));
+      return exponent >= 0 ? of(numerator.multiply(power), denominator)
+          : of(numerator, denominator.multiply(power));
+    }
+
+    double doubleValue() {
+      return new BigDecimal(numerator).divide(new BigDecimal(denominator), MathContext.DECIMAL128)
+          .doubleValue();
+    }
+
+    /**
+     * The exact decimal value if the denominator only has the factors 2 and 5, otherwise the value
+     * rounded with the math context.
+     */
+    BigDecimal toBigDecimal(MathContext mathContext) {
+      BigInteger remaining = denominator;
+      while (remaining.mod(TWO).signum() == 0) {
+        remaining = remaining.divide(TWO);
+      }
+      while (remaining.mod(FIVE).signum() == 0) {
+        remaining = remaining.divide(FIVE);
+      }
+      BigDecimal numerator = new BigDecimal(this.numerator);
+      if (remaining.equals(BigInteger.ONE)) {
+        return numerator.divide(new BigDecimal(denominator));
+      }
+      return numerator.divide(new BigDecimal(denominator), mathContext);
+    }
+  }
+}
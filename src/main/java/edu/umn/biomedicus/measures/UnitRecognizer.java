@@ -16,14 +16,28 @@
 
 package edu.umn.biomedicus.measures;
 
+import edu.umn.biomedicus.internal.Lexicon;
+import edu.umn.biomedicus.internal.NumbersBridge;
+import edu.umn.biomedicus.internal.Snapshots;
+import edu.umn.biomedicus.numbers.NumberModel;
+import edu.umn.biomedicus.numbers.NumberPrefilter;
+import edu.umn.biomedicus.numbers.TokenClassifier;
+import edu.umn.biomedicus.numbers.TokenDescriptor;
 import java.io.BufferedReader;
+import java.io.DataOutput;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.regex.Pattern;
 
@@ -31,6 +45,19 @@ import java.util.regex.Pattern;
  * Recognizes token sequences that are units of measure. Maps the units of measure to their Unified
  * Code of Units of Measurement code. This class is currently untested and not stable.
  *
+ * <p>Units may be phrases of several tokens, like "mm hg" or "international units", which are
+ * matched longest first using a trie over the tokens. Tokens are held back while a longer unit
+ * could still continue, at most as many as the tokens in the longest unit. Units joined by the
+ * connectors "/" or "per" are a single composite unit whose code joins their codes, so
+ * "milligrams per deciliter" and "mg / dL" are both "mg/dL".</p>
+ *
+ * <p>The methods that return an {@link Optional} return at most one unit per call. A single token
+ * can complete two units, when a phrase that was held back is not a unit and its tokens are passed
+ * through the recognizer again, in which case the second unit is kept and returned by the next
+ * call instead, and the units still kept after the last token are returned by calling {@link
+ * #finish()} until it returns an empty result. The methods that take a {@link UnitSink} send every
+ * unit as soon as it is found.</p>
+ *
  * <br>Usage:
  * <pre>
  *   {@code
@@ -42,8 +69,8 @@ for(String word : sentence) {
   }
   index += word.length();
 }
-Optional<Result> potentialResult = unitRecognizer.finish();
-if (potentialResult.isPresent()) {
+Optional<Result> potentialResult;
+while ((potentialResult = unitRecognizer.finish()).isPresent()) {
   Result result = potentialResult.get();
   int begin = result.getBegin();
   int end = result.getEnd();
@@ -58,21 +85,95 @@ if (potentialResult.isPresent()) {
  */
 public class UnitRecognizer {
 
-  private final Map<String, String> unitOfMeasureMap;
+  /**
+   * The token id of a connector, "/" or "per", which joins units into a composite unit.
+   */
+  private static final int CONNECTOR = -2;
+
+  private static final NumbersBridge NUMBERS = NumbersBridge.get();
+
+  private final Lexicon units;
+
+  private final UnitTrie trie;
 
+  private final String[] codes;
+
+  /**
+   * The begin of the unit in progress, which may be composite, or -1 if there is none.
+   */
   private int start = -1;
 
   private int end = -1;
 
-  private StringBuilder codeBuilder = new StringBuilder();
+  /**
+   * Whether a connector follows the unit in progress, so the next unit is joined to it.
+   */
+  private boolean connected = false;
+
+  /**
+   * The code indices of the units joined into the unit in progress.
+   */
+  private int[] components = new int[4];
+
+  private int componentCount = 0;
+
+  /**
+   * The codes of the composite units that have been found, so that finding one again does not
+   * build its code.
+   */
+  private final CompositeCodes compositeCodes;
+
+  /**
+   * Tokens held back because a longer unit could still continue with the next token.
+   */
+  private final int[] heldTokens;
+
+  private final int[] heldBegins;
+
+  private final int[] heldEnds;
+
+  private int held = 0;
 
   /**
-   * Constructs a units recognizer.
+   * The trie node after the held tokens.
+   */
+  private int node = UnitTrie.ROOT;
+
+  /**
+   * The number of held tokens in the longest unit among them, and its code index.
+   */
+  private int matchLength = 0;
+
+  private int matchCode = -1;
+
+  /**
+   * Units found by the methods that return a single result, which have not been returned yet.
+   */
+  private final ArrayDeque<Result> ready = new ArrayDeque<>();
+
+  private final UnitSink readySink = this::ready;
+
+  /**
+   * Constructs a units recognizer. This builds the recognizer's tables from the map every time it
+   * is called, use a factory from {@link #createFactory(Map)} to build them once and share them
+   * between recognizers.
    *
    * @param unitOfMeasureMap a map from units to their UCUM code.
+   * @deprecated since 2.1.0, use {@link #createFactory(Map)} and {@link Factory#create()}
    */
+  @Deprecated
   public UnitRecognizer(Map<String, String> unitOfMeasureMap) {
-    this.unitOfMeasureMap = unitOfMeasureMap;
+    this(new Factory(unitOfMeasureMap));
+  }
+
+  private UnitRecognizer(Factory factory) {
+    units = factory.units;
+    trie = factory.trie;
+    codes = factory.codes;
+    compositeCodes = new CompositeCodes(codes);
+    heldTokens = new int[trie.getMaxLength()];
+    heldBegins = new int[trie.getMaxLength()];
+    heldEnds = new int[trie.getMaxLength()];
   }
 
   /**
@@ -81,21 +182,39 @@ public class UnitRecognizer {
    * @return true if it has begun, false otherwise
    */
   public boolean inProgress() {
-    return start != -1;
+    return start != -1 || held > 0;
   }
 
   /**
    * Advances the recognizer, detecting if tokens passed to it have any units of measurement.
    *
-   * @param token the token to pass, should already be lowercased
+   * @param token the token to pass
    * @param begin the begin index of the token
    * @param end the end index of the token
-   * @return an optional result will be present when a unit of measurement was detected.
+   * @return an optional result will be present when a unit of measurement was detected, either by
+   * this token or by an earlier one which completed more than one unit, see the class
+   * documentation.
    */
   public Optional<Result> advance(CharSequence token, int begin, int end) {
-    String lowercased = token.toString().toLowerCase();
+    step(tokenId(token, 0, token.length()), begin, end, readySink);
+    return Optional.ofNullable(ready.poll());
+  }
 
-    return advanceLowercased(lowercased, begin, end);
+  /**
+   * Advances the recognizer with the token that is the region from {@code begin} to {@code end} in
+   * the document, without requiring the token to be copied out of the document by the caller.
+   *
+   * @param document the document text
+   * @param begin the offset of the first character of the token in the document
+   * @param end the offset after the last character of the token in the document
+   * @return an optional result will be present when a unit of measurement was detected, it will
+   * have offsets into the document. Like {@link #advance(CharSequence, int, int)}, the result may
+   * have been completed by an earlier token when that token completed more than one unit.
+   * @since 2.1.0
+   */
+  public Optional<Result> advanceAt(CharSequence document, int begin, int end) {
+    step(tokenId(document, begin, end), begin, end, readySink);
+    return Optional.ofNullable(ready.poll());
   }
 
   /**
@@ -106,54 +225,273 @@ public class UnitRecognizer {
    * @param token the token to pass, should already be lowercased
    * @param begin the begin index of the token
    * @param end the end index of the token
-   * @return an optional result will be present when a unit of measurement was detected.
+   * @return an optional result will be present when a unit of measurement was detected, with the
+   * same deferred delivery as {@link #advance(CharSequence, int, int)}.
    */
   public Optional<Result> advanceLowercased(String token, int begin, int end) {
-    if (isUnitOfMeasureWord(token)) {
-      start = begin;
-      this.end = end;
-    } else if (!token.equals("/") && !token.equals("per")) {
-      if (begin != -1) {
-        Result result = new Result();
-        result.begin = start;
-        result.end = this.end;
-        result.code = codeBuilder.toString();
-
-        // consume the current token, since units will never be discovered on the first token
-        // passed to the unit recognizer
-        reset();
-        advanceLowercased(token, begin, end);
-
-        return Optional.of(result);
+    return advance(token, begin, end);
+  }
+
+  /**
+   * Advances the recognizer with a token that has already been classified, detecting if the
+   * tokens passed to it have any units of measurement.
+   *
+   * @param token the classified token, the classifier should have been created by {@link
+   * Factory#createTokenClassifier(NumberModel)} to avoid looking up the token again
+   * @return an optional result will be present when a unit of measurement was detected, with the
+   * same deferred delivery as {@link #advance(CharSequence, int, int)}. Use {@link
+   * #advance(TokenDescriptor, UnitSink)} to receive every unit as soon as it is found.
+   * @since 2.1.0
+   */
+  public Optional<Result> advance(TokenDescriptor token) {
+    advance(token, readySink);
+    return Optional.ofNullable(ready.poll());
+  }
+
+  /**
+   * Advances the recognizer with a token that has already been classified, sending the unit to
+   * the sink if the token ends one.
+   *
+   * @param token the classified token, the classifier should have been created by {@link
+   * Factory#createTokenClassifier(NumberModel)} to avoid looking up the token again
+   * @param sink the sink to send the units to
+   * @return true if a unit was sent to the sink
+   * @since 2.1.0
+   */
+  public boolean advance(TokenDescriptor token, UnitSink sink) {
+    int tokenId = token.isSlash() || token.isPer() ? CONNECTOR
+        : NUMBERS.getUnit(token, trie.getVocabulary());
+    return step(tokenId, token.getBegin(), token.getEnd(), sink);
+  }
+
+  private void ready(int begin, int end, String code) {
+    Result result = new Result();
+    result.begin = begin;
+    result.end = end;
+    result.code = code;
+    ready.add(result);
+  }
+
+  /**
+   * Detects the units of measure in the tokens given as arrays of offsets into a document, sending
+   * them to the sink. This works on the document's characters directly, so neither the tokens nor
+   * the units are allocated as objects. The recognizer is finished after the last token.
+   *
+   * @param document the document text
+   * @param begins the begin offsets of the tokens
+   * @param ends the end offsets of the tokens
+   * @param count the number of tokens, the length of the arrays that is used
+   * @param sink the sink to send the units to, like a {@link UnitResultBuffer}
+   * @since 2.1.0
+   */
+  public void detect(CharSequence document, int[] begins, int[] ends, int count,
+      UnitSink sink) {
+    if (count > begins.length || count > ends.length) {
+      throw new IllegalArgumentException("Count " + count + " is more than the number of offsets");
+    }
+    for (int i = 0; i < count; i++) {
+      advanceAt(document, begins[i], ends[i], sink);
+    }
+    finish(sink);
+  }
+
+  /**
+   * Advances the recognizer with the token that is the region from {@code begin} to {@code end} in
+   * the document, sending the unit to the sink if the token ends one. The token is looked up
+   * without being copied and no objects are created unless the sink creates them, the codes of
+   * units are shared strings.
+   *
+   * @param document the document text
+   * @param begin the offset of the first character of the token in the document
+   * @param end the offset after the last character of the token in the document
+   * @param sink the sink to send the units to
+   * @return true if a unit was sent to the sink
+   * @since 2.1.0
+   */
+  public boolean advanceAt(CharSequence document, int begin, int end, UnitSink sink) {
+    return step(tokenId(document, begin, end), begin, end, sink);
+  }
+
+  /**
+   * Advances the recognizer with a token whose text is separate from its offsets, sending the
+   * unit to the sink if the token ends one.
+   *
+   * @param token the text of the token
+   * @param begin the begin index of the token
+   * @param end the end index of the token
+   * @param sink the sink to send the units to
+   * @return true if a unit was sent to the sink
+   * @since 2.1.0
+   */
+  public boolean advance(CharSequence token, int begin, int end, UnitSink sink) {
+    return step(tokenId(token, 0, token.length()), begin, end, sink);
+  }
+
+  private int tokenId(CharSequence text, int begin, int end) {
+    return isConnector(text, begin, end) ? CONNECTOR : trie.lookup(text, begin, end);
+  }
+
+  /**
+   * Advances the state with a token, which takes one step in the trie unless the token ends a
+   * phrase that was held back.
+   *
+   * @param token the token id in the trie's vocabulary, -1 if no unit contains the token, or
+   * {@link #CONNECTOR}
+   * @return true if a unit was sent to the sink
+   */
+  private boolean step(int token, int begin, int end, UnitSink sink) {
+    boolean sent = false;
+    if (held > 0) {
+      int child = token >= 0 ? trie.next(node, token) : -1;
+      if (child != -1) {
+        hold(token, begin, end, child);
+        return !trie.hasChildren(child) && resolve(sink);
+      }
+      sent = resolve(sink);
+    }
+    return accept(token, begin, end, sink) | sent;
+  }
+
+  /**
+   * Advances the state with a token when no tokens are held.
+   */
+  private boolean accept(int token, int begin, int end, UnitSink sink) {
+    int child = token >= 0 ? trie.next(UnitTrie.ROOT, token) : -1;
+    if (child != -1) {
+      // a unit directly after another is a separate unit
+      boolean sent = start != -1 && !connected && emit(sink);
+      hold(token, begin, end, child);
+      if (!trie.hasChildren(child)) {
+        resolve(sink);
       }
+      return sent;
+    }
+    if (token == CONNECTOR) {
+      connected = start != -1;
+      return false;
     }
+    return start != -1 && emit(sink);
+  }
 
-    return Optional.empty();
+  private void hold(int token, int begin, int end, int child) {
+    heldTokens[held] = token;
+    heldBegins[held] = begin;
+    heldEnds[held] = end;
+    held++;
+    node = child;
+    int code = trie.getCode(child);
+    if (code != -1) {
+      matchLength = held;
+      matchCode = code;
+    }
   }
 
-  private void reset() {
+  /**
+   * Takes the longest unit from the held tokens, and passes the tokens after it through the
+   * recognizer again. The tokens are moved to the front of the held arrays as they are passed
+   * again, which never overwrites a token that has not been passed yet.
+   *
+   * @return true if a unit was sent to the sink
+   */
+  private boolean resolve(UnitSink sink) {
+    int count = held;
+    int length = matchLength;
+    int code = matchCode;
+    held = 0;
+    node = UnitTrie.ROOT;
+    matchLength = 0;
+    matchCode = -1;
+
+    boolean sent;
+    int index;
+    if (length > 0) {
+      sent = addUnit(heldBegins[0], heldEnds[length - 1], code, sink);
+      index = length;
+    } else {
+      // the first token only begins longer units, so it is not part of a unit
+      sent = start != -1 && emit(sink);
+      index = 1;
+    }
+    for (; index < count; index++) {
+      sent |= step(heldTokens[index], heldBegins[index], heldEnds[index], sink);
+    }
+    return sent;
+  }
+
+  /**
+   * Adds a unit to the unit in progress if a connector joins them, otherwise begins a new unit.
+   */
+  private boolean addUnit(int begin, int end, int code, UnitSink sink) {
+    boolean sent = false;
+    if (start == -1 || !connected) {
+      sent = start != -1 && emit(sink);
+      start = begin;
+    }
+    if (componentCount == components.length) {
+      components = Arrays.copyOf(components, componentCount * 2);
+    }
+    components[componentCount++] = code;
+    this.end = end;
+    connected = false;
+    return sent;
+  }
+
+  private boolean emit(UnitSink sink) {
+    String code = componentCount == 1 ? codes[components[0]]
+        : compositeCodes.get(components, componentCount);
+    sink.unit(start, end, code);
+    clearUnit();
+    return true;
+  }
+
+  /**
+   * Finishes the recognizer, sending the unit in progress to the sink if there is one.
+   *
+   * @param sink the sink to send the units to
+   * @return true if a unit was sent to the sink
+   * @since 2.1.0
+   */
+  public boolean finish(UnitSink sink) {
+    boolean sent = false;
+    while (held > 0) {
+      sent |= resolve(sink);
+    }
+    return start != -1 ? emit(sink) : sent;
+  }
+
+  /**
+   * Resets the recognizer to its default state, discarding any tokens held back, the unit in
+   * progress, and any units not yet returned by the methods that return a single result, so the
+   * next token starts a new document.
+   *
+   * @since 2.1.0
+   */
+  public void reset() {
+    held = 0;
+    node = UnitTrie.ROOT;
+    matchLength = 0;
+    matchCode = -1;
+    ready.clear();
+    clearUnit();
+  }
+
+  private void clearUnit() {
     start = -1;
     end = -1;
-    codeBuilder = new StringBuilder();
+    connected = false;
+    componentCount = 0;
   }
 
   /**
-   * Tests the tokens that have been passed to the recognizer and are in progress.
+   * Tests the tokens that have been passed to the recognizer and are in progress. If the tokens
+   * complete more than one unit, or units completed by earlier tokens have not been returned yet,
+   * the rest are returned by calling this method again until it returns an empty result.
    *
    * @return an optional result will be present when a unit of measurement was detected.
    */
   public Optional<Result> finish() {
-    if (start != -1) {
-      Result result = new Result();
-      result.begin = start;
-      result.end = this.end;
-      result.code = codeBuilder.toString();
-
-      reset();
-
-      return Optional.of(result);
-    }
-    return Optional.empty();
+    finish(readySink);
+    return Optional.ofNullable(ready.poll());
   }
 
   /**
@@ -163,10 +501,7 @@ public class UnitRecognizer {
    * @return true if the string is a unit of measurement, false if it is not
    */
   public boolean isUnitOfMeasureWord(String string) {
-    String lowercase = string.toLowerCase();
-    return unitOfMeasureMap.containsKey(lowercase) ||
-        (string.charAt(string.length() - 1) == '.'
-        && unitOfMeasureMap.containsKey(lowercase.substring(0, string.length() - 1)));
+    return isUnit(string);
   }
 
   /**
@@ -178,9 +513,44 @@ public class UnitRecognizer {
    * @return true if the string is a unit of measurement, false if it is not.
    */
   public boolean isUnitOfMeasureWordLowercased(String lowercase) {
-    return unitOfMeasureMap.containsKey(lowercase) ||
-        (lowercase.charAt(lowercase.length() - 1) == '.'
-        && unitOfMeasureMap.containsKey(lowercase.substring(0, lowercase.length() - 1)));
+    return isUnit(lowercase);
+  }
+
+  /**
+   * Tests whether the region from {@code begin} to {@code end} of the text is a unit of
+   * measurement. The region is lowercased as it is looked up and may be abbreviated with a
+   * trailing period, without copying it out of the text.
+   *
+   * @param text the text containing the word
+   * @param begin the offset of the first character of the word
+   * @param end the offset after the last character of the word
+   * @return true if the region is a unit of measurement, false if it is not
+   * @since 2.1.0
+   */
+  public boolean isUnitOfMeasureWord(CharSequence text, int begin, int end) {
+    return isUnit(text, begin, end);
+  }
+
+  private boolean isUnit(CharSequence word) {
+    return isUnit(word, 0, word.length());
+  }
+
+  private boolean isUnit(CharSequence text, int begin, int end) {
+    return units.lookup(text, begin, end) != -1 || (end > begin
+        && text.charAt(end - 1) == '.' && units.lookup(text, begin, end - 1) != -1);
+  }
+
+  private static boolean isConnector(CharSequence text, int begin, int end) {
+    switch (end - begin) {
+      case 1:
+        return text.charAt(begin) == '/';
+      case 3:
+        return Character.toLowerCase(text.charAt(begin)) == 'p'
+            && Character.toLowerCase(text.charAt(begin + 1)) == 'e'
+            && Character.toLowerCase(text.charAt(begin + 2)) == 'r';
+      default:
+        return false;
+    }
   }
 
   /**
@@ -199,18 +569,44 @@ public class UnitRecognizer {
   }
 
   /**
-   * Creates a {@link Factory}, loading the units and subjects from their default files.
+   * Creates a {@link Factory} for the default units of measure.
    *
    * @return newly initialized factory
-   * @throws IOException if the data fails to load.
+   * @throws IOException never, the units are compiled into the library. Use {@link
+   *     #createDefaultFactory()} to avoid handling the exception.
    */
   public static Factory createFactory() throws IOException {
-    ClassLoader classLoader = UnitRecognizer.class.getClassLoader();
-    try (BufferedReader unitsReader = new BufferedReader(new InputStreamReader(
-        classLoader.getResourceAsStream("edu/umn/biomedicus/measures/unitsOfMeasure.txt")))
-    ) {
-      return createFactory(unitsReader);
+    return createDefaultFactory();
+  }
+
+  /**
+   * Creates a {@link Factory} for the default units of measure. The units are compiled into
+   * tables at build time, so this does not read or parse any files.
+   *
+   * @return newly initialized factory
+   * @since 2.1.0
+   */
+  public static Factory createDefaultFactory() {
+    Map<String, Integer> codeIndices = new HashMap<>();
+    List<String> codes = new ArrayList<>();
+    int[] values = new int[UnitTables.UNITS.length];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = Factory.codeIndex(codeIndices, codes, UnitTables.CODES[i]);
     }
+    return new Factory(Lexicon.createSorted(UnitTables.UNITS, values),
+        codes.toArray(new String[0]));
+  }
+
+  /**
+   * Creates a {@link Factory} for the units of measure in a map, building the tables shared by
+   * the recognizers it creates once.
+   *
+   * @param unitOfMeasureMap a map from units to their UCUM code
+   * @return newly initialized factory
+   * @since 2.1.0
+   */
+  public static Factory createFactory(Map<String, String> unitOfMeasureMap) {
+    return new Factory(unitOfMeasureMap);
   }
 
   private static Factory createFactory(BufferedReader unitsReader)
@@ -231,7 +627,7 @@ public class UnitRecognizer {
       unitsOfMeasureMap.put(splits[0], splits[1]);
     }
 
-    return new Factory(unitsOfMeasureMap);
+    return createFactory(unitsOfMeasureMap);
   }
 
   /**
@@ -239,10 +635,131 @@ public class UnitRecognizer {
    */
   public static class Factory {
 
-    private final Map<String, String> unitOfMeasureMap;
+    /**
+     * Identifies unit recognizer snapshots, the ASCII characters "BMUR".
+     */
+    private static final int SNAPSHOT_MAGIC = 0x424D5552;
+
+    /**
+     * The version of the snapshot format, must be incremented whenever the format changes.
+     */
+    private static final int SNAPSHOT_VERSION = 2;
+
+    private final Lexicon units;
+
+    private final String[] codes;
+
+    private final UnitTrie trie;
 
     Factory(Map<String, String> unitOfMeasureMap) {
-      this.unitOfMeasureMap = unitOfMeasureMap;
+      Map<String, Integer> codeIndices = new HashMap<>();
+      List<String> codes = new ArrayList<>();
+      Map<String, Integer> units = new HashMap<>();
+      for (Entry<String, String> entry : unitOfMeasureMap.entrySet()) {
+        units.put(entry.getKey(), codeIndex(codeIndices, codes, entry.getValue()));
+      }
+      this.units = Lexicon.create(units);
+      this.codes = codes.toArray(new String[0]);
+      trie = new UnitTrie(this.units);
+    }
+
+    Factory(Lexicon units, String[] codes) {
+      this.units = units;
+      this.codes = codes;
+      trie = new UnitTrie(units);
+    }
+
+    /**
+     * The distinct UCUM codes of the units, this factory's own array which must not be modified.
+     *
+     * @return array of codes
+     */
+    String[] getCodes() {
+      return codes;
+    }
+
+    static int codeIndex(Map<String, Integer> codeIndices, List<String> codes, String code) {
+      Integer index = codeIndices.get(code);
+      if (index == null) {
+        index = codes.size();
+        codeIndices.put(code, index);
+        codes.add(code);
+      }
+      return index;
+    }
+
+    /**
+     * Writes the units of measure to a versioned, checksummed binary snapshot which can be loaded
+     * using {@link #readSnapshot(Path)} without parsing the units of measure file.
+     *
+     * @param path the path to write the snapshot to, it will be replaced if it exists
+     * @throws IOException if there is an error writing the snapshot
+     * @since 2.1.0
+     */
+    public void writeSnapshot(Path path) throws IOException {
+      Snapshots.write(path, SNAPSHOT_MAGIC, SNAPSHOT_VERSION, this::write);
+    }
+
+    /**
+     * Loads a factory from a snapshot written by {@link #writeSnapshot(Path)}.
+     *
+     * @param path the path to the snapshot
+     * @return newly initialized factory
+     * @throws IOException if the snapshot can't be read, is corrupt, or was written by an
+     * incompatible version
+     * @since 2.1.0
+     */
+    public static Factory readSnapshot(Path path) throws IOException {
+      return read(Snapshots.read(path, SNAPSHOT_MAGIC, SNAPSHOT_VERSION), false);
+    }
+
+    void write(DataOutput out) throws IOException {
+      out.writeInt(codes.length);
+      for (String code : codes) {
+        Snapshots.writeString(out, code);
+      }
+      units.write(out);
+    }
+
+    static Factory read(ByteBuffer buffer, boolean mapped) throws IOException {
+      try {
+        String[] codes = new String[Snapshots.readCount(buffer, Integer.BYTES)];
+        for (int i = 0; i < codes.length; i++) {
+          codes[i] = Snapshots.readString(buffer);
+        }
+        Lexicon units = mapped ? Lexicon.map(buffer, codes.length)
+            : Lexicon.read(buffer, codes.length);
+        return new Factory(units, codes);
+      } catch (BufferUnderflowException e) {
+        throw new IOException("Unit recognizer snapshot is truncated", e);
+      }
+    }
+
+    /**
+     * Creates a token classifier which looks up tokens in this factory's units of measure as well
+     * as the number model, so its descriptors can be passed to both the number detectors and the
+     * unit recognizers. The units are looked up by their tokens, so the descriptors of tokens that
+     * are only part of a unit, like "hg" in "mm hg", also have a unit value.
+     *
+     * @param numberModel the number model
+     * @return newly created token classifier
+     * @since 2.1.0
+     */
+    public TokenClassifier createTokenClassifier(NumberModel numberModel) {
+      return NUMBERS.createTokenClassifier(numberModel, trie.getVocabulary());
+    }
+
+    /**
+     * Creates a prefilter which finds the regions of documents that could contain numbers or
+     * this factory's units of measure. A unit recognizer which is not {@link
+     * UnitRecognizer#inProgress() in progress} can skip the tokens outside of the windows.
+     *
+     * @param numberModel the number model
+     * @return newly created prefilter
+     * @since 2.1.0
+     */
+    public NumberPrefilter createPrefilter(NumberModel numberModel) {
+      return NUMBERS.createPrefilter(numberModel, units);
     }
 
     /**
@@ -251,7 +768,7 @@ public class UnitRecognizer {
      * @return newly created unit recognizer instance
      */
     public UnitRecognizer create() {
-      return new UnitRecognizer(unitOfMeasureMap);
+      return new UnitRecognizer(this);
     }
   }
 
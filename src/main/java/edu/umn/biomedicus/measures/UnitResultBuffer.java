@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+import java.util.Arrays;
+
+/**
+ * A growable buffer of units of measure stored as parallel arrays rather than {@link
+ * UnitRecognizer.Result} objects, filled by {@link UnitRecognizer#detect(CharSequence, int[],
+ * int[], int, UnitSink)}. The arrays returned by {@link #getBegins()} and {@link
+ * #getEnds()} are the buffer's own arrays, they may be longer than {@link #size()} and are
+ * replaced when the buffer grows.
+ *
+ * <p>It is not safe to use an instance of this class from multiple threads at once, use multiple
+ * instances for concurrency.</p>
+ *
+ * @since 2.1.0
+ */
+public final class UnitResultBuffer implements UnitSink {
+
+  private int size = 0;
+
+  private int[] begins;
+
+  private int[] ends;
+
+  private String[] codes;
+
+  /**
+   * Creates an empty buffer.
+   */
+  public UnitResultBuffer() {
+    this(16);
+  }
+
+  /**
+   * Creates an empty buffer with room for a number of results before it has to grow.
+   *
+   * @param capacity the initial capacity
+   */
+  public UnitResultBuffer(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    begins = new int[capacity];
+    ends = new int[capacity];
+    codes = new String[capacity];
+  }
+
+  @Override
+  public void unit(int begin, int end, String code) {
+    if (size == begins.length) {
+      int capacity = size * 2;
+      begins = Arrays.copyOf(begins, capacity);
+      ends = Arrays.copyOf(ends, capacity);
+      codes = Arrays.copyOf(codes, capacity);
+    }
+    begins[size] = begin;
+    ends[size] = end;
+    codes[size] = code;
+    size++;
+  }
+
+  /**
+   * Removes all of the units, keeping the arrays for reuse.
+   */
+  public void clear() {
+    Arrays.fill(codes, 0, size, null);
+    size = 0;
+  }
+
+  /**
+   * The number of units in the buffer.
+   *
+   * @return count of units
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * The begin offset of a unit.
+   *
+   * @param index the index of the unit
+   * @return begin offset
+   */
+  public int getBegin(int index) {
+    checkIndex(index);
+    return begins[index];
+  }
+
+  /**
+   * The end offset of a unit.
+   *
+   * @param index the index of the unit
+   * @return end offset
+   */
+  public int getEnd(int index) {
+    checkIndex(index);
+    return ends[index];
+  }
+
+  /**
+   * The UCUM code of a unit.
+   *
+   * @param index the index of the unit
+   * @return the UCUM code for the unit of measure
+   */
+  public String getCode(int index) {
+    checkIndex(index);
+    return codes[index];
+  }
+
+  /**
+   * The begin offsets of the units, the array of this buffer.
+   *
+   * @return array of begin offsets, valid up to {@link #size()}
+   */
+  public int[] getBegins() {
+    return begins;
+  }
+
+  /**
+   * The end offsets of the units, the array of this buffer.
+   *
+   * @return array of end offsets, valid up to {@link #size()}
+   */
+  public int[] getEnds() {
+    return ends;
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+  }
+}
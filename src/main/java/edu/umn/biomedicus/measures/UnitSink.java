@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+/**
+ * Receives the units of measure found by a unit recognizer as they are found, without the
+ * recognizer creating any {@link UnitRecognizer.Result} objects.
+ *
+ * @since 2.1.0
+ */
+public interface UnitSink {
+
+  /**
+   * Receives a unit of measure.
+   *
+   * @param begin the begin offset of the unit
+   * @param end the end offset of the unit
+   * @param code the UCUM code for the unit of measure
+   */
+  void unit(int begin, int end, String code);
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+import edu.umn.biomedicus.internal.Lexicon;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * A trie over the tokens of the units of measure, so that units which are phrases of several
+ * tokens, like "mm hg" and "international units", can be matched a token at a time. The words of
+ * the units lexicon are split at spaces into tokens, each distinct token is given an id in a
+ * vocabulary lexicon, and the edges of the trie are keyed by the parent node and the token id.
+ *
+ * <p>This class is immutable so it is thread-safe.</p>
+ *
+ * @since 2.1.0
+ */
+final class UnitTrie {
+
+  /**
+   * The node before any tokens.
+   */
+  static final int ROOT = 0;
+
+  private static final Pattern SPACES = Pattern.compile(" +");
+
+  private final Lexicon vocabulary;
+
+  /**
+   * The edges sorted by the parent node in the high 32 bits and the token id in the low 32 bits.
+   */
+  private final long[] edgeKeys;
+
+  private final int[] edgeNodes;
+
+  /**
+   * For each node, the code index of the unit that ends there, or -1.
+   */
+  private final int[] nodeCodes;
+
+  private final boolean[] nodeHasChildren;
+
+  private final int maxLength;
+
+  /**
+   * Builds the trie from the units lexicon. Connectors are not units, they are handled by the
+   * recognizer, so lexicon entries for them are skipped.
+   *
+   * @param units the units lexicon, whose values are code indices
+   */
+  UnitTrie(Lexicon units) {
+    Map<String, Integer> tokenIds = new HashMap<>();
+    Map<Long, Integer> edges = new HashMap<>();
+    int[] codes = new int[16];
+    Arrays.fill(codes, -1);
+    int nodes = 1;
+    int maxLength = 1;
+    for (int i = 0; i < units.size(); i++) {
+      String[] tokens = SPACES.split(units.getWord(i).trim());
+      if (tokens.length == 1 && (tokens[0].isEmpty() || tokens[0].equals("/")
+          || tokens[0].equals("per"))) {
+        continue;
+      }
+      maxLength = Math.max(maxLength, tokens.length);
+      int node = ROOT;
+      for (String token : tokens) {
+        Integer tokenId = tokenIds.get(token);
+        if (tokenId == null) {
+          tokenId = tokenIds.size();
+          tokenIds.put(token, tokenId);
+        }
+        long key = key(node, tokenId);
+        Integer child = edges.get(key);
+        if (child == null) {
+          child = nodes++;
+          edges.put(key, child);
+        }
+        node = child;
+      }
+      if (node >= codes.length) {
+        int length = codes.length;
+        codes = Arrays.copyOf(codes, Math.max(length * 2, node + 1));
+        Arrays.fill(codes, length, codes.length, -1);
+      }
+      if (codes[node] == -1) {
+        codes[node] = units.getValue(i);
+      }
+    }
+
+    vocabulary = Lexicon.create(tokenIds);
+    edgeKeys = new long[edges.size()];
+    int index = 0;
+    for (long key : edges.keySet()) {
+      edgeKeys[index++] = key;
+    }
+    Arrays.sort(edgeKeys);
+    edgeNodes = new int[edgeKeys.length];
+    nodeHasChildren = new boolean[nodes];
+    for (int i = 0; i < edgeKeys.length; i++) {
+      edgeNodes[i] = edges.get(edgeKeys[i]);
+      nodeHasChildren[(int) (edgeKeys[i] >>> 32)] = true;
+    }
+    nodeCodes = Arrays.copyOf(codes, nodes);
+    for (int i = codes.length; i < nodes; i++) {
+      nodeCodes[i] = -1;
+    }
+    this.maxLength = maxLength;
+  }
+
+  private static long key(int node, int token) {
+    return ((long) node << 32) | token;
+  }
+
+  /**
+   * The lexicon from the tokens of the units to their token ids.
+   *
+   * @return vocabulary lexicon
+   */
+  Lexicon getVocabulary() {
+    return vocabulary;
+  }
+
+  /**
+   * Looks up the id of the token that is the region from {@code begin} to {@code end}, which may
+   * be abbreviated with a trailing period.
+   *
+   * @return the token id, or -1 if no unit contains the token
+   */
+  int lookup(CharSequence text, int begin, int end) {
+    int token = vocabulary.lookup(text, begin, end);
+    if (token == -1 && end > begin && text.charAt(end - 1) == '.') {
+      token = vocabulary.lookup(text, begin, end - 1);
+    }
+    return token;
+  }
+
+  /**
+   * Follows the edge from a node for a token.
+   *
+   * @param node the node
+   * @param token the token id
+   * @return the child node, or -1 if no unit continues with the token
+   */
+  int next(int node, int token) {
+    int index = Arrays.binarySearch(edgeKeys, key(node, token));
+    return index < 0 ? -1 : edgeNodes[index];
+  }
+
+  /**
+   * The unit that ends at a node.
+   *
+   * @param node the node
+   * @return the code index of the unit, or -1 if the tokens to the node are only part of units
+   */
+  int getCode(int node) {
+    return nodeCodes[node];
+  }
+
+  /**
+   * Whether any unit continues past a node.
+   *
+   * @param node the node
+   * @return true if the node has children
+   */
+  boolean hasChildren(int node) {
+    return nodeHasChildren[node];
+  }
+
+  /**
+   * The number of tokens in the longest unit.
+   *
+   * @return the maximum phrase length
+   */
+  int getMaxLength() {
+    return maxLength;
+  }
+}
@@ -0,0 +1,410 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+import edu.umn.biomedicus.numbers.CombinedNumberDetector;
+import edu.umn.biomedicus.numbers.NumberSink;
+import edu.umn.biomedicus.numbers.Numbers.DetectorFactory;
+import edu.umn.biomedicus.numbers.Tokenizer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Finds the numbers and units of measure in UTF-8 text directly in a byte buffer, such as a
+ * memory-mapped file, without decoding the document to a string. The bytes are tokenized the
+ * same way as the built-in {@link Tokenizer} tokenizes the decoded text: ASCII digits, letters and
+ * whitespace are handled as bytes and only the other characters are decoded. Tokens that are all
+ * ASCII are passed to the detectors as views of the buffer, so the lexicons are probed over the
+ * token's bytes, and only tokens containing other characters are decoded, into a reused buffer.
+ *
+ * <p>The offsets of the results are either byte offsets or the UTF-16 character offsets the
+ * results would have in the decoded string, see {@link OffsetUnit}. Malformed bytes are treated
+ * as U+FFFD replacement characters, one for each byte, which is not always how the JDK's decoder
+ * replaces them, so for malformed input the character offsets may differ from offsets into a
+ * string decoded by {@link String#String(byte[], java.nio.charset.Charset)}.</p>
+ *
+ * <br>Usage:
+ * <pre>
+ *   {@code
+Utf8Scanner scanner = new Utf8Scanner(Numbers.createFactory(),
+    UnitRecognizer.createDefaultFactory(), Utf8Scanner.OffsetUnit.CHARS);
+for (Path note : notes) {
+  NumberResultBuffer numbers = new NumberResultBuffer();
+  UnitResultBuffer units = new UnitResultBuffer();
+  scanner.scan(note, numbers, units);
+}
+ *   }
+ * </pre>
+ *
+ * <p>It is not safe to use an instance of this class from multiple threads at once, use multiple
+ * instances for concurrency.</p>
+ *
+ * @since 2.1.0
+ */
+public final class Utf8Scanner {
+
+  private static final int REPLACEMENT = 0xFFFD;
+
+  private final CombinedNumberDetector detector;
+
+  private final UnitRecognizer unitRecognizer;
+
+  private final OffsetUnit offsetUnit;
+
+  private final TokenText tokenText = new TokenText();
+
+  private ByteBuffer bytes;
+
+  /**
+   * The number of bytes in the code point last decoded by {@link #codePointAt(int)}.
+   */
+  private int width;
+
+  /**
+   * Creates a scanner.
+   *
+   * @param detectorFactory the factory for the number detector
+   * @param unitFactory the factory for the unit recognizer
+   * @param offsetUnit the unit of the offsets of the results
+   */
+  public Utf8Scanner(DetectorFactory detectorFactory, UnitRecognizer.Factory unitFactory,
+      OffsetUnit offsetUnit) {
+    detector = detectorFactory.createCombinedNumberDetector();
+    unitRecognizer = unitFactory.create();
+    this.offsetUnit = offsetUnit;
+  }
+
+  /**
+   * The unit of the offsets of the results.
+   */
+  public enum OffsetUnit {
+    /**
+     * Offsets of bytes in the buffer.
+     */
+    BYTES,
+
+    /**
+     * Offsets of UTF-16 characters in the decoded text, the same as the offsets into a string
+     * decoded from well-formed bytes.
+     */
+    CHARS
+  }
+
+  /**
+   * Memory-maps a UTF-8 file and scans it as a single document.
+   *
+   * @param path the path to the file
+   * @param numbers the sink for the numbers
+   * @param units the sink for the units of measure
+   * @return the length of the document in the offset unit
+   * @throws IOException if the file can't be mapped or is larger than 2 GB
+   */
+  public int scan(Path path, NumberSink numbers, UnitSink units) throws IOException {
+    ByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) {
+        throw new IOException("File is too large to map: " + path);
+      }
+      buffer = channel.map(MapMode.READ_ONLY, 0, size);
+    }
+    return scan(buffer, numbers, units);
+  }
+
+  /**
+   * Scans the UTF-8 bytes of a document from the buffer's position to its limit, sending the
+   * numbers and units in it to the sinks. Offsets are from the buffer's position, which is not
+   * changed.
+   *
+   * @param buffer the buffer containing the document
+   * @param numbers the sink for the numbers
+   * @param units the sink for the units of measure
+   * @return the length of the document in the offset unit
+   */
+  public int scan(ByteBuffer buffer, NumberSink numbers, UnitSink units) {
+    bytes = buffer;
+    detector.reset();
+    unitRecognizer.reset();
+    int base = buffer.position();
+    int limit = buffer.limit();
+    boolean chars = offsetUnit == OffsetUnit.CHARS;
+    // the number of UTF-16 characters less the number of bytes before the index
+    int delta = 0;
+    boolean afterLetterOrDigit = false;
+    int index = base;
+    try {
+      while (index < limit) {
+        int first = bytes.get(index);
+        int codePoint = first >= 0 ? first : codePointAt(index);
+        if (isWhitespace(codePoint)) {
+          if (first < 0) {
+            delta += 1 - width;
+            index += width;
+          } else {
+            index++;
+          }
+          afterLetterOrDigit = false;
+          continue;
+        }
+
+        // the lookaheads below decode other code points, replacing the width of this one
+        int codePointEnd = index + (first < 0 ? width : 1);
+        int tokenEnd;
+        if (isDigit(codePoint) || ((codePoint == '-' || codePoint == '+') && index + 1 < limit
+            && isDigit(codePointAt(index + 1)) && !afterLetterOrDigit)) {
+          tokenEnd = numberEnd(codePointEnd, limit);
+        } else if (isLetter(codePoint)) {
+          tokenEnd = lettersEnd(codePointEnd, limit);
+        } else if (codePoint == '°' && index + 2 < limit && isLetter(codePointAt(index + 2))) {
+          tokenEnd = lettersEnd(index + 2, limit);
+        } else {
+          tokenEnd = codePointEnd;
+        }
+
+        int tokenDelta = tokenText.set(index, tokenEnd);
+        int lastChar = tokenText.charAt(tokenText.length() - 1);
+        afterLetterOrDigit = isDigit(lastChar) || isLetter(lastChar);
+
+        int begin = index - base;
+        int end = tokenEnd - base;
+        if (chars) {
+          begin += delta;
+          delta += tokenDelta;
+          end += delta;
+        }
+        detector.tryToken(tokenText, begin, end, numbers);
+        unitRecognizer.advance(tokenText, begin, end, units);
+        index = tokenEnd;
+      }
+      detector.finish(numbers);
+      unitRecognizer.finish(units);
+    } finally {
+      bytes = null;
+    }
+    return limit - base + (chars ? delta : 0);
+  }
+
+  private int numberEnd(int index, int limit) {
+    while (index < limit) {
+      int codePoint = codePointAt(index);
+      if (isDigit(codePoint)) {
+        index += width;
+      } else if (codePoint == '.' && index + 1 < limit && isDigit(codePointAt(index + 1))) {
+        index += 1 + width;
+      } else if (codePoint == ',') {
+        int groupEnd = groupEnd(index + 1, limit);
+        if (groupEnd == -1) {
+          break;
+        }
+        index = groupEnd;
+      } else {
+        break;
+      }
+    }
+    // hybrid ordinals, like "2nd", the same as Tokenizer
+    if (index + 1 < limit && (index + 2 == limit || !isLetter(codePointAt(index + 2)))) {
+      byte first = bytes.get(index);
+      byte second = bytes.get(index + 1);
+      if ((first == 't' && second == 'h') || (first == 's' && second == 't')
+          || (first == 'n' && second == 'd') || (first == 'r' && second == 'd')) {
+        index += 2;
+      }
+    }
+    return index;
+  }
+
+  /**
+   * The end of the exactly three digits at the index, the group after a thousands separator, the
+   * same as Tokenizer, or -1 if there is no such group.
+   */
+  private int groupEnd(int index, int limit) {
+    for (int i = 0; i < 3; i++) {
+      if (index >= limit || !isDigit(codePointAt(index))) {
+        return -1;
+      }
+      index += width;
+    }
+    return index < limit && isDigit(codePointAt(index)) ? -1 : index;
+  }
+
+  private int lettersEnd(int index, int limit) {
+    while (index < limit && isLetter(codePointAt(index))) {
+      index += width;
+    }
+    return index;
+  }
+
+  /**
+   * Decodes the code point starting at the index, setting {@link #width} to its number of bytes.
+   * Malformed bytes, including overlong encodings and surrogates, decode to U+FFFD with a width of
+   * one.
+   */
+  private int codePointAt(int index) {
+    int limit = bytes.limit();
+    int b0 = bytes.get(index) & 0xFF;
+    width = 1;
+    if (b0 < 0x80) {
+      return b0;
+    }
+    int length;
+    int min;
+    int codePoint;
+    if (b0 >= 0xC2 && b0 <= 0xDF) {
+      length = 2;
+      min = 0x80;
+      codePoint = b0 & 0x1F;
+    } else if (b0 >= 0xE0 && b0 <= 0xEF) {
+      length = 3;
+      min = 0x800;
+      codePoint = b0 & 0x0F;
+    } else if (b0 >= 0xF0 && b0 <= 0xF4) {
+      length = 4;
+      min = 0x10000;
+      codePoint = b0 & 0x07;
+    } else {
+      return REPLACEMENT;
+    }
+    if (index + length > limit) {
+      return REPLACEMENT;
+    }
+    for (int i = 1; i < length; i++) {
+      int b = bytes.get(index + i) & 0xFF;
+      if ((b & 0xC0) != 0x80) {
+        return REPLACEMENT;
+      }
+      codePoint = (codePoint << 6) | (b & 0x3F);
+    }
+    if (codePoint < min || codePoint > Character.MAX_CODE_POINT
+        || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+      return REPLACEMENT;
+    }
+    width = length;
+    return codePoint;
+  }
+
+  private static boolean isWhitespace(int codePoint) {
+    if (codePoint < 0x80) {
+      return codePoint == ' ' || (codePoint >= '\t' && codePoint <= '\r')
+          || (codePoint >= 0x1c && codePoint <= 0x1f);
+    }
+    return codePoint <= Character.MAX_VALUE
+        && (Character.isWhitespace(codePoint) || Character.isSpaceChar(codePoint));
+  }
+
+  /**
+   * Whether the code point is a digit, matching the tokenizer, so code points outside the basic
+   * multilingual plane are never digits.
+   */
+  private static boolean isDigit(int codePoint) {
+    if (codePoint < 0x80) {
+      return codePoint >= '0' && codePoint <= '9';
+    }
+    return codePoint <= Character.MAX_VALUE && Character.isDigit(codePoint);
+  }
+
+  /**
+   * Whether the code point is a letter, matching the tokenizer which tests single characters, so
+   * code points outside the basic multilingual plane are never letters.
+   */
+  private static boolean isLetter(int codePoint) {
+    if (codePoint < 0x80) {
+      return (codePoint >= 'a' && codePoint <= 'z') || (codePoint >= 'A' && codePoint <= 'Z');
+    }
+    return codePoint <= Character.MAX_VALUE && Character.isLetter(codePoint);
+  }
+
+  /**
+   * The text of the current token, either a view of its bytes when they are all ASCII, or its
+   * characters decoded into a reused array.
+   */
+  private final class TokenText implements CharSequence {
+
+    private int begin;
+
+    private int length;
+
+    private boolean ascii;
+
+    private char[] decoded = new char[64];
+
+    /**
+     * Sets the token to the bytes from {@code begin} to {@code end}.
+     *
+     * @return the number of characters in the token less the number of bytes
+     */
+    int set(int begin, int end) {
+      this.begin = begin;
+      ascii = true;
+      for (int i = begin; i < end; i++) {
+        if (bytes.get(i) < 0) {
+          ascii = false;
+          break;
+        }
+      }
+      if (ascii) {
+        length = end - begin;
+        return 0;
+      }
+      length = 0;
+      int index = begin;
+      while (index < end) {
+        int codePoint = codePointAt(index);
+        if (length + 2 > decoded.length) {
+          decoded = Arrays.copyOf(decoded, decoded.length * 2);
+        }
+        length += Character.toChars(codePoint, decoded, length);
+        index += width;
+      }
+      return length - (end - begin);
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+      if (index < 0 || index >= length) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", length: " + length);
+      }
+      return ascii ? (char) bytes.get(begin + index) : decoded[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return toString().substring(start, end);
+    }
+
+    @Override
+    public String toString() {
+      if (ascii) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+          chars[i] = (char) bytes.get(begin + i);
+        }
+        return new String(chars);
+      }
+      return new String(decoded, 0, length);
+    }
+  }
+}
@@ -20,7 +20,11 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Abstract superclass for number detectors, provides some functionality for detection of numbers
@@ -30,6 +34,8 @@ import javax.annotation.Nonnull;
  */
 public abstract class AbstractNumberDetector {
 
+  private final TokenView tokenView = new TokenView();
+
   /**
    * Passes the number detector the specified token, seeing if it has detected a number from the
    * tokens that this instance has received.
@@ -43,6 +49,98 @@ public abstract class AbstractNumberDetector {
   @Nonnull
   public abstract List<NumberResult> tryToken(@Nonnull String token, int tokenBegin, int tokenEnd);
 
+  /**
+   * Passes the number detector the specified token, seeing if it has detected a number from the
+   * tokens that this instance has received. The default implementation converts the token to a
+   * string, subclasses should override it to work on the characters directly.
+   *
+   * @param token the token to check, it will not be retained after this method returns
+   * @param tokenBegin an identifying begin index for the token
+   * @param tokenEnd an identifying end index for the token
+   * @return list of number results, if any, that are found because of the token passed in
+   * @since 2.1.0
+   */
+  @Nonnull
+  public List<NumberResult> tryToken(@Nonnull CharSequence token, int tokenBegin, int tokenEnd) {
+    return tryToken(token.toString(), tokenBegin, tokenEnd);
+  }
+
+  /**
+   * Passes the number detector a token which has already been classified. The default
+   * implementation passes the token's text, subclasses should override it to use the
+   * classification.
+   *
+   * @param token the classified token, it will not be retained after this method returns
+   * @return list of number results, if any, that are found because of the token passed in
+   * @since 2.1.0
+   */
+  @Nonnull
+  public List<NumberResult> tryToken(@Nonnull TokenDescriptor token) {
+    return tryToken(token.getText(), token.getBegin(), token.getEnd());
+  }
+
+  /**
+   * Passes the number detector the token which is the region from {@code begin} to {@code end} in
+   * the document, without requiring the token to be copied out of the document.
+   *
+   * @param document the document text
+   * @param begin the offset of the first character of the token in the document
+   * @param end the offset after the last character of the token in the document
+   * @return list of number results, if any, that are found because of the token passed in, they
+   * will have offsets into the document
+   * @since 2.1.0
+   */
+  @Nonnull
+  public List<NumberResult> tryTokenAt(@Nonnull CharSequence document, int begin, int end) {
+    return tryToken(tokenView.set(document, begin, end), begin, end);
+  }
+
+  /**
+   * Passes the number detector the specified token, sending any numbers that it completes to the
+   * sink instead of returning them. The default implementation passes on the results of {@link
+   * #tryToken(CharSequence, int, int)}, subclasses should override it to not create the results.
+   *
+   * @param token the token to check, it will not be retained after this method returns
+   * @param tokenBegin an identifying begin index for the token
+   * @param tokenEnd an identifying end index for the token
+   * @param sink the sink to send any numbers to
+   * @return true if any numbers were sent to the sink
+   * @since 2.1.0
+   */
+  public boolean tryToken(@Nonnull CharSequence token, int tokenBegin, int tokenEnd,
+      @Nonnull NumberSink sink) {
+    return emit(tryToken(token, tokenBegin, tokenEnd), sink);
+  }
+
+  /**
+   * Passes the number detector a token which has already been classified, sending any numbers
+   * that it completes to the sink.
+   *
+   * @param token the classified token, it will not be retained after this method returns
+   * @param sink the sink to send any numbers to
+   * @return true if any numbers were sent to the sink
+   * @since 2.1.0
+   */
+  public boolean tryToken(@Nonnull TokenDescriptor token, @Nonnull NumberSink sink) {
+    return emit(tryToken(token), sink);
+  }
+
+  /**
+   * Passes the number detector the token which is the region from {@code begin} to {@code end} in
+   * the document, sending any numbers that it completes to the sink.
+   *
+   * @param document the document text
+   * @param begin the offset of the first character of the token in the document
+   * @param end the offset after the last character of the token in the document
+   * @param sink the sink to send any numbers to
+   * @return true if any numbers were sent to the sink
+   * @since 2.1.0
+   */
+  public boolean tryTokenAt(@Nonnull CharSequence document, int begin, int end,
+      @Nonnull NumberSink sink) {
+    return tryToken(tokenView.set(document, begin, end), begin, end, sink);
+  }
+
   /**
    * Informs this instance that it is done being passed tokens, and to check if any of the tokens it
    * received previously create a number.
@@ -52,6 +150,18 @@ public abstract class AbstractNumberDetector {
   @Nonnull
   public abstract List<NumberResult> finish();
 
+  /**
+   * Informs this instance that it is done being passed tokens, sending any numbers completed by
+   * the end of the tokens to the sink.
+   *
+   * @param sink the sink to send any numbers to
+   * @return true if any numbers were sent to the sink
+   * @since 2.1.0
+   */
+  public boolean finish(@Nonnull NumberSink sink) {
+    return emit(finish(), sink);
+  }
+
   /**
    * Checks all the tokens in the list, returning any numbers.
    *
@@ -69,6 +179,135 @@ public abstract class AbstractNumberDetector {
     return results;
   }
 
+  /**
+   * Checks all the tokens in the sequence, sending any numbers to the sink.
+   *
+   * @param tokens the sequence of tokens to check
+   * @param sink the sink to send the numbers to
+   * @since 2.1.0
+   */
+  public void checkTokens(Iterable<Token> tokens, NumberSink sink) {
+    for (Token token : tokens) {
+      tryToken(token.getText(), token.getBegin(), token.getEnd(), sink);
+    }
+    finish(sink);
+  }
+
+  /**
+   * Checks the tokens given as arrays of offsets into a document, adding any numbers to the
+   * buffer. This works on the document's characters directly, so neither the tokens nor the
+   * numbers are allocated as objects. The detector is finished after the last token.
+   *
+   * @param document the document text
+   * @param begins the begin offsets of the tokens
+   * @param ends the end offsets of the tokens
+   * @param count the number of tokens, the length of the arrays that is used
+   * @param out the buffer to add the numbers to, it is not cleared first
+   * @since 2.1.0
+   */
+  public void detect(CharSequence document, int[] begins, int[] ends, int count,
+      NumberResultBuffer out) {
+    if (count > begins.length || count > ends.length) {
+      throw new IllegalArgumentException("Count " + count + " is more than the number of offsets");
+    }
+    for (int i = 0; i < count; i++) {
+      tryTokenAt(document, begins[i], ends[i], out);
+    }
+    finish(out);
+  }
+
+  /**
+   * Checks the tokens in the sequence which overlap the candidate windows found by a {@link
+   * NumberPrefilter}, sending any numbers to the sink. Tokens outside of the windows are skipped
+   * when the detector is not in the middle of a number, which finds the same numbers as {@link
+   * #checkTokens(Iterable, NumberSink)} as long as no token begins or ends inside a run of
+   * letters.
+   *
+   * @param tokens the sequence of tokens to check
+   * @param windows the candidate windows of the document the tokens are from
+   * @param sink the sink to send the numbers to
+   * @since 2.1.0
+   */
+  public void checkTokens(Iterable<Token> tokens, CandidateWindows windows, NumberSink sink) {
+    for (Token token : tokens) {
+      int begin = token.getBegin();
+      int end = token.getEnd();
+      if (!isIdle() || windows.overlaps(begin, end)) {
+        tryToken(token.getText(), begin, end, sink);
+      }
+    }
+    finish(sink);
+  }
+
+  /**
+   * Whether the detector is between numbers, in which case it would ignore a token that is
+   * neither a number word nor contains a digit. The default is to never skip tokens.
+   *
+   * @return true if the detector is between numbers
+   */
+  boolean isIdle() {
+    return false;
+  }
+
+  /**
+   * Whether the detector will be between numbers after it is passed the token, no matter what
+   * state it was in before. The default is that no token is known to be a boundary.
+   *
+   * @param token the token
+   * @return true if the token is a boundary between numbers
+   */
+  boolean isBoundary(CharSequence token) {
+    return false;
+  }
+
+  /**
+   * Creates a new detector which finds the same numbers as this one, used to detect numbers in
+   * parts of a token sequence in parallel. The default returns null, in which case streams of
+   * this detector's results cannot be split.
+   *
+   * @return a new detector, or null if this detector cannot be copied
+   */
+  @Nullable
+  AbstractNumberDetector newDetector() {
+    return null;
+  }
+
+  private static boolean emit(List<NumberResult> results, NumberSink sink) {
+    for (NumberResult result : results) {
+      ResultCollector.emit(result, sink);
+    }
+    return !results.isEmpty();
+  }
+
+  /**
+   * Lazily finds the numbers in a sequence of tokens as a stream. The stream is ordered, and it
+   * only splits for parallel processing where the detector can find exactly the same numbers as it
+   * would sequentially: after a token that ends any number in progress, with a new detector for
+   * each part. This detector is used for the last part, so it should not be used for anything
+   * else until the stream is done.
+   *
+   * <p>The {@link FractionNumberDetector} ends its numbers at any token that is not a decimal
+   * number or a slash. The English numerals acceptor, and so the combined detector, can carry a
+   * number in progress across any token, so their streams are not split.</p>
+   *
+   * <br>Usage:
+   * <pre>
+   *   {@code
+List<NumberResult> fractions = detector.stream(tokens.spliterator())
+    .parallel()
+    .filter(result -> result.getNumberType() == NumberType.FRACTION)
+    .collect(Collectors.toList());
+   *   }
+   * </pre>
+   *
+   * @param tokens the sequence of tokens to check
+   * @return stream of number results
+   * @since 2.1.0
+   */
+  public Stream<NumberResult> stream(Spliterator<Token> tokens) {
+    return StreamSupport.stream(new NumberSpliterator(tokens, this), false);
+  }
+
   /**
    * Iteratively finds the numbers in an iterable sequence of tokens.
    *
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.numbers;
+
+import java.util.Arrays;
+
+/**
+ * The regions of a document that a {@link NumberPrefilter} found could contain numbers or units
+ * of measure. Windows are sorted, do not overlap, and windows which touch are merged.
+ *
+ * <p>A detector that is not in the middle of a number can skip any token that does not overlap
+ * a window. For the {@link AbstractNumberDetector number detectors} this is done by {@link
+ * AbstractNumberDetector#checkTokens(Iterable, CandidateWindows, NumberSink)}. A unit recognizer
+ * can skip the same tokens when it is not {@code inProgress()}.</p>
+ *
+ * @since 2.1.0
+ */
+public final class CandidateWindows {
+
+  private final int documentLength;
+
+  private int[] bounds = new int[16];
+
+  private int count = 0;
+
+  private int covered = 0;
+
+  CandidateWindows(int documentLength) {
+    this.documentLength = documentLength;
+  }
+
+  void add(int begin, int end) {
+    if (count > 0 && bounds[2 * count - 1] == begin) {
+      bounds[2 * count - 1] = end;
+    } else {
+      if (2 * count == bounds.length) {
+        bounds = Arrays.copyOf(bounds, bounds.length * 2);
+      }
+      bounds[2 * count] = begin;
+      bounds[2 * count + 1] = end;
+      count++;
+    }
+    covered += end - begin;
+  }
+
+  /**
+   * The number of windows.
+   *
+   * @return count of windows
+   */
+  public int size() {
+    return count;
+  }
+
+  /**
+   * The offset of the first character in a window.
+   *
+   * @param window the index of the window
+   * @return begin offset
+   */
+  public int getBegin(int window) {
+    return bounds[2 * window];
+  }
+
+  /**
+   * The offset after the last character in a window.
+   *
+   * @param window the index of the window
+   * @return end offset
+   */
+  public int getEnd(int window) {
+    return bounds[2 * window + 1];
+  }
+
+  /**
+   * Whether the region from {@code begin} to {@code end} overlaps any window. Empty regions are
+   * always treated as overlapping, so empty tokens are never skipped.
+   *
+   * @param begin the begin offset of the region
+   * @param end the end offset of the region
+   * @return true if the region overlaps a window or is empty
+   */
+  public boolean overlaps(int begin, int end) {
+    if (begin >= end) {
+      return true;
+    }
+    // the first window that ends after the region begins
+    int low = 0;
+    int high = count - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      if (bounds[2 * mid + 1] <= begin) {
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return low < count && bounds[2 * low] < end;
+  }
+
+  /**
+   * The fraction of the document's characters that are outside of every window.
+   *
+   * @return fraction between 0 and 1, 0 for an empty document
+   */
+  public double getSkippedFraction() {
+    return documentLength == 0 ? 0 : 1 - (double) covered / documentLength;
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.numbers;
+
+/**
+ * Comparisons of tokens against constant words that don't require the tokens to be strings.
+ *
+ * @since 2.1.0
+ */
+final class CharSequences {
+
+  private CharSequences() {
+    throw new UnsupportedOperationException("Instantiation of utility class");
+  }
+
+  /**
+   * Tests whether the token consists of exactly the single character.
+   *
+   * @param token the token to test
+   * @param ch the character
+   * @return true if the token is the character, false otherwise
+   */
+  static boolean isChar(CharSequence token, char ch) {
+    return token.length() == 1 && token.charAt(0) == ch;
+  }
+
+  /**
+   * Tests whether the token is equal to a word ignoring case, using the same rules as {@link
+   * String#equalsIgnoreCase(String)}.
+   *
+   * @param token the token to test
+   * @param word the word to compare against
+   * @return true if they are equal ignoring case, false otherwise
+   */
+  static boolean equalsIgnoreCase(CharSequence token, String word) {
+    int length = word.length();
+    if (token.length() != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      char c1 = token.charAt(i);
+      char c2 = word.charAt(i);
+      if (c1 == c2) {
+        continue;
+      }
+      if (c1 < 0x80 && c2 < 0x80) {
+        if ((c1 | 0x20) != (c2 | 0x20) || (c1 | 0x20) < 'a' || (c1 | 0x20) > 'z') {
+          return false;
+        }
+        continue;
+      }
+      char u1 = Character.toUpperCase(c1);
+      char u2 = Character.toUpperCase(c2);
+      if (u1 != u2 && Character.toLowerCase(u1) != Character.toLowerCase(u2)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
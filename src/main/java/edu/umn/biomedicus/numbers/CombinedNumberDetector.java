@@ -16,7 +16,6 @@
 
 package edu.umn.biomedicus.numbers;
 
-import java.util.Collections;
 import java.util.List;
 import javax.annotation.Nonnull;
 
@@ -35,43 +34,103 @@ public class CombinedNumberDetector extends AbstractNumberDetector {
 
   private final EnglishNumeralsAcceptor englishAcceptor;
 
+  private final TokenClassifier tokenClassifier;
+
+  private final StartCharacters startCharacters;
+
+  private final ResultCollector collector = new ResultCollector();
+
   CombinedNumberDetector(FractionNumberDetector fractionNumberDetector,
       EnglishNumeralsAcceptor englishAcceptor) {
     this.fractionNumberDetector = fractionNumberDetector;
     this.englishAcceptor = englishAcceptor;
+    tokenClassifier = new TokenClassifier(englishAcceptor.getNumberModel());
+    startCharacters = new StartCharacters(englishAcceptor.getNumberModel());
+  }
+
+  /**
+   * Resets both of the detectors to their default state, so the next token starts a new
+   * document.
+   *
+   * @since 2.1.0
+   */
+  public void reset() {
+    fractionNumberDetector.reset();
+    englishAcceptor.reset();
+  }
+
+  @Override
+  boolean isIdle() {
+    return fractionNumberDetector.isIdle() && englishAcceptor.isIdle();
   }
 
   @Nonnull
   @Override
   public List<NumberResult> tryToken(String token, int tokenBegin, int tokenEnd) {
-    List<NumberResult> results = fractionNumberDetector.tryToken(token, tokenBegin, tokenEnd);
-    if (!results.isEmpty()) {
+    return tryToken((CharSequence) token, tokenBegin, tokenEnd);
+  }
+
+  @Nonnull
+  @Override
+  public List<NumberResult> tryToken(CharSequence token, int tokenBegin, int tokenEnd) {
+    tryToken(token, tokenBegin, tokenEnd, collector);
+    return collector.take();
+  }
+
+  @Nonnull
+  @Override
+  public List<NumberResult> tryToken(TokenDescriptor token) {
+    tryToken(token, collector);
+    return collector.take();
+  }
+
+  @Override
+  public boolean tryToken(CharSequence token, int tokenBegin, int tokenEnd, NumberSink sink) {
+    if (token.length() > 0 && isIdle()) {
+      // neither detector is in a number, so a token only matters to a detector if it can start
+      // one of its numbers
+      switch (startCharacters.classify(token.charAt(0))) {
+        case StartCharacters.NONE:
+          return false;
+        case StartCharacters.DECIMAL:
+          return fractionNumberDetector.tryToken(token, tokenBegin, tokenEnd, sink);
+        case StartCharacters.WORD:
+          return englishAcceptor.tryToken(token, tokenBegin, tokenEnd, sink);
+        default:
+      }
+    }
+    return tryToken(tokenClassifier.classify(token, tokenBegin, tokenEnd), sink);
+  }
+
+  @Override
+  public boolean tryToken(TokenDescriptor token, NumberSink sink) {
+    if (fractionNumberDetector.tryToken(token, sink)) {
       englishAcceptor.reset();
-      return results;
+      return true;
     }
 
-    results = englishAcceptor.tryToken(token, tokenBegin, tokenEnd);
-    if (!results.isEmpty()) {
+    if (englishAcceptor.tryToken(token, sink)) {
       fractionNumberDetector.reset();
-      return results;
+      return true;
     }
 
-    return Collections.emptyList();
+    return false;
   }
 
   @Nonnull
   @Override
   public List<NumberResult> finish() {
-    List<NumberResult> results = fractionNumberDetector.finish();
-    if (!results.isEmpty()) {
+    finish(collector);
+    return collector.take();
+  }
+
+  @Override
+  public boolean finish(NumberSink sink) {
+    if (fractionNumberDetector.finish(sink)) {
       englishAcceptor.reset();
-      return results;
+      return true;
     }
 
-    results = englishAcceptor.finish();
-    if (!results.isEmpty()) {
-      return results;
-    }
-    return Collections.emptyList();
+    return englishAcceptor.finish(sink);
   }
 }
@@ -17,6 +17,7 @@
 package edu.umn.biomedicus.numbers;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
@@ -29,6 +30,14 @@ import javax.annotation.Nullable;
  * @since 2.0.0
  */
 public class DecimalNumberAcceptor {
+
+  /**
+   * The number of decimal digits that are guaranteed to fit in a long without overflowing.
+   */
+  private static final int MAX_COMPACT_DIGITS = 18;
+
+  private final TokenDescriptor descriptor = new TokenDescriptor();
+
   /**
    * Parses any decimal numbers from the token text. After it has detected a decimal number it will
    * return true. The number may not necessarily, and will not in many cases contain the token that
@@ -41,80 +50,153 @@ public class DecimalNumberAcceptor {
    */
   @Nullable
   public NumberResult tryToken(@Nonnull CharSequence token, int tokenBegin, int tokenEnd) {
-    boolean isOrdinal = false;
+    descriptor.reset(token, tokenBegin, tokenEnd);
+    parse(token, descriptor);
+    return tryToken(descriptor);
+  }
 
-    if (token.length() == 0) {
+  /**
+   * Classifies the token for the {@link FractionNumberDetector}: parses it as a decimal number and
+   * checks whether it is a slash.
+   *
+   * @param token text to parse
+   * @param tokenBegin the begin index/identifier of the token
+   * @param tokenEnd the end index/identifier of the token
+   * @return the descriptor, which is reused by the next call to this method
+   */
+  TokenDescriptor describe(CharSequence token, int tokenBegin, int tokenEnd) {
+    descriptor.reset(token, tokenBegin, tokenEnd);
+    parse(token, descriptor);
+    descriptor.slash = CharSequences.isChar(token, '/');
+    return descriptor;
+  }
+
+  /**
+   * Returns the decimal number that a token was classified as.
+   *
+   * @param token the classified token
+   * @return the number, or null if the token is not a decimal number
+   * @since 2.1.0
+   */
+  @Nullable
+  public NumberResult tryToken(@Nonnull TokenDescriptor token) {
+    if (!token.decimal) {
       return null;
     }
+    NumberType numberType = token.ordinal ? NumberType.ORDINAL : NumberType.DECIMAL;
+    if (token.bigValue != null) {
+      return new NumberResult(token.begin, token.end, token.bigValue, BigDecimal.ONE, numberType);
+    }
+    return new NumberResult(token.begin, token.end, token.unscaled, token.scale, 1, 0,
+        numberType);
+  }
+
+  /**
+   * Parses the token as a decimal number, storing the outcome in the descriptor.
+   *
+   * @param token text to parse
+   * @param descriptor the descriptor to store the value in
+   */
+  static void parse(CharSequence token, TokenDescriptor descriptor) {
+    int length = token.length();
+    if (length == 0) {
+      return;
+    }
 
     char ch = token.charAt(0);
 
-    StringBuilder digits;
     boolean negative = false;
-    if (ch == '+') {
-      digits = new StringBuilder();
-    } else if (ch == '-') {
-      digits = new StringBuilder();
+    long unscaled = 0;
+    int digitCount = 0;
+    if (ch == '-') {
       negative = true;
-    } else if (Character.isDigit(ch)) {
-      digits = new StringBuilder();
-      digits.append(ch);
-    } else {
-      return null;
+    } else if (isDigit(ch)) {
+      unscaled = digitValue(ch);
+      digitCount = 1;
+    } else if (ch != '+') {
+      return;
     }
 
+    boolean isOrdinal = false;
     int period = -1;
-    for (int i = 1; i < token.length(); i++) {
+    for (int i = 1; i < length; i++) {
       ch = token.charAt(i);
       if (ch == ',') {
         continue;
       }
 
       if (ch == '.') {
-        period = digits.length();
-      } else if (Character.isDigit(ch)) {
-        digits.append(ch);
-      } else {
-        if (i + 1 < token.length()) {
-          if ((ch == 't' && token.charAt(i + 1) == 'h')
-              || (ch == 's' && token.charAt(i + 1) == 't')
-              || (ch == 'n' && token.charAt(i + 1) == 'd')
-              || (ch == 'r' && token.charAt(i + 1) == 'd')) {
-            isOrdinal = true;
-            break;
-          }
+        period = digitCount;
+      } else if (isDigit(ch)) {
+        if (digitCount < MAX_COMPACT_DIGITS) {
+          unscaled = unscaled * 10 + digitValue(ch);
+        }
+        digitCount++;
+      } else if (i + 1 < length) {
+        char next = token.charAt(i + 1);
+        if ((ch == 't' && next == 'h') || (ch == 's' && next == 't')
+            || (ch == 'n' && next == 'd') || (ch == 'r' && next == 'd')) {
+          isOrdinal = true;
+          break;
         }
       }
     }
 
-    if (digits.length() == 0) {
-      return null;
+    if (digitCount == 0) {
+      return;
     }
 
-    BigDecimal value = BigDecimal.ZERO;
-    BigDecimal ten = BigDecimal.valueOf(10);
+    int scale = period == -1 ? 0 : digitCount - period;
 
-    if (period != -1) {
-      for (int i = 0; i < period; i++) {
-        value = value.multiply(ten).add(new BigDecimal("" + digits.charAt(i)));
-      }
-      for (int i = period; i < digits.length(); i++) {
-        value = value.add(new BigDecimal("" + digits.charAt(i))
-            .divide(ten.pow(i - period + 1)));
+    descriptor.decimal = true;
+    descriptor.ordinal = isOrdinal;
+    if (digitCount > MAX_COMPACT_DIGITS) {
+      descriptor.bigValue = parseBig(token, digitCount, scale, negative);
+      return;
+    }
+
+    // trailing zeros after the decimal point do not contribute to the scale
+    while (scale > 0 && unscaled % 10 == 0) {
+      unscaled /= 10;
+      scale--;
+    }
+    descriptor.unscaled = negative ? -unscaled : unscaled;
+    descriptor.scale = scale;
+  }
+
+  /**
+   * Arbitrary precision fallback used when the number has too many digits to fit into a long.
+   */
+  private static BigDecimal parseBig(CharSequence token, int digitCount, int scale,
+      boolean negative) {
+    char[] digits = new char[digitCount];
+    int count = 0;
+    for (int i = 0; i < token.length() && count < digitCount; i++) {
+      char ch = token.charAt(i);
+      if (isDigit(ch)) {
+        digits[count++] = (char) ('0' + digitValue(ch));
       }
-    } else {
-      for (int i = 0; i < digits.length(); i++) {
-        value = value.multiply(ten).add(new BigDecimal("" + digits.charAt(i)));
+    }
+    BigInteger unscaled = new BigInteger(new String(digits));
+    while (scale > 0) {
+      BigInteger[] divRem = unscaled.divideAndRemainder(BigInteger.TEN);
+      if (divRem[1].signum() != 0) {
+        break;
       }
+      unscaled = divRem[0];
+      scale--;
     }
     if (negative) {
-      value = value.negate();
+      unscaled = unscaled.negate();
     }
+    return new BigDecimal(unscaled, scale);
+  }
 
-    NumberType numberType = NumberType.DECIMAL;
-    if (isOrdinal) {
-      numberType = NumberType.ORDINAL;
-    }
-    return new NumberResult(tokenBegin, tokenEnd, value, BigDecimal.ONE, numberType);
+  private static boolean isDigit(char ch) {
+    return (ch >= '0' && ch <= '9') || (ch > 0x7F && Character.isDigit(ch));
+  }
+
+  private static int digitValue(char ch) {
+    return ch <= '9' ? ch - '0' : Character.digit(ch, 10);
   }
 }
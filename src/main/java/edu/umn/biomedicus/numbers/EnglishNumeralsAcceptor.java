@@ -17,8 +17,6 @@
 package edu.umn.biomedicus.numbers;
 
 import java.math.BigDecimal;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -34,13 +32,50 @@ import javax.annotation.Nullable;
  */
 public class EnglishNumeralsAcceptor extends AbstractNumberDetector {
 
+  private static final int DENOMINATOR = 0;
+
+  private static final int STOP = 1;
+
+  private static final int AND = 2;
+
+  private static final int AND_A = 3;
+
+  private static final int AND_A_HALF = 4;
+
+  /**
+   * The action once a numerator has been found for each {@link #andHalf} state and {@link
+   * NumeralToken} class.
+   */
+  private static final int[][] ACTIONS = {
+      // OTHER, HYPHEN, A, AND, HALF, HUNDRED, HUNDREDTH, HUNDREDTHS
+      {DENOMINATOR, STOP, DENOMINATOR, AND, DENOMINATOR, DENOMINATOR, DENOMINATOR, DENOMINATOR},
+      {DENOMINATOR, STOP, AND_A, AND, DENOMINATOR, DENOMINATOR, DENOMINATOR, DENOMINATOR},
+      {DENOMINATOR, STOP, DENOMINATOR, AND, AND_A_HALF, DENOMINATOR, DENOMINATOR, DENOMINATOR}
+  };
+
   private final NonFractionAcceptor nonFractionAcceptor;
 
+  private final ResultCollector collector = new ResultCollector();
+
+  private boolean hasNumerator;
+
+  private long numerator;
+
+  /**
+   * The numerator when it does not fit in {@link #numerator}.
+   */
   @Nullable
-  private BigDecimal numerator;
+  private BigDecimal bigNumerator;
+
+  private boolean hasDenominator;
 
+  private long denominator;
+
+  /**
+   * The denominator when it does not fit in {@link #denominator}.
+   */
   @Nullable
-  private BigDecimal denominator;
+  private BigDecimal bigDenominator;
 
   private int begin;
 
@@ -49,6 +84,10 @@ public class EnglishNumeralsAcceptor extends AbstractNumberDetector {
   @Nullable
   private NumberType numberType;
 
+  /**
+   * How much of "and a half" has been seen after the numerator: 0 for none, 1 for "and", and 2
+   * for "and a".
+   */
   private int andHalf = 0;
 
   EnglishNumeralsAcceptor(NonFractionAcceptor nonFractionAcceptor) {
@@ -66,25 +105,79 @@ public class EnglishNumeralsAcceptor extends AbstractNumberDetector {
         new BasicNumberAcceptor(numberModel)));
   }
 
+  NumberModel getNumberModel() {
+    return nonFractionAcceptor.numberModel;
+  }
+
   /**
    * Resets this number acceptor to its default state.
    */
   public void reset() {
-    numerator = null;
-    denominator = null;
+    hasNumerator = false;
+    bigNumerator = null;
+    hasDenominator = false;
+    bigDenominator = null;
     nonFractionAcceptor.reset();
     numberType = null;
     andHalf = 0;
   }
 
+  /**
+   * Whether the acceptor is in the state {@link #reset()} leaves it in, in which case a token that
+   * is not a number word does not change its state. Words like "hundredth" which are rejected can
+   * still leave flags behind that change how the next number word is read, so every field that
+   * is reset is checked.
+   */
+  @Override
+  boolean isIdle() {
+    return !hasNumerator && bigNumerator == null && !hasDenominator && bigDenominator == null
+        && numberType == null && andHalf == 0 && nonFractionAcceptor.isIdle();
+  }
+
   @Nonnull
   @Override
   public List<NumberResult> tryToken(@Nonnull String token, int tokenBegin, int tokenEnd) {
-    NumberResult previous = null;
-    for (int i = 0; i < 2; i++) {
-      if (numerator == null) {
-        if (nonFractionAcceptor.tryToken(token, tokenBegin, tokenEnd)) {
-          numerator = nonFractionAcceptor.value;
+    return tryToken((CharSequence) token, tokenBegin, tokenEnd);
+  }
+
+  @Nonnull
+  @Override
+  public List<NumberResult> tryToken(@Nonnull CharSequence token, int tokenBegin, int tokenEnd) {
+    tryToken(token, tokenBegin, tokenEnd, collector);
+    return collector.take();
+  }
+
+  @Nonnull
+  @Override
+  public List<NumberResult> tryToken(@Nonnull TokenDescriptor token) {
+    tryToken(token, collector);
+    return collector.take();
+  }
+
+  @Override
+  public boolean tryToken(@Nonnull CharSequence token, int tokenBegin, int tokenEnd,
+      @Nonnull NumberSink sink) {
+    return tryToken(nonFractionAcceptor.numberModel.lookup(token), NumeralToken.classify(token),
+        tokenBegin, tokenEnd, sink);
+  }
+
+  @Override
+  public boolean tryToken(@Nonnull TokenDescriptor token, @Nonnull NumberSink sink) {
+    return tryToken(token.entry, token.tokenClass, token.begin, token.end, sink);
+  }
+
+  private boolean tryToken(@Nullable NumberEntry entry, int tokenClass, int tokenBegin,
+      int tokenEnd, NumberSink sink) {
+    boolean emitted = false;
+    // a fraction which may still be replaced by a longer one when the token is tried again
+    boolean pending = false;
+    // A token which ends a numerator is tried as the start of the denominator, and a token which
+    // ends a whole number is tried as the start of the next number, so each token is offered to
+    // the non-fraction acceptor at most twice.
+    for (int pass = 0; pass < 2; pass++) {
+      if (!hasNumerator) {
+        if (nonFractionAcceptor.tryToken(entry, tokenClass, tokenBegin, tokenEnd)) {
+          setNumerator();
           begin = nonFractionAcceptor.begin;
           end = nonFractionAcceptor.end;
           nonFractionAcceptor.reset();
@@ -92,74 +185,93 @@ public class EnglishNumeralsAcceptor extends AbstractNumberDetector {
 
           if (nonFractionAcceptor.isOrdinal) {
             numberType = NumberType.ORDINAL;
-            NumberResult current = new NumberResult(begin, end, numerator, BigDecimal.ONE,
-                numberType);
+            setDenominator(1);
+            emitState(sink);
             reset();
-            return previous != null ? Arrays.asList(previous, current) : Collections.singletonList(current);
+            return true;
           }
 
           numberType = NumberType.CARDINAL;
 
           if (nonFractionAcceptor.consumedLastToken) {
-            return previous != null ? Collections.singletonList(previous) : Collections.emptyList();
+            break;
           }
         } else {
-          return previous != null ? Collections.singletonList(previous) : Collections.emptyList();
+          break;
         }
       }
 
-      if (token.equals("-")) {
-        return previous != null ? Collections.singletonList(previous) : Collections.emptyList();
-      } else if (andHalf == 1 && token.equalsIgnoreCase("a")) {
-        andHalf = 2;
-      } else if (andHalf == 2 && token.equalsIgnoreCase("half")) {
-        denominator = BigDecimal.valueOf(2);
-        numerator = numerator.multiply(denominator).add(BigDecimal.ONE);
-        numberType = NumberType.FRACTION;
-        end = tokenEnd;
-        NumberResult halfResult = stateToResult();
-        reset();
-        return Collections.singletonList(halfResult);
-      } else if (token.equalsIgnoreCase("and")) {
-        andHalf = 1;
-      } else if (nonFractionAcceptor.tryToken(token, tokenBegin, tokenEnd)) {
-        denominator = nonFractionAcceptor.value;
-        end = nonFractionAcceptor.end;
-        numberType = NumberType.FRACTION;
-
-        previous = stateToResult();
-
-        if (nonFractionAcceptor.consumedLastToken) {
-          reset();
-          return Collections.singletonList(previous);
-        } else {
-          continue;
-        }
-      } else {
-        if (!nonFractionAcceptor.inProgress()) {
-          denominator = BigDecimal.ONE;
-          if (previous != null) {
-            throw new IllegalStateException("Losing a value before returning it.");
+      switch (ACTIONS[andHalf][tokenClass]) {
+        case AND:
+          andHalf = 1;
+          break;
+        case AND_A:
+          andHalf = 2;
+          break;
+        case AND_A_HALF:
+          setDenominator(2);
+          if (bigNumerator == null && numerator <= (Long.MAX_VALUE - 1) / 2) {
+            numerator = numerator * 2 + 1;
+          } else {
+            bigNumerator = numeratorAsBigDecimal().multiply(BigDecimal.valueOf(2))
+                .add(BigDecimal.ONE);
           }
-          previous = stateToResult();
+          numberType = NumberType.FRACTION;
+          end = tokenEnd;
+          emitState(sink);
           reset();
-        }
+          return true;
+        case DENOMINATOR:
+          if (nonFractionAcceptor.tryToken(entry, tokenClass, tokenBegin, tokenEnd)) {
+            setDenominator();
+            end = nonFractionAcceptor.end;
+            numberType = NumberType.FRACTION;
+
+            if (nonFractionAcceptor.consumedLastToken) {
+              emitState(sink);
+              reset();
+              return true;
+            }
+            pending = true;
+            continue;
+          }
+          if (!nonFractionAcceptor.inProgress()) {
+            setDenominator(1);
+            if (pending || emitted) {
+              throw new IllegalStateException("Losing a value before returning it.");
+            }
+            emitState(sink);
+            emitted = true;
+            reset();
+          }
 
-        if (!nonFractionAcceptor.consumedLastToken) {
-          continue;
-        }
+          if (!nonFractionAcceptor.consumedLastToken) {
+            continue;
+          }
+          break;
+        default:
       }
-      return previous != null ? Collections.singletonList(previous) : Collections.emptyList();
+      break;
+    }
+    if (pending) {
+      emitState(sink);
+      return true;
     }
-    return previous != null ? Collections.singletonList(previous) : Collections.emptyList();
+    return emitted;
   }
 
   @Nonnull
   @Override
   public List<NumberResult> finish() {
-    if (numerator == null) {
+    finish(collector);
+    return collector.take();
+  }
+
+  @Override
+  public boolean finish(@Nonnull NumberSink sink) {
+    if (!hasNumerator) {
       if (nonFractionAcceptor.finish()) {
-        numerator = nonFractionAcceptor.value;
+        setNumerator();
         begin = nonFractionAcceptor.begin;
         end = nonFractionAcceptor.end;
         if (nonFractionAcceptor.isOrdinal) {
@@ -167,21 +279,26 @@ public class EnglishNumeralsAcceptor extends AbstractNumberDetector {
         } else {
           numberType = NumberType.CARDINAL;
         }
-        return Collections.singletonList(stateToResult());
+        emitState(sink);
+        return true;
       }
     } else {
       if (nonFractionAcceptor.finish()) {
-        denominator = nonFractionAcceptor.value;
+        setDenominator();
         end = nonFractionAcceptor.end;
         numberType = NumberType.FRACTION;
-        return Collections.singletonList(stateToResult());
+        emitState(sink);
+        return true;
       }
     }
-    return Collections.emptyList();
+    return false;
   }
 
   /**
    * Detects basic cardinal numbers.
+   *
+   * <p>The grammar is a transition table from the current state and the class of the token's
+   * definition to an action, so each token takes a single table lookup.</p>
    */
   static class BasicNumberAcceptor {
 
@@ -198,6 +315,45 @@ public class EnglishNumeralsAcceptor extends AbstractNumberDetector {
       DECADE_UNIT
     }
 
+    private static final int INPUT_OTHER = 0;
+
+    private static final int INPUT_HYPHEN = 1;
+
+    private static final int INPUT_UNIT = 2;
+
+    private static final int INPUT_TEEN = 3;
+
+    private static final int INPUT_DECADE = 4;
+
+    private static final int REJECT = 0;
+
+    private static final int ACCEPT_UNIT = 1;
+
+    private static final int ACCEPT_TEEN = 2;
+
+    private static final int BEGIN_DECADE = 3;
+
+    private static final int HYPHEN = 4;
+
+    private static final int ADD_UNIT = 5;
+
+    private static final int END = 6;
+
+    /**
+     * The action for each {@link State}, in declaration order, and input.
+     */
+    private static final int[][] ACTIONS = {
+        // OTHER, HYPHEN, UNIT, TEEN, DECADE
+        {END, HYPHEN, ADD_UNIT, END, END}, // DECADE
+        {END, END, ADD_UNIT, END, END}, // DECADE_HYPHEN
+        {REJECT, REJECT, ACCEPT_UNIT, ACCEPT_TEEN, BEGIN_DECADE} // NONE
+    };
+
+    /**
+     * The input for each {@link BasicNumberType}, in declaration order.
+     */
+    private static final int[] INPUTS = {INPUT_DECADE, INPUT_TEEN, INPUT_UNIT, INPUT_OTHER};
+
     final NumberModel numberModel;
 
     int value;
@@ -235,96 +391,128 @@ public class EnglishNumeralsAcceptor extends AbstractNumberDetector {
       isOrdinal = false;
     }
 
-    boolean tryToken(String token, int tokenStart, int tokenEnd) {
+    boolean tryToken(CharSequence token, int tokenStart, int tokenEnd) {
+      return tryToken(numberModel.lookup(token), NumeralToken.classify(token), tokenStart,
+          tokenEnd);
+    }
+
+    boolean tryToken(@Nullable NumberEntry entry, int tokenClass, int tokenStart, int tokenEnd) {
       NumberDefinition numberDefinition = null;
-      if (canBeDenominator) {
-        numberDefinition = numberModel.getDenominator(token);
-        if (numberDefinition != null) {
-          isDenominator = true;
+      if (entry != null) {
+        if (canBeDenominator) {
+          numberDefinition = entry.getDenominator();
+          if (numberDefinition != null) {
+            isDenominator = true;
+          }
         }
-      }
 
-      if (numberDefinition == null) {
-        numberDefinition = numberModel.getNumberDefinition(token);
-      }
-
-      if (numberDefinition == null) {
-        numberDefinition = numberModel.getOrdinal(token);
-        if (numberDefinition != null) {
-          isOrdinal = true;
+        if (numberDefinition == null) {
+          numberDefinition = entry.getNumber();
         }
-      }
 
-      switch (state) {
-        case NONE:
+        if (numberDefinition == null) {
+          numberDefinition = entry.getOrdinal();
           if (numberDefinition != null) {
-            switch (numberDefinition.getBasicNumberType()) {
-              case TEEN:
-                value = numberDefinition.getValue();
-                begin = tokenStart;
-                end = tokenEnd;
-                type = Type.TEEN;
-                consumedLastToken = true;
-                return true;
-              case UNIT:
-                value = numberDefinition.getValue();
-                begin = tokenStart;
-                end = tokenEnd;
-                type = Type.UNIT;
-                consumedLastToken = true;
-                return true;
-              case DECADE:
-                state = State.DECADE;
-                value = numberDefinition.getValue();
-                begin = tokenStart;
-                end = tokenEnd;
-                type = Type.DECADE;
-                consumedLastToken = true;
-                if (isDenominator || isOrdinal) {
-                  return true;
-                }
-                break;
-            }
-          }
-          break;
-        case DECADE:
-          if ("-".equals(token)) {
-            state = State.DECADE_HYPHEN;
-            return false;
-          }
-        case DECADE_HYPHEN:
-          if (numberDefinition != null) {
-            if (numberDefinition.getBasicNumberType() == BasicNumberType.UNIT) {
-              value = value + numberDefinition.getValue();
-              end = tokenEnd;
-              type = Type.DECADE_UNIT;
-              consumedLastToken = true;
-              return true;
-            }
+            isOrdinal = true;
           }
+        }
+      }
+
+      int input;
+      if (tokenClass == NumeralToken.HYPHEN) {
+        input = INPUT_HYPHEN;
+      } else if (numberDefinition == null) {
+        input = INPUT_OTHER;
+      } else {
+        input = INPUTS[numberDefinition.getBasicNumberType().ordinal()];
+      }
+
+      switch (ACTIONS[state.ordinal()][input]) {
+        case ACCEPT_UNIT:
+        case ACCEPT_TEEN:
+          value = numberDefinition.getValue();
+          begin = tokenStart;
+          end = tokenEnd;
+          type = input == INPUT_UNIT ? Type.UNIT : Type.TEEN;
+          consumedLastToken = true;
+          return true;
+        case BEGIN_DECADE:
+          state = State.DECADE;
+          value = numberDefinition.getValue();
+          begin = tokenStart;
+          end = tokenEnd;
+          type = Type.DECADE;
+          consumedLastToken = true;
+          return isDenominator || isOrdinal;
+        case HYPHEN:
+          state = State.DECADE_HYPHEN;
+          return false;
+        case ADD_UNIT:
+          value = value + numberDefinition.getValue();
+          end = tokenEnd;
+          type = Type.DECADE_UNIT;
+          consumedLastToken = true;
+          return true;
+        case END:
           consumedLastToken = false;
           return true;
+        default:
+          return false;
       }
+    }
 
-      return false;
+    /**
+     * Whether this acceptor is in the state {@link #reset()} leaves it in.
+     */
+    boolean isIdle() {
+      return value == -1 && begin == -1 && end == -1 && state == State.NONE && type == null
+          && !consumedLastToken && !canBeDenominator && !isDenominator && !isOrdinal;
     }
 
     boolean finish() {
-      switch (state) {
-        case DECADE_HYPHEN:
-        case DECADE:
-          return true;
-      }
-      return false;
+      return state != State.NONE;
     }
   }
 
-  private NumberResult stateToResult() {
-    return new NumberResult(begin, end, numerator, denominator, numberType);
+  private void setNumerator() {
+    hasNumerator = true;
+    numerator = nonFractionAcceptor.value;
+    bigNumerator = nonFractionAcceptor.bigValue;
+  }
+
+  private void setDenominator() {
+    hasDenominator = true;
+    denominator = nonFractionAcceptor.value;
+    bigDenominator = nonFractionAcceptor.bigValue;
+  }
+
+  private void setDenominator(long value) {
+    hasDenominator = true;
+    denominator = value;
+    bigDenominator = null;
+  }
+
+  private BigDecimal numeratorAsBigDecimal() {
+    return bigNumerator != null ? bigNumerator : BigDecimal.valueOf(numerator);
+  }
+
+  private void emitState(NumberSink sink) {
+    if (!hasDenominator) {
+      sink.bigNumber(begin, end, numberType, numeratorAsBigDecimal(), null);
+    } else if (bigNumerator == null && bigDenominator == null) {
+      sink.number(begin, end, numberType, numerator, 0, denominator, 0);
+    } else {
+      sink.bigNumber(begin, end, numberType, numeratorAsBigDecimal(),
+          bigDenominator != null ? bigDenominator : BigDecimal.valueOf(denominator));
+    }
   }
 
   /**
    * Finds any english numeral numerators or denominators.
+   *
+   * <p>Like {@link BasicNumberAcceptor} each token is dispatched through a transition table from
+   * the current state and the {@link NumeralToken} class of the token to an action. The value is
+   * accumulated in a long until it no longer fits.</p>
    */
   static class NonFractionAcceptor {
 
@@ -336,15 +524,77 @@ public class EnglishNumeralsAcceptor extends AbstractNumberDetector {
       POST_MAGNITUDE
     }
 
+    private static final int END_PART = 0;
+
+    private static final int BASIC = 1;
+
+    private static final int IGNORE = 2;
+
+    private static final int HUNDRED = 3;
+
+    private static final int HUNDREDTH = 4;
+
+    private static final int HUNDREDTHS = 5;
+
+    private static final int RANK_BASIC = 6;
+
+    /**
+     * The action for each {@link State}, in declaration order, and {@link NumeralToken} class.
+     */
+    private static final int[][] ACTIONS = {
+        // OTHER, HYPHEN, A, AND, HALF, HUNDRED, HUNDREDTH, HUNDREDTHS
+        {BASIC, BASIC, BASIC, BASIC, BASIC, BASIC, BASIC, BASIC}, // NONE
+        {END_PART, END_PART, END_PART, END_PART, END_PART, HUNDRED, HUNDREDTH, HUNDREDTHS},
+        // HAS_BASIC
+        {RANK_BASIC, RANK_BASIC, RANK_BASIC, IGNORE, RANK_BASIC, RANK_BASIC, RANK_BASIC,
+            RANK_BASIC}, // RANK_01
+        {END_PART, END_PART, END_PART, END_PART, END_PART, END_PART, END_PART, END_PART},
+        // PAST_FIRST_PART
+        {BASIC, BASIC, BASIC, IGNORE, BASIC, BASIC, BASIC, BASIC} // POST_MAGNITUDE
+    };
+
+    /**
+     * The value of each magnitude, {@code 1000^n}, that fits in a long.
+     */
+    private static final long[] LONG_MAGNITUDES = {
+        1L, 1_000L, 1_000_000L, 1_000_000_000L, 1_000_000_000_000L, 1_000_000_000_000_000L,
+        1_000_000_000_000_000_000L
+    };
+
+    /**
+     * The value of each magnitude up to and including "centillion", {@code 1000^101}.
+     */
+    private static final BigDecimal[] MAGNITUDES = new BigDecimal[102];
+
+    static {
+      BigDecimal thousand = BigDecimal.valueOf(1000);
+      MAGNITUDES[0] = BigDecimal.ONE;
+      for (int i = 1; i < MAGNITUDES.length; i++) {
+        MAGNITUDES[i] = MAGNITUDES[i - 1].multiply(thousand);
+      }
+    }
 
-    private final NumberModel numberModel;
+    final NumberModel numberModel;
 
     private final BasicNumberAcceptor basicNumberAcceptor;
 
     private State state;
 
+    /**
+     * Whether any value has been accumulated.
+     */
+    boolean hasValue;
+
+    /**
+     * The accumulated value, if it fits in a long, only valid when {@link #bigValue} is null.
+     */
+    long value;
+
+    /**
+     * The accumulated value once it no longer fits in a long.
+     */
     @Nullable
-    BigDecimal value;
+    BigDecimal bigValue;
 
     private int valueBuilder = 0;
 
@@ -368,7 +618,9 @@ public class EnglishNumeralsAcceptor extends AbstractNumberDetector {
 
     private void reset() {
       state = State.NONE;
-      value = null;
+      hasValue = false;
+      value = 0;
+      bigValue = null;
       valueBuilder = -1;
       begin = -1;
       end = -1;
@@ -380,114 +632,100 @@ public class EnglishNumeralsAcceptor extends AbstractNumberDetector {
       basicNumberAcceptor.reset();
     }
 
-    boolean tryToken(String token, int tokenBegin, int tokenEnd) {
-      NumberDefinition numberDefinition = numberModel.getNumberDefinition(token);
-
-      switch (state) {
-        case NONE:
-          if (value != null && "and".equalsIgnoreCase(token)) {
-            return false;
-          }
+    boolean tryToken(CharSequence token, int tokenBegin, int tokenEnd) {
+      return tryToken(numberModel.lookup(token), NumeralToken.classify(token), tokenBegin,
+          tokenEnd);
+    }
 
-          boolean basicTry = basicNumberAcceptor.tryToken(token, tokenBegin, tokenEnd);
+    boolean tryToken(@Nullable NumberEntry entry, int tokenClass, int tokenBegin, int tokenEnd) {
+      switch (ACTIONS[state.ordinal()][tokenClass]) {
+        case BASIC:
+          boolean basicTry = basicNumberAcceptor.tryToken(entry, tokenClass, tokenBegin,
+              tokenEnd);
           consumedLastToken = basicNumberAcceptor.consumedLastToken;
           if (basicTry) {
             state = State.HAS_BASIC;
-            if (value == null) {
+            if (!hasValue) {
               begin = basicNumberAcceptor.begin;
             }
             end = basicNumberAcceptor.end;
             valueBuilder = basicNumberAcceptor.value;
             if (basicNumberAcceptor.isDenominator || basicNumberAcceptor.isOrdinal
                 || !basicNumberAcceptor.consumedLastToken) {
-              value = BigDecimal.valueOf(valueBuilder);
+              setValue(valueBuilder);
               return true;
             }
-          } else if (value != null) {
-            break;
+          } else if (hasValue) {
+            return endPart(entry, tokenEnd);
           }
           return false;
-        case HAS_BASIC:
-          if ("hundred".equalsIgnoreCase(token)) {
-            state = State.RANK_01;
-            valueBuilder = valueBuilder * 100;
-            end = tokenEnd;
-            basicNumberAcceptor.reset();
-            return false;
-          }
-          if ("hundredth".equalsIgnoreCase(token)) {
-            if (canBeDenominator) {
-              isDenominator = true;
-            } else {
-              isOrdinal = true;
-            }
-            valueBuilder = valueBuilder * 100;
-            end = tokenEnd;
-            basicNumberAcceptor.reset();
-            value = BigDecimal.valueOf(valueBuilder);
-            consumedLastToken = true;
-            return true;
-          }
-          if ("hundredths".equalsIgnoreCase(token)) {
+        case IGNORE:
+          return false;
+        case HUNDRED:
+          state = State.RANK_01;
+          valueBuilder = valueBuilder * 100;
+          end = tokenEnd;
+          basicNumberAcceptor.reset();
+          return false;
+        case HUNDREDTH:
+          if (canBeDenominator) {
             isDenominator = true;
-            valueBuilder = valueBuilder * 100;
-            end = tokenEnd;
-            basicNumberAcceptor.reset();
-            value = BigDecimal.valueOf(valueBuilder);
-            consumedLastToken = true;
-            return true;
-          }
-          break;
-        case RANK_01:
-          if ("and".equalsIgnoreCase(token)) {
-            return false;
+          } else {
+            isOrdinal = true;
           }
-
+          valueBuilder = valueBuilder * 100;
+          end = tokenEnd;
+          basicNumberAcceptor.reset();
+          setValue(valueBuilder);
+          consumedLastToken = true;
+          return true;
+        case HUNDREDTHS:
+          isDenominator = true;
+          valueBuilder = valueBuilder * 100;
+          end = tokenEnd;
+          basicNumberAcceptor.reset();
+          setValue(valueBuilder);
+          consumedLastToken = true;
+          return true;
+        case RANK_BASIC:
           if (basicNumberAcceptor.state != BasicNumberAcceptor.State.NONE) {
-            if (basicNumberAcceptor.tryToken(token, tokenBegin, tokenEnd)) {
+            if (basicNumberAcceptor.tryToken(entry, tokenClass, tokenBegin, tokenEnd)) {
               valueBuilder += basicNumberAcceptor.value;
               end = basicNumberAcceptor.end;
               state = State.PAST_FIRST_PART;
             }
           } else {
-            basicNumberAcceptor.tryToken(token, tokenBegin, tokenEnd);
+            basicNumberAcceptor.tryToken(entry, tokenClass, tokenBegin, tokenEnd);
             if (basicNumberAcceptor.state == BasicNumberAcceptor.State.NONE) {
-              break;
+              return endPart(entry, tokenEnd);
             }
           }
           return false;
         default:
+          return endPart(entry, tokenEnd);
       }
+    }
 
-      // if we fall through to here look for a magnitude
-
-      if (numberDefinition != null) {
-        if (BasicNumberType.MAGNITUDE == numberDefinition.getBasicNumberType()) {
-          if (value != null) {
-            value = value.add(BigDecimal.valueOf(1000).pow(numberDefinition.getValue())
-                .multiply(BigDecimal.valueOf(valueBuilder)));
-          } else {
-            value = BigDecimal.valueOf(1000).pow(numberDefinition.getValue())
-                .multiply(BigDecimal.valueOf(valueBuilder));
-          }
-          valueBuilder = 0;
-          end = tokenEnd;
-          state = State.NONE;
-          return false;
-        }
+    /**
+     * Handles a token which ends the part of the number in {@link #valueBuilder}, either a
+     * magnitude which multiplies it or the end of the number.
+     */
+    private boolean endPart(@Nullable NumberEntry entry, int tokenEnd) {
+      NumberDefinition numberDefinition = entry != null ? entry.getNumber() : null;
+      if (numberDefinition != null
+          && BasicNumberType.MAGNITUDE == numberDefinition.getBasicNumberType()) {
+        addToValue(numberDefinition.getValue());
+        valueBuilder = 0;
+        end = tokenEnd;
+        state = State.POST_MAGNITUDE;
+        return false;
       }
 
       if (canBeDenominator) {
-        numberDefinition = numberModel.getDenominator(token);
+        numberDefinition = entry != null ? entry.getDenominator() : null;
         if (numberDefinition != null
             && numberDefinition.getBasicNumberType() == BasicNumberType.MAGNITUDE) {
-          if (value != null) {
-            value = value.add(BigDecimal.valueOf(1000).pow(numberDefinition.getValue())
-                .multiply(BigDecimal.valueOf(valueBuilder)));
-          } else {
-            value = BigDecimal.valueOf(1000).pow(numberDefinition.getValue())
-                .multiply(BigDecimal.valueOf(valueBuilder));
-          }
+          addToValue(numberDefinition.getValue());
           end = tokenEnd;
           consumedLastToken = true;
           return true;
@@ -496,53 +734,88 @@ public class EnglishNumeralsAcceptor extends AbstractNumberDetector {
 
       // if we fall through to here we've reached the end of the number
 
-      if (value == null) {
-        value = BigDecimal.valueOf(valueBuilder);
-      } else {
-        value = value.add(BigDecimal.valueOf(valueBuilder));
-      }
+      addToValue(0);
 
       consumedLastToken = false;
       return true;
     }
 
     boolean finish() {
-      switch (state) {
-        case NONE:
-          if (basicNumberAcceptor.finish()) {
-            state = State.HAS_BASIC;
-            if (value == null) {
-              begin = basicNumberAcceptor.begin;
-            }
-            end = basicNumberAcceptor.end;
-            valueBuilder = basicNumberAcceptor.value;
+      if (state == State.NONE || state == State.POST_MAGNITUDE) {
+        if (basicNumberAcceptor.finish()) {
+          state = State.HAS_BASIC;
+          if (!hasValue) {
+            begin = basicNumberAcceptor.begin;
           }
-          break;
-        case HAS_BASIC:
-        case RANK_01:
-          if (basicNumberAcceptor.state != BasicNumberAcceptor.State.NONE) {
-            if (basicNumberAcceptor.finish()) {
-              valueBuilder += basicNumberAcceptor.value;
-              end = basicNumberAcceptor.end;
-              state = State.PAST_FIRST_PART;
-            }
-          }
-        default:
-      }
-      if (value == null) {
-        if (state == State.NONE) {
-          return false;
+          end = basicNumberAcceptor.end;
+          valueBuilder = basicNumberAcceptor.value;
         }
-        value = BigDecimal.valueOf(valueBuilder);
-      } else {
-        value = value.add(BigDecimal.valueOf(valueBuilder));
+      } else if (state != State.PAST_FIRST_PART && basicNumberAcceptor.finish()) {
+        valueBuilder += basicNumberAcceptor.value;
+        end = basicNumberAcceptor.end;
+        state = State.PAST_FIRST_PART;
       }
+      if (!hasValue && state == State.NONE) {
+        return false;
+      }
+      addToValue(0);
 
       return true;
     }
 
+    private void setValue(long value) {
+      hasValue = true;
+      this.value = value;
+      bigValue = null;
+    }
+
+    /**
+     * Adds {@code valueBuilder * 1000^magnitude} to the value, staying in long arithmetic unless
+     * the result does not fit.
+     *
+     * @param magnitude the power of one thousand
+     */
+    private void addToValue(int magnitude) {
+      if (bigValue == null && magnitude >= 0 && magnitude < LONG_MAGNITUDES.length) {
+        long power = LONG_MAGNITUDES[magnitude];
+        if (valueBuilder >= 0 && valueBuilder <= (Long.MAX_VALUE - value) / power) {
+          setValue(value + valueBuilder * power);
+          return;
+        }
+      }
+      BigDecimal power = magnitude >= 0 && magnitude < MAGNITUDES.length ? MAGNITUDES[magnitude]
+          : BigDecimal.valueOf(1000).pow(magnitude);
+      BigDecimal term = power.multiply(BigDecimal.valueOf(valueBuilder));
+      bigValue = hasValue ? getValue().add(term) : term;
+      hasValue = true;
+    }
+
+    /**
+     * The accumulated value.
+     *
+     * @return the value or null if there is none
+     */
+    @Nullable
+    BigDecimal getValue() {
+      if (!hasValue) {
+        return null;
+      }
+      return bigValue != null ? bigValue : BigDecimal.valueOf(value);
+    }
+
+    /**
+     * Whether this acceptor and its basic number acceptor are in the state {@link #reset()} leaves
+     * them in.
+     */
+    boolean isIdle() {
+      return state == State.NONE && !hasValue && value == 0 && bigValue == null
+          && valueBuilder == -1 && begin == -1 && end == -1 && !consumedLastToken
+          && !canBeDenominator && !isDenominator && !isOrdinal && basicNumberAcceptor.isIdle();
+    }
+
     boolean inProgress() {
-      return state != State.NONE || basicNumberAcceptor.state != BasicNumberAcceptor.State.NONE;
+      return (state != State.NONE && state != State.POST_MAGNITUDE)
+          || basicNumberAcceptor.state != BasicNumberAcceptor.State.NONE;
     }
 
     void setDenominator() {
@@ -16,8 +16,7 @@
 
 package edu.umn.biomedicus.numbers;
 
-import java.util.Arrays;
-import java.util.Collections;
+import java.math.BigDecimal;
 import java.util.List;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -35,11 +34,11 @@ public class FractionNumberDetector extends AbstractNumberDetector {
 
   private final DecimalNumberAcceptor decimalNumberAcceptor;
 
-  @Nullable
-  private NumberResult numerator = null;
+  private final ResultCollector collector = new ResultCollector();
 
-  @Nullable
-  private NumberResult denominator = null;
+  private final PendingDecimal numerator = new PendingDecimal();
+
+  private final PendingDecimal denominator = new PendingDecimal();
 
   boolean sawSlash = false;
 
@@ -54,15 +53,38 @@ public class FractionNumberDetector extends AbstractNumberDetector {
   }
 
   /**
-   * Resets the number detector to default state. {@link #tryToken(String, int, int)}
+   * Resets the number detector to default state. {@link #tryToken(CharSequence, int, int)}
    * and {@link #finish()} do this automatically.
    */
   public void reset() {
-    numerator = null;
-    denominator = null;
+    numerator.present = false;
+    denominator.present = false;
     sawSlash = false;
   }
 
+  /**
+   * Whether the detector is in the state {@link #reset()} leaves it in, in which case a token that
+   * is not a decimal number does not change its state.
+   */
+  @Override
+  boolean isIdle() {
+    return !numerator.present && !denominator.present && !sawSlash;
+  }
+
+  /**
+   * Any token which is not a decimal number or a slash ends the number in progress.
+   */
+  @Override
+  boolean isBoundary(CharSequence token) {
+    TokenDescriptor descriptor = decimalNumberAcceptor.describe(token, 0, token.length());
+    return !descriptor.decimal && !descriptor.slash;
+  }
+
+  @Override
+  FractionNumberDetector newDetector() {
+    return new FractionNumberDetector();
+  }
+
   /**
    * Advances the detector, returning any numbers that are confirmed by the token passed in.
    *
@@ -74,38 +96,66 @@ public class FractionNumberDetector extends AbstractNumberDetector {
   @Nonnull
   @Override
   public List<NumberResult> tryToken(String token, int begin, int end) {
-    NumberResult next = decimalNumberAcceptor.tryToken(token, begin, end);
-    if (numerator == null) {
-      numerator = next;
-      if (numerator != null && numerator.getNumberType().equals(NumberType.ORDINAL)) {
-        return swapAndReturnNumerator(null);
+    return tryToken((CharSequence) token, begin, end);
+  }
+
+  @Nonnull
+  @Override
+  public List<NumberResult> tryToken(CharSequence token, int begin, int end) {
+    tryToken(token, begin, end, collector);
+    return collector.take();
+  }
+
+  @Nonnull
+  @Override
+  public List<NumberResult> tryToken(TokenDescriptor token) {
+    tryToken(token, collector);
+    return collector.take();
+  }
+
+  @Override
+  public boolean tryToken(CharSequence token, int begin, int end, NumberSink sink) {
+    return tryToken(decimalNumberAcceptor.describe(token, begin, end), sink);
+  }
+
+  @Override
+  public boolean tryToken(TokenDescriptor token, NumberSink sink) {
+    if (!numerator.present) {
+      numerator.set(token);
+      if (numerator.present && numerator.ordinal) {
+        numerator.emit(sink);
+        numerator.present = false;
+        return true;
       }
-    } else if (denominator == null) {
+    } else if (!denominator.present) {
       if (sawSlash) {
-        denominator = next;
-        if (denominator == null) {
-          List<NumberResult> result = swapAndReturnNumerator(null);
+        denominator.set(token);
+        if (!denominator.present) {
+          numerator.emit(sink);
+          numerator.present = false;
           sawSlash = false;
-          return result;
+          return true;
         }
-      } else if (token.length() == 1 && token.charAt(0) == '/') {
+      } else if (token.slash) {
         sawSlash = true;
       } else {
-        return swapAndReturnNumerator(next);
+        numerator.emit(sink);
+        numerator.set(token);
+        return true;
       }
     } else {
       // check if the previously parsed numerator and denominators are actually fractions
-      List<NumberResult> result;
-      if (token.length() == 1 && token.charAt(0) == '/' || denominator.getNumerator().intValue() == 0) {
+      if (token.slash || denominator.intValue() == 0) {
         // not a fraction
-        result = Arrays.asList(numerator, denominator);
+        numerator.emit(sink);
+        denominator.emit(sink);
       } else {
-        result = buildFraction();
+        emitFraction(sink);
       }
       reset();
-      return result;
+      return true;
     }
-    return Collections.emptyList();
+    return false;
   }
 
   /**
@@ -117,32 +167,100 @@ public class FractionNumberDetector extends AbstractNumberDetector {
   @Nonnull
   @Override
   public List<NumberResult> finish() {
-    List<NumberResult> result;
-    if (numerator == null) {
-      result = Collections.emptyList();
-    } else if (denominator == null) {
-      result = swapAndReturnNumerator(null);
-    } else {
-      result = buildFraction();
+    finish(collector);
+    return collector.take();
+  }
+
+  @Override
+  public boolean finish(NumberSink sink) {
+    boolean emitted = numerator.present;
+    if (numerator.present) {
+      if (!denominator.present) {
+        numerator.emit(sink);
+      } else {
+        emitFraction(sink);
+      }
     }
     reset();
-    return result;
+    return emitted;
   }
 
-  private List<NumberResult> buildFraction() {
-    assert numerator != null : "this should only be called when numerator is not null";
-    assert denominator != null : "this should only be called when denominator is not null";
-    return Collections.singletonList(
-        new NumberResult(numerator.getBegin(), denominator.getEnd(),
-            numerator.getNumerator(), denominator.getNumerator(), NumberType.FRACTION)
-    );
+  private void emitFraction(NumberSink sink) {
+    if (numerator.bigValue == null && denominator.bigValue == null) {
+      sink.number(numerator.begin, denominator.end, NumberType.FRACTION, numerator.unscaled,
+          numerator.scale, denominator.unscaled, denominator.scale);
+    } else {
+      sink.bigNumber(numerator.begin, denominator.end, NumberType.FRACTION,
+          numerator.toBigDecimal(), denominator.toBigDecimal());
+    }
   }
 
-  private List<NumberResult> swapAndReturnNumerator(@Nullable NumberResult replacement) {
-    List<NumberResult> result = Collections.singletonList(numerator);
-    numerator = replacement;
-    return result;
-  }
+  /**
+   * A decimal number that has been parsed but not yet sent to a sink.
+   */
+  private static final class PendingDecimal {
+
+    /**
+     * The most digits a value can have and still be compact, see {@link NumberResult#isCompact()}.
+     */
+    private static final int MAX_COMPACT_PRECISION = 18;
+
+    boolean present;
+
+    int begin;
+
+    int end;
+
+    boolean ordinal;
+
+    long unscaled;
 
+    int scale;
 
+    /**
+     * The value when it does not fit in {@link #unscaled}, otherwise null.
+     */
+    @Nullable
+    BigDecimal bigValue;
+
+    /**
+     * Copies the decimal number from the token, if it is one.
+     */
+    void set(TokenDescriptor token) {
+      present = token.decimal;
+      if (!present) {
+        return;
+      }
+      begin = token.begin;
+      end = token.end;
+      ordinal = token.ordinal;
+      BigDecimal bigValue = token.bigValue;
+      if (bigValue != null && bigValue.precision() <= MAX_COMPACT_PRECISION) {
+        unscaled = bigValue.unscaledValue().longValue();
+        scale = bigValue.scale();
+        this.bigValue = null;
+      } else {
+        unscaled = token.unscaled;
+        scale = token.scale;
+        this.bigValue = bigValue;
+      }
+    }
+
+    int intValue() {
+      return bigValue != null ? bigValue.intValue() : NumberResult.intValue(unscaled, scale);
+    }
+
+    BigDecimal toBigDecimal() {
+      return bigValue != null ? bigValue : BigDecimal.valueOf(unscaled, scale);
+    }
+
+    void emit(NumberSink sink) {
+      NumberType numberType = ordinal ? NumberType.ORDINAL : NumberType.DECIMAL;
+      if (bigValue != null) {
+        sink.bigNumber(begin, end, numberType, bigValue, BigDecimal.ONE);
+      } else {
+        sink.number(begin, end, numberType, unscaled, scale, 1, 0);
+      }
+    }
+  }
 }
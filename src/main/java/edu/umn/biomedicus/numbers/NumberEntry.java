@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.numbers;
+
+import javax.annotation.Nullable;
+
+/**
+ * All of the ways a single word can be used as a number: as a cardinal number, an ordinal, or a
+ * denominator.
+ *
+ * @since 2.1.0
+ */
+final class NumberEntry {
+
+  @Nullable
+  private final NumberDefinition number;
+
+  @Nullable
+  private final NumberDefinition ordinal;
+
+  @Nullable
+  private final NumberDefinition denominator;
+
+  NumberEntry(
+      @Nullable NumberDefinition number,
+      @Nullable NumberDefinition ordinal,
+      @Nullable NumberDefinition denominator
+  ) {
+    this.number = number;
+    this.ordinal = ordinal;
+    this.denominator = denominator;
+  }
+
+  /**
+   * The definition of the word when it is used as a cardinal number, e.g. "five".
+   *
+   * @return number definition or null if the word is not a cardinal number
+   */
+  @Nullable
+  NumberDefinition getNumber() {
+    return number;
+  }
+
+  /**
+   * The definition of the word when it is used as an ordinal, e.g. "fifth".
+   *
+   * @return number definition or null if the word is not an ordinal
+   */
+  @Nullable
+  NumberDefinition getOrdinal() {
+    return ordinal;
+  }
+
+  /**
+   * The definition of the word when it is used as a denominator, e.g. "fifths".
+   *
+   * @return number definition or null if the word is not a denominator
+   */
+  @Nullable
+  NumberDefinition getDenominator() {
+    return denominator;
+  }
+}
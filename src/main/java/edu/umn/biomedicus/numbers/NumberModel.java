@@ -16,13 +16,21 @@
 
 package edu.umn.biomedicus.numbers;
 
-import java.io.BufferedReader;
+import edu.umn.biomedicus.internal.Lexicon;
+import edu.umn.biomedicus.internal.Snapshots;
+import java.io.DataOutput;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.file.Files;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.annotation.Nullable;
 
 /**
@@ -35,79 +43,108 @@ import javax.annotation.Nullable;
  */
 public class NumberModel {
 
-  private final Map<String, NumberDefinition> numbers;
+  /**
+   * Identifies number model snapshots, the ASCII characters "BMNM".
+   */
+  private static final int SNAPSHOT_MAGIC = 0x424D4E4D;
+
+  /**
+   * The version of the snapshot format, must be incremented whenever the format or {@link
+   * BasicNumberType} changes.
+   */
+  private static final int SNAPSHOT_VERSION = 1;
 
-  private final Map<String, NumberDefinition> ordinals;
+  private final Lexicon lexicon;
 
-  private final Map<String, NumberDefinition> denominators;
+  private final NumberEntry[] entries;
 
-  private NumberModel(Map<String, NumberDefinition> numbers,
+  NumberModel(Map<String, NumberDefinition> numbers,
       Map<String, NumberDefinition> ordinals,
       Map<String, NumberDefinition> denominators) {
-    this.numbers = numbers;
-    this.ordinals = ordinals;
-    this.denominators = denominators;
+    Set<String> words = new HashSet<>(numbers.keySet());
+    words.addAll(ordinals.keySet());
+    words.addAll(denominators.keySet());
+
+    Map<List<NumberDefinition>, Integer> entryIndices = new HashMap<>();
+    List<NumberEntry> entries = new ArrayList<>();
+    Map<String, Integer> indices = new HashMap<>();
+    for (String word : words) {
+      indices.put(word, entryIndex(entryIndices, entries, numbers.get(word), ordinals.get(word),
+          denominators.get(word)));
+    }
+    this.entries = entries.toArray(new NumberEntry[0]);
+    lexicon = Lexicon.create(indices);
+  }
+
+  private NumberModel(Lexicon lexicon, NumberEntry[] entries) {
+    this.lexicon = lexicon;
+    this.entries = entries;
   }
 
   /**
-   * Loads the numbers and their variants from SPECIALIST LEXICON NRNUM and NRVAR file, using
-   * versions that are on the classpath.
+   * Returns the number model for the versions of NRNUM and NRVAR that are on the classpath.
    *
    * @return newly created number model instance.
-   * @throws IOException if there are any issues loading the files.
+   * @throws IOException never, the model is compiled into the library. Use {@link
+   *     #createDefaultNumberModel()} to avoid handling the exception.
    */
   public static NumberModel createNumberModel() throws IOException {
-    Map<String, NumberDefinition> numbers = new HashMap<>();
-
-    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-        NumberModel.class.getClassLoader().getResourceAsStream(
-            "edu/umn/biomedicus/measures/NRNUM")))) {
-      String line;
-      while ((line = reader.readLine()) != null) {
-        String[] split = line.split("\\|");
-        String word = split[1];
-        BasicNumberType basicNumberType = typeFromString(split[2]);
-
-        int value;
-        if (basicNumberType == BasicNumberType.MAGNITUDE) {
-          value = Integer.valueOf(split[5]);
-        } else {
-          value = Integer.valueOf(split[3]);
-        }
+    return createDefaultNumberModel();
+  }
 
-        NumberDefinition numberDefinition = new NumberDefinition(value, basicNumberType);
-        numbers.put(word, numberDefinition);
-      }
+  /**
+   * Creates the number model for the versions of NRNUM and NRVAR that are on the classpath. The
+   * lexicon is compiled into tables at build time, so this does not read or parse any files.
+   *
+   * @return newly created number model instance.
+   * @since 2.1.0
+   */
+  public static NumberModel createDefaultNumberModel() {
+    NumberDefinition[] definitions = new NumberDefinition[NumberTables.DEFINITION_VALUES.length];
+    for (int i = 0; i < definitions.length; i++) {
+      definitions[i] = new NumberDefinition(NumberTables.DEFINITION_VALUES[i],
+          NumberTables.DEFINITION_TYPES[i]);
     }
 
-    Map<String, NumberDefinition> ordinals = new HashMap<>();
-    Map<String, NumberDefinition> denominators = new HashMap<>();
-
-
-    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
-        NumberModel.class.getClassLoader().getResourceAsStream(
-            "edu/umn/biomedicus/measures/NRVAR")))) {
-      String line;
-      while ((line = reader.readLine()) != null) {
-        String[] split = line.split("\\|");
-        String word = split[0];
-        String types = split[2];
-        String norm = split[3];
-        NumberDefinition numberDefinition = numbers.get(norm);
-        if (types.contains("ordinal")) {
-          ordinals.put(word, numberDefinition);
-        }
-        if (types.contains("denominator")) {
-          denominators.put(word, numberDefinition);
-        }
-      }
+    Map<List<NumberDefinition>, Integer> entryIndices = new HashMap<>();
+    List<NumberEntry> entries = new ArrayList<>();
+    int[] values = new int[NumberTables.WORDS.length];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = entryIndex(entryIndices, entries,
+          tableDefinition(definitions, NumberTables.NUMBERS[i]),
+          tableDefinition(definitions, NumberTables.ORDINALS[i]),
+          tableDefinition(definitions, NumberTables.DENOMINATORS[i]));
     }
 
-    return new NumberModel(numbers, ordinals, denominators);
+    return new NumberModel(Lexicon.createSorted(NumberTables.WORDS, values),
+        entries.toArray(new NumberEntry[0]));
   }
 
   /**
-   * Loads the numbers and their variants from SPECIALIST LEXICON NRNUM and NRVAR file.
+   * Words with the same definitions share an entry, so the entries only grow with the number of
+   * distinct meanings and not with the number of word variants.
+   */
+  private static int entryIndex(Map<List<NumberDefinition>, Integer> entryIndices,
+      List<NumberEntry> entries, @Nullable NumberDefinition number,
+      @Nullable NumberDefinition ordinal, @Nullable NumberDefinition denominator) {
+    List<NumberDefinition> key = Arrays.asList(number, ordinal, denominator);
+    Integer index = entryIndices.get(key);
+    if (index == null) {
+      index = entries.size();
+      entryIndices.put(key, index);
+      entries.add(new NumberEntry(number, ordinal, denominator));
+    }
+    return index;
+  }
+
+  @Nullable
+  private static NumberDefinition tableDefinition(NumberDefinition[] definitions, int index) {
+    return index == -1 ? null : definitions[index];
+  }
+
+  /**
+   * Loads the numbers and their variants from SPECIALIST LEXICON NRNUM and NRVAR file. Malformed
+   * lines are skipped, use {@link NumberModelLoader} to find out how many lines were skipped.
    *
    * @param nrnumPath path to the specialist lexicon NRNUM file.
    * @param nrvarPath path to the specialist lexicon NRVAR file.
@@ -115,70 +152,164 @@ public class NumberModel {
    * @throws IOException if there are any issues loading the files.
    */
   public static NumberModel createNumberModel(Path nrnumPath, Path nrvarPath) throws IOException {
-    Map<String, NumberDefinition> numbers = new HashMap<>();
-
-    Files.lines(nrnumPath).forEach(line -> {
-      String[] split = line.split("\\|");
-      String word = split[1];
-      BasicNumberType basicNumberType = typeFromString(split[2]);
-
-      int value;
-      if (basicNumberType == BasicNumberType.MAGNITUDE) {
-        value = Integer.valueOf(split[5]);
-      } else {
-        value = Integer.valueOf(split[3]);
+    return NumberModelLoader.load(nrnumPath, nrvarPath).getNumberModel();
+  }
+
+  /**
+   * Writes this number model to a versioned, checksummed binary snapshot which can be loaded using
+   * {@link #readSnapshot(Path)} without parsing the NRNUM and NRVAR files.
+   *
+   * @param path the path to write the snapshot to, it will be replaced if it exists
+   * @throws IOException if there is an error writing the snapshot
+   * @since 2.1.0
+   */
+  public void writeSnapshot(Path path) throws IOException {
+    Snapshots.write(path, SNAPSHOT_MAGIC, SNAPSHOT_VERSION, this::write);
+  }
+
+  /**
+   * Loads a number model from a snapshot written by {@link #writeSnapshot(Path)}.
+   *
+   * @param path the path to the snapshot
+   * @return newly created number model instance
+   * @throws IOException if the snapshot can't be read, is corrupt, or was written by an
+   * incompatible version
+   * @since 2.1.0
+   */
+  public static NumberModel readSnapshot(Path path) throws IOException {
+    return read(Snapshots.read(path, SNAPSHOT_MAGIC, SNAPSHOT_VERSION));
+  }
+
+  /**
+   * Writes the number model's data, the same data as a snapshot without the header and checksum,
+   * so that it can be embedded in other files.
+   *
+   * @param out the output to write to
+   * @throws IOException if there is an error writing
+   * @since 2.1.0
+   */
+  public void write(DataOutput out) throws IOException {
+    Map<NumberDefinition, Integer> definitionIndices = new IdentityHashMap<>();
+    List<NumberDefinition> definitions = new ArrayList<>();
+    for (NumberEntry entry : entries) {
+      for (NumberDefinition definition : Arrays.asList(entry.getNumber(), entry.getOrdinal(),
+          entry.getDenominator())) {
+        if (definition != null && !definitionIndices.containsKey(definition)) {
+          definitionIndices.put(definition, definitions.size());
+          definitions.add(definition);
+        }
       }
+    }
+
+    out.writeInt(definitions.size());
+    for (NumberDefinition definition : definitions) {
+      out.writeInt(definition.getValue());
+      out.writeByte(definition.getBasicNumberType().ordinal());
+    }
+
+    out.writeInt(entries.length);
+    for (NumberEntry entry : entries) {
+      out.writeInt(definitionIndex(definitionIndices, entry.getNumber()));
+      out.writeInt(definitionIndex(definitionIndices, entry.getOrdinal()));
+      out.writeInt(definitionIndex(definitionIndices, entry.getDenominator()));
+    }
 
-      NumberDefinition numberDefinition = new NumberDefinition(value, basicNumberType);
-      numbers.put(word, numberDefinition);
-    });
-
-    Map<String, NumberDefinition> ordinals = new HashMap<>();
-    Map<String, NumberDefinition> denominators = new HashMap<>();
-
-    Files.lines(nrvarPath).forEach(line -> {
-      String[] split = line.split("\\|");
-      String word = split[0];
-      String types = split[2];
-      String norm = split[3];
-      NumberDefinition numberDefinition = numbers.get(norm);
-      if (types.contains("ordinal")) {
-        ordinals.put(word, numberDefinition);
+    lexicon.write(out);
+  }
+
+  private static int definitionIndex(Map<NumberDefinition, Integer> definitionIndices,
+      @Nullable NumberDefinition definition) {
+    return definition == null ? -1 : definitionIndices.get(definition);
+  }
+
+  static NumberModel read(ByteBuffer buffer) throws IOException {
+    return read(buffer, false);
+  }
+
+  /**
+   * Maps number model data written by {@link #write(DataOutput)}. Only the distinct number
+   * definitions are copied onto the heap, the words are looked up directly in the buffer, so the
+   * buffer's contents must not be modified afterwards. This allows processes that map the same
+   * file to share its pages.
+   *
+   * @param buffer the buffer to map from, it is advanced past the number model
+   * @return the number model
+   * @throws IOException if the buffer does not contain a valid number model
+   * @since 2.1.0
+   */
+  public static NumberModel map(ByteBuffer buffer) throws IOException {
+    return read(buffer, true);
+  }
+
+  private static NumberModel read(ByteBuffer buffer, boolean mapped) throws IOException {
+    try {
+      BasicNumberType[] types = BasicNumberType.values();
+      NumberDefinition[] definitions = new NumberDefinition[Snapshots.readCount(buffer, 5)];
+      for (int i = 0; i < definitions.length; i++) {
+        int value = buffer.getInt();
+        int type = buffer.get();
+        if (type < 0 || type >= types.length) {
+          throw new IOException("Invalid number type in snapshot: " + type);
+        }
+        definitions[i] = new NumberDefinition(value, types[type]);
       }
-      if (types.contains("denominator")) {
-        denominators.put(word, numberDefinition);
+
+      NumberEntry[] entries = new NumberEntry[Snapshots.readCount(buffer, 12)];
+      for (int i = 0; i < entries.length; i++) {
+        entries[i] = new NumberEntry(definition(definitions, buffer.getInt()),
+            definition(definitions, buffer.getInt()), definition(definitions, buffer.getInt()));
       }
-    });
 
-    return new NumberModel(numbers, ordinals, denominators);
+      Lexicon lexicon = mapped ? Lexicon.map(buffer, entries.length)
+          : Lexicon.read(buffer, entries.length);
+      return new NumberModel(lexicon, entries);
+    } catch (BufferUnderflowException e) {
+      throw new IOException("Number model snapshot is truncated", e);
+    }
   }
 
   @Nullable
-  NumberDefinition getNumberDefinition(String word) {
-    return numbers.get(word.toLowerCase());
+  private static NumberDefinition definition(NumberDefinition[] definitions, int index)
+      throws IOException {
+    if (index == -1) {
+      return null;
+    }
+    if (index < 0 || index >= definitions.length) {
+      throw new IOException("Invalid number definition index in snapshot: " + index);
+    }
+    return definitions[index];
   }
 
+  /**
+   * Finds all of the number definitions for a word with a single probe of the lexicon. The word is
+   * lowercased character by character during the probe, nothing is allocated.
+   *
+   * @param word the word to look up
+   * @return the entry containing the number, ordinal and denominator definitions of the word, or
+   * null if the word is not a number word
+   */
   @Nullable
-  NumberDefinition getOrdinal(String word) {
-    return ordinals.get(word.toLowerCase());
+  NumberEntry lookup(CharSequence word) {
+    int index = lexicon.lookup(word);
+    return index == -1 ? null : entries[index];
   }
 
-  @Nullable
-  NumberDefinition getDenominator(String word) {
-    return denominators.get(word.toLowerCase());
-  }
-
-  private static BasicNumberType typeFromString(String st) {
-    switch (st) {
-      case "unit":
-        return BasicNumberType.UNIT;
-      case "teen":
-        return BasicNumberType.TEEN;
-      case "decade":
-        return BasicNumberType.DECADE;
-      case "magnitude":
-        return BasicNumberType.MAGNITUDE;
-    }
-    throw new IllegalStateException("Unrecognized number type: " + st);
+  /**
+   * The lexicon of number words.
+   *
+   * @return the lexicon
+   */
+  Lexicon getLexicon() {
+    return lexicon;
+  }
+
+  /**
+   * Whether any number word starts with the character, ignoring case.
+   *
+   * @param ch the first character of a token
+   * @return false if no word in the model starts with the character
+   */
+  boolean hasWordStartingWith(char ch) {
+    return lexicon.hasWordStartingWith(ch);
   }
 }
@@ -0,0 +1,416 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.numbers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.annotation.Nullable;
+
+/**
+ * Loads a {@link NumberModel} from SPECIALIST LEXICON NRNUM and NRVAR files of any size.
+ *
+ * <p>The files are streamed through a single reusable buffer and the pipe-delimited fields are
+ * located by byte offset, only the words are decoded into strings. NRVAR is read on another
+ * thread while NRNUM is read, the variants are resolved to their number definitions once both are
+ * done. Lines which don't have the required fields, or have an unrecognized number type or an
+ * invalid value, are skipped and counted in the {@link Report}.</p>
+ *
+ * <br>Usage:
+ * <pre>
+ *   {@code
+Report report = NumberModelLoader.load(nrnumPath, nrvarPath);
+if (report.getNrnumSkipped() > 0 || report.getNrvarSkipped() > 0) {
+  // warn about the malformed lines
+}
+NumberModel numberModel = report.getNumberModel();
+ *   }
+ * </pre>
+ *
+ * @since 2.1.0
+ */
+public final class NumberModelLoader {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * The number of leading fields whose offsets are kept, NRNUM magnitudes use the sixth field.
+   */
+  private static final int MAX_FIELDS = 6;
+
+  private NumberModelLoader() {
+    throw new UnsupportedOperationException("Instantiation of utility class");
+  }
+
+  /**
+   * Loads the numbers and their variants from SPECIALIST LEXICON NRNUM and NRVAR files.
+   *
+   * @param nrnumPath path to the specialist lexicon NRNUM file.
+   * @param nrvarPath path to the specialist lexicon NRVAR file.
+   * @return the report containing the number model and the counts of lines loaded and skipped
+   * @throws IOException if there are any issues reading the files.
+   */
+  public static Report load(Path nrnumPath, Path nrvarPath) throws IOException {
+    CompletableFuture<VariantLines> futureVariants = CompletableFuture.supplyAsync(() -> {
+      try {
+        VariantLines variantLines = new VariantLines();
+        readLines(nrvarPath, variantLines);
+        return variantLines;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+
+    NumberLines numberLines = new NumberLines();
+    readLines(nrnumPath, numberLines);
+
+    VariantLines variantLines;
+    try {
+      variantLines = futureVariants.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException) {
+        throw ((UncheckedIOException) e.getCause()).getCause();
+      }
+      throw e;
+    }
+
+    Map<String, NumberDefinition> ordinals = new HashMap<>();
+    Map<String, NumberDefinition> denominators = new HashMap<>();
+    for (int i = 0; i < variantLines.words.size(); i++) {
+      String word = variantLines.words.get(i);
+      NumberDefinition numberDefinition = numberLines.numbers.get(variantLines.norms.get(i));
+      if (variantLines.ordinals.get(i)) {
+        ordinals.put(word, numberDefinition);
+      }
+      if (variantLines.denominators.get(i)) {
+        denominators.put(word, numberDefinition);
+      }
+    }
+
+    return new Report(new NumberModel(numberLines.numbers, ordinals, denominators),
+        numberLines.loaded, numberLines.skipped, variantLines.loaded, variantLines.skipped);
+  }
+
+  /**
+   * Reads the lines of a file, which can be terminated by "\n", "\r", or "\r\n", passing each of
+   * them to the handler as a region of a byte array that is reused for the following lines.
+   */
+  private static void readLines(Path path, LineHandler handler) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+      boolean skipLineFeed = false;
+      int scanned = 0;
+      while (true) {
+        int read = channel.read(buffer);
+        byte[] bytes = buffer.array();
+        int limit = buffer.position();
+        int lineBegin = 0;
+        for (int i = scanned; i < limit; i++) {
+          byte b = bytes[i];
+          if (skipLineFeed) {
+            skipLineFeed = false;
+            if (b == '\n') {
+              lineBegin = i + 1;
+              continue;
+            }
+          }
+          if (b == '\n' || b == '\r') {
+            handler.line(bytes, lineBegin, i);
+            lineBegin = i + 1;
+            skipLineFeed = b == '\r';
+          }
+        }
+
+        if (read == -1) {
+          if (lineBegin < limit) {
+            handler.line(bytes, lineBegin, limit);
+          }
+          return;
+        }
+
+        // carry the partial line over to the next read, growing the buffer for very long lines
+        int carried = limit - lineBegin;
+        if (carried == buffer.capacity()) {
+          ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+          larger.put(bytes, 0, carried);
+          buffer = larger;
+        } else {
+          System.arraycopy(bytes, lineBegin, bytes, 0, carried);
+          buffer.position(carried);
+        }
+        scanned = carried;
+      }
+    }
+  }
+
+  private interface LineHandler {
+
+    void line(byte[] bytes, int begin, int end);
+  }
+
+  /**
+   * The offsets of the pipe-delimited fields of a line.
+   */
+  private static class Fields {
+
+    private final int[] begins = new int[MAX_FIELDS];
+
+    private final int[] ends = new int[MAX_FIELDS];
+
+    /**
+     * The number of fields, not counting trailing empty fields.
+     */
+    int count;
+
+    void split(byte[] bytes, int begin, int end) {
+      count = 0;
+      int field = 0;
+      int fieldBegin = begin;
+      for (int i = begin; i <= end; i++) {
+        if (i == end || bytes[i] == '|') {
+          if (field < MAX_FIELDS) {
+            begins[field] = fieldBegin;
+            ends[field] = i;
+          }
+          if (i > fieldBegin) {
+            count = field + 1;
+          }
+          field++;
+          fieldBegin = i + 1;
+        }
+      }
+    }
+
+    String string(byte[] bytes, int field) {
+      return new String(bytes, begins[field], ends[field] - begins[field], StandardCharsets.UTF_8);
+    }
+
+    boolean is(byte[] bytes, int field, String ascii) {
+      int begin = begins[field];
+      if (ends[field] - begin != ascii.length()) {
+        return false;
+      }
+      for (int i = 0; i < ascii.length(); i++) {
+        if (bytes[begin + i] != ascii.charAt(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    boolean contains(byte[] bytes, int field, String ascii) {
+      int last = ends[field] - ascii.length();
+      outer:
+      for (int begin = begins[field]; begin <= last; begin++) {
+        for (int i = 0; i < ascii.length(); i++) {
+          if (bytes[begin + i] != ascii.charAt(i)) {
+            continue outer;
+          }
+        }
+        return true;
+      }
+      return false;
+    }
+
+    /**
+     * Parses the field as an optionally signed decimal integer.
+     *
+     * @return the value, or {@link Long#MIN_VALUE} if it is not a valid int
+     */
+    long parseInt(byte[] bytes, int field) {
+      int i = begins[field];
+      int end = ends[field];
+      boolean negative = i < end && bytes[i] == '-';
+      if (i < end && (bytes[i] == '-' || bytes[i] == '+')) {
+        i++;
+      }
+      if (i == end) {
+        return Long.MIN_VALUE;
+      }
+      long value = 0;
+      for (; i < end; i++) {
+        int digit = bytes[i] - '0';
+        if (digit < 0 || digit > 9) {
+          return Long.MIN_VALUE;
+        }
+        value = value * 10 + digit;
+        if (value > (long) Integer.MAX_VALUE + 1) {
+          return Long.MIN_VALUE;
+        }
+      }
+      value = negative ? -value : value;
+      return value > Integer.MAX_VALUE ? Long.MIN_VALUE : value;
+    }
+  }
+
+  /**
+   * Reads NRNUM lines, which have the word in the second field, the type in the third field, and
+   * the value in the fourth field or for magnitudes the exponent in the sixth field.
+   */
+  private static class NumberLines extends Fields implements LineHandler {
+
+    private final Map<String, NumberDefinition> numbers = new HashMap<>();
+
+    private int loaded = 0;
+
+    private int skipped = 0;
+
+    @Override
+    public void line(byte[] bytes, int begin, int end) {
+      split(bytes, begin, end);
+      BasicNumberType basicNumberType = count < 4 ? null : type(bytes);
+      int valueField = basicNumberType == BasicNumberType.MAGNITUDE ? 5 : 3;
+      long value = basicNumberType == null || count <= valueField ? Long.MIN_VALUE
+          : parseInt(bytes, valueField);
+      if (value == Long.MIN_VALUE) {
+        skipped++;
+        return;
+      }
+      numbers.put(string(bytes, 1), new NumberDefinition((int) value, basicNumberType));
+      loaded++;
+    }
+
+    @Nullable
+    private BasicNumberType type(byte[] bytes) {
+      if (is(bytes, 2, "unit")) {
+        return BasicNumberType.UNIT;
+      } else if (is(bytes, 2, "teen")) {
+        return BasicNumberType.TEEN;
+      } else if (is(bytes, 2, "decade")) {
+        return BasicNumberType.DECADE;
+      } else if (is(bytes, 2, "magnitude")) {
+        return BasicNumberType.MAGNITUDE;
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Reads NRVAR lines, which have the variant in the first field, the variant types in the third
+   * field, and the normalized number word in the fourth field.
+   */
+  private static class VariantLines extends Fields implements LineHandler {
+
+    private final List<String> words = new ArrayList<>();
+
+    private final List<String> norms = new ArrayList<>();
+
+    private final BitSet ordinals = new BitSet();
+
+    private final BitSet denominators = new BitSet();
+
+    private int loaded = 0;
+
+    private int skipped = 0;
+
+    @Override
+    public void line(byte[] bytes, int begin, int end) {
+      split(bytes, begin, end);
+      if (count < 4) {
+        skipped++;
+        return;
+      }
+      int index = words.size();
+      words.add(string(bytes, 0));
+      norms.add(string(bytes, 3));
+      ordinals.set(index, contains(bytes, 2, "ordinal"));
+      denominators.set(index, contains(bytes, 2, "denominator"));
+      loaded++;
+    }
+  }
+
+  /**
+   * The result of loading a number model.
+   */
+  public static final class Report {
+
+    private final NumberModel numberModel;
+
+    private final int nrnumLoaded;
+
+    private final int nrnumSkipped;
+
+    private final int nrvarLoaded;
+
+    private final int nrvarSkipped;
+
+    Report(NumberModel numberModel, int nrnumLoaded, int nrnumSkipped, int nrvarLoaded,
+        int nrvarSkipped) {
+      this.numberModel = numberModel;
+      this.nrnumLoaded = nrnumLoaded;
+      this.nrnumSkipped = nrnumSkipped;
+      this.nrvarLoaded = nrvarLoaded;
+      this.nrvarSkipped = nrvarSkipped;
+    }
+
+    /**
+     * The loaded number model.
+     *
+     * @return number model
+     */
+    public NumberModel getNumberModel() {
+      return numberModel;
+    }
+
+    /**
+     * The number of NRNUM lines that were loaded.
+     *
+     * @return count of lines
+     */
+    public int getNrnumLoaded() {
+      return nrnumLoaded;
+    }
+
+    /**
+     * The number of NRNUM lines that were skipped because they were malformed.
+     *
+     * @return count of lines
+     */
+    public int getNrnumSkipped() {
+      return nrnumSkipped;
+    }
+
+    /**
+     * The number of NRVAR lines that were loaded.
+     *
+     * @return count of lines
+     */
+    public int getNrvarLoaded() {
+      return nrvarLoaded;
+    }
+
+    /**
+     * The number of NRVAR lines that were skipped because they were malformed.
+     *
+     * @return count of lines
+     */
+    public int getNrvarSkipped() {
+      return nrvarSkipped;
+    }
+  }
+}
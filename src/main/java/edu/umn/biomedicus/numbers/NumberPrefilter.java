@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.numbers;
+
+import edu.umn.biomedicus.internal.Lexicon;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.Nullable;
+
+/**
+ * Scans a whole document once for the regions where a number or unit of measure could be, so
+ * the detectors can skip the tokens in between. A character is a candidate if it is a digit, if
+ * it is in a run of letters that occurs in a number word or unit of measure, or if it occurs in a
+ * unit of measure that has no letters or digits, like "°".
+ *
+ * <p>Detection is unchanged by skipping as long as the tokens do not begin or end in the middle
+ * of a run of letters: every token that is a number word or unit of measure, or that contains a
+ * digit, then contains a candidate character. See {@link
+ * AbstractNumberDetector#checkTokens(Iterable, CandidateWindows, NumberSink)}.</p>
+ *
+ * <p>This class is immutable so it is thread-safe.</p>
+ *
+ * @since 2.1.0
+ */
+public final class NumberPrefilter {
+
+  /**
+   * Every run of letters in the number words and units of measure.
+   */
+  private final Lexicon letterRuns;
+
+  /**
+   * The characters of the words that have no letters or digits.
+   */
+  private final BitSet symbols = new BitSet();
+
+  /**
+   * Creates a prefilter which finds number words and decimal numbers.
+   *
+   * @param numberModel the number model
+   */
+  public NumberPrefilter(NumberModel numberModel) {
+    this(numberModel, null);
+  }
+
+  /**
+   * Creates a prefilter which also finds units of measure. Use {@code
+   * UnitRecognizer.Factory.createPrefilter} to create a prefilter for a factory's units of
+   * measure.
+   *
+   * @param numberModel the number model
+   * @param units the units of measure to also find, or null to only find numbers
+   */
+  NumberPrefilter(NumberModel numberModel, @Nullable Lexicon units) {
+    Map<String, Integer> runs = new HashMap<>();
+    addWords(numberModel.getLexicon(), runs);
+    if (units != null) {
+      addWords(units, runs);
+    }
+    letterRuns = Lexicon.create(runs);
+  }
+
+  private void addWords(Lexicon lexicon, Map<String, Integer> runs) {
+    for (int i = 0; i < lexicon.size(); i++) {
+      String word = lexicon.getWord(i);
+      boolean lettersOrDigits = false;
+      int index = 0;
+      while (index < word.length()) {
+        char ch = word.charAt(index);
+        if (isLetter(ch)) {
+          int begin = index;
+          do {
+            index++;
+          } while (index < word.length() && isLetter(word.charAt(index)));
+          runs.put(word.substring(begin, index), 0);
+          lettersOrDigits = true;
+        } else {
+          lettersOrDigits |= Character.isDigit(ch);
+          index++;
+        }
+      }
+      if (!lettersOrDigits) {
+        for (int j = 0; j < word.length(); j++) {
+          symbols.set(word.charAt(j));
+        }
+      }
+    }
+  }
+
+  /**
+   * Finds the candidate windows in a document.
+   *
+   * @param document the document text
+   * @return the windows, in order
+   */
+  public CandidateWindows scan(CharSequence document) {
+    CandidateWindows windows = new CandidateWindows(document.length());
+    int length = document.length();
+    int index = 0;
+    while (index < length) {
+      char ch = document.charAt(index);
+      if (isLetter(ch)) {
+        int begin = index;
+        do {
+          index++;
+        } while (index < length && isLetter(document.charAt(index)));
+        if (letterRuns.lookup(document, begin, index) != -1) {
+          windows.add(begin, index);
+        }
+      } else {
+        if ((ch >= '0' && ch <= '9') || (ch >= 0x80 && Character.isDigit(ch))
+            || symbols.get(ch)) {
+          windows.add(index, index + 1);
+        }
+        index++;
+      }
+    }
+    return windows;
+  }
+
+  private static boolean isLetter(char ch) {
+    if (ch < 0x80) {
+      return (ch | 0x20) >= 'a' && (ch | 0x20) <= 'z';
+    }
+    return Character.isLetter(ch);
+  }
+}
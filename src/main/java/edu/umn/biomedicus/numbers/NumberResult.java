@@ -17,20 +17,46 @@
 package edu.umn.biomedicus.numbers;
 
 import java.math.BigDecimal;
+import javax.annotation.Nullable;
 
 /**
  * A result of number detection.
  *
+ * <p>Results created by the detectors in this package store their values as primitive unscaled
+ * longs and scales whenever possible, the {@link BigDecimal} forms of the numerator and
+ * denominator are only created when they are requested. Instances are effectively immutable and
+ * safe to share between threads.</p>
+ *
  * @since 2.0.0
  */
 public class NumberResult {
+
+  private static final long[] POWERS_OF_TEN = {
+      1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+      1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L,
+      10_000_000_000_000L, 100_000_000_000_000L, 1_000_000_000_000_000L,
+      10_000_000_000_000_000L, 100_000_000_000_000_000L, 1_000_000_000_000_000_000L
+  };
+
   private final int begin;
 
   private final int end;
 
-  private final BigDecimal numerator;
+  private final boolean primitive;
+
+  private final long numeratorUnscaled;
+
+  private final int numeratorScale;
+
+  private final long denominatorUnscaled;
+
+  private final int denominatorScale;
 
-  private final BigDecimal denominator;
+  @Nullable
+  private BigDecimal numerator;
+
+  @Nullable
+  private BigDecimal denominator;
 
   private final NumberType numberType;
 
@@ -43,11 +69,49 @@ public class NumberResult {
   ) {
     this.begin = begin;
     this.end = end;
+    this.primitive = false;
+    this.numeratorUnscaled = 0;
+    this.numeratorScale = 0;
+    this.denominatorUnscaled = 0;
+    this.denominatorScale = 0;
     this.numerator = numerator;
     this.denominator = denominator;
     this.numberType = numberType;
   }
 
+  /**
+   * Creates a number result from primitive values, the value of the numerator is {@code
+   * numeratorUnscaled * 10^-numeratorScale} and the denominator is {@code denominatorUnscaled *
+   * 10^-denominatorScale}, the same as {@link BigDecimal#valueOf(long, int)}.
+   *
+   * @param begin the begin offset of the number
+   * @param end the end offset of the number
+   * @param numeratorUnscaled the unscaled value of the numerator
+   * @param numeratorScale the scale of the numerator
+   * @param denominatorUnscaled the unscaled value of the denominator
+   * @param denominatorScale the scale of the denominator
+   * @param numberType the type of the number
+   * @since 2.1.0
+   */
+  public NumberResult(
+      int begin,
+      int end,
+      long numeratorUnscaled,
+      int numeratorScale,
+      long denominatorUnscaled,
+      int denominatorScale,
+      NumberType numberType
+  ) {
+    this.begin = begin;
+    this.end = end;
+    this.primitive = true;
+    this.numeratorUnscaled = numeratorUnscaled;
+    this.numeratorScale = numeratorScale;
+    this.denominatorUnscaled = denominatorUnscaled;
+    this.denominatorScale = denominatorScale;
+    this.numberType = numberType;
+  }
+
   /**
    * The begin of the detected token.
    *
@@ -72,6 +136,11 @@ public class NumberResult {
    * @return a BigDecimal containing the numerator value
    */
   public BigDecimal getNumerator() {
+    BigDecimal numerator = this.numerator;
+    if (numerator == null && primitive) {
+      numerator = BigDecimal.valueOf(numeratorUnscaled, numeratorScale);
+      this.numerator = numerator;
+    }
     return numerator;
   }
 
@@ -81,9 +150,71 @@ public class NumberResult {
    * @return a BigDecimal containing the denominator value
    */
   public BigDecimal getDenominator() {
+    BigDecimal denominator = this.denominator;
+    if (denominator == null && primitive) {
+      denominator = BigDecimal.valueOf(denominatorUnscaled, denominatorScale);
+      this.denominator = denominator;
+    }
     return denominator;
   }
 
+  /**
+   * Whether the numerator and denominator of this number fit in the primitive accessors {@link
+   * #getNumeratorUnscaled()}, {@link #getNumeratorScale()}, {@link #getDenominatorUnscaled()},
+   * and {@link #getDenominatorScale()}.
+   *
+   * @return true if the values are available as primitives, false if the {@link BigDecimal}
+   * accessors need to be used
+   * @since 2.1.0
+   */
+  public boolean isCompact() {
+    return primitive || (numerator != null && denominator != null
+        && numerator.precision() < POWERS_OF_TEN.length
+        && denominator.precision() < POWERS_OF_TEN.length);
+  }
+
+  /**
+   * The unscaled value of the numerator.
+   *
+   * @return the numerator value without the decimal point
+   * @throws ArithmeticException if the numerator does not fit in a long
+   * @since 2.1.0
+   */
+  public long getNumeratorUnscaled() {
+    return primitive ? numeratorUnscaled : getNumerator().unscaledValue().longValueExact();
+  }
+
+  /**
+   * The scale of the numerator, the number of digits to the right of the decimal point.
+   *
+   * @return the scale of the numerator
+   * @since 2.1.0
+   */
+  public int getNumeratorScale() {
+    return primitive ? numeratorScale : getNumerator().scale();
+  }
+
+  /**
+   * The unscaled value of the denominator.
+   *
+   * @return the denominator value without the decimal point
+   * @throws ArithmeticException if the denominator does not fit in a long
+   * @since 2.1.0
+   */
+  public long getDenominatorUnscaled() {
+    return primitive ? denominatorUnscaled : getDenominator().unscaledValue().longValueExact();
+  }
+
+  /**
+   * The scale of the denominator, the number of digits to the right of the decimal point.
+   *
+   * @return the scale of the denominator
+   * @since 2.1.0
+   */
+  public int getDenominatorScale() {
+    return primitive ? denominatorScale : getDenominator().scale();
+  }
+
   /**
    * The type of the number
    *
@@ -92,4 +223,25 @@ public class NumberResult {
   public NumberType getNumberType() {
     return numberType;
   }
+
+  /**
+   * Equivalent to {@code getNumerator().intValue()} without creating the BigDecimal when possible.
+   */
+  int numeratorIntValue() {
+    if (primitive) {
+      return intValue(numeratorUnscaled, numeratorScale);
+    }
+    return getNumerator().intValue();
+  }
+
+  /**
+   * Equivalent to {@code BigDecimal.valueOf(unscaled, scale).intValue()} without creating the
+   * BigDecimal when possible.
+   */
+  static int intValue(long unscaled, int scale) {
+    if (scale >= 0 && scale < POWERS_OF_TEN.length) {
+      return (int) (unscaled / POWERS_OF_TEN[scale]);
+    }
+    return BigDecimal.valueOf(unscaled, scale).intValue();
+  }
 }
@@ -0,0 +1,370 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.numbers;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import javax.annotation.Nullable;
+
+/**
+ * A growable buffer of numbers stored as parallel arrays rather than {@link NumberResult} objects,
+ * filled by {@link AbstractNumberDetector#detect(CharSequence, int[], int[], int,
+ * NumberResultBuffer)} or by passing the buffer to any method that takes a {@link NumberSink}.
+ *
+ * <p>Each number has a begin offset, an end offset, a type, and an unscaled value and scale for
+ * its numerator and denominator, like {@link NumberSink#number(int, int, NumberType, long, int,
+ * long, int)}. The few numbers which do not fit in that form are kept as {@link BigDecimal}s, see
+ * {@link #isCompact(int)}. The arrays returned by the getters like {@link #getBegins()} are the
+ * buffer's own arrays, they may be longer than {@link #size()} and are replaced when the buffer
+ * grows.</p>
+ *
+ * <br>Usage:
+ * <pre>
+ *   {@code
+NumberResultBuffer numbers = new NumberResultBuffer();
+detector.detect(document, begins, ends, tokenCount, numbers);
+for (int i = 0; i < numbers.size(); i++) {
+  int begin = numbers.getBegin(i);
+  int end = numbers.getEnd(i);
+  BigDecimal value = numbers.getNumerator(i);
+}
+numbers.clear();
+ *   }
+ * </pre>
+ *
+ * <p>It is not safe to use an instance of this class from multiple threads at once, use multiple
+ * instances for concurrency.</p>
+ *
+ * @since 2.1.0
+ */
+public final class NumberResultBuffer implements NumberSink {
+
+  private static final NumberType[] NUMBER_TYPES = NumberType.values();
+
+  private int size = 0;
+
+  private int[] begins;
+
+  private int[] ends;
+
+  private byte[] types;
+
+  private long[] numeratorsUnscaled;
+
+  private int[] numeratorScales;
+
+  private long[] denominatorsUnscaled;
+
+  private int[] denominatorScales;
+
+  /**
+   * The numerators of the numbers that are not compact, null until there is one.
+   */
+  @Nullable
+  private BigDecimal[] bigNumerators;
+
+  /**
+   * The denominators of the numbers that are not compact, null until there is one.
+   */
+  @Nullable
+  private BigDecimal[] bigDenominators;
+
+  /**
+   * Creates an empty buffer.
+   */
+  public NumberResultBuffer() {
+    this(16);
+  }
+
+  /**
+   * Creates an empty buffer with room for a number of results before it has to grow.
+   *
+   * @param capacity the initial capacity
+   */
+  public NumberResultBuffer(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+    }
+    begins = new int[capacity];
+    ends = new int[capacity];
+    types = new byte[capacity];
+    numeratorsUnscaled = new long[capacity];
+    numeratorScales = new int[capacity];
+    denominatorsUnscaled = new long[capacity];
+    denominatorScales = new int[capacity];
+  }
+
+  @Override
+  public void number(int begin, int end, NumberType numberType, long numeratorUnscaled,
+      int numeratorScale, long denominatorUnscaled, int denominatorScale) {
+    int index = add(begin, end, numberType);
+    numeratorsUnscaled[index] = numeratorUnscaled;
+    numeratorScales[index] = numeratorScale;
+    denominatorsUnscaled[index] = denominatorUnscaled;
+    denominatorScales[index] = denominatorScale;
+  }
+
+  @Override
+  public void bigNumber(int begin, int end, NumberType numberType, BigDecimal numerator,
+      @Nullable BigDecimal denominator) {
+    int index = add(begin, end, numberType);
+    numeratorsUnscaled[index] = 0;
+    numeratorScales[index] = 0;
+    denominatorsUnscaled[index] = 0;
+    denominatorScales[index] = 0;
+    if (bigNumerators == null || bigDenominators == null) {
+      bigNumerators = new BigDecimal[begins.length];
+      bigDenominators = new BigDecimal[begins.length];
+    }
+    bigNumerators[index] = numerator;
+    bigDenominators[index] = denominator;
+  }
+
+  private int add(int begin, int end, NumberType numberType) {
+    if (size == begins.length) {
+      int capacity = size * 2;
+      begins = Arrays.copyOf(begins, capacity);
+      ends = Arrays.copyOf(ends, capacity);
+      types = Arrays.copyOf(types, capacity);
+      numeratorsUnscaled = Arrays.copyOf(numeratorsUnscaled, capacity);
+      numeratorScales = Arrays.copyOf(numeratorScales, capacity);
+      denominatorsUnscaled = Arrays.copyOf(denominatorsUnscaled, capacity);
+      denominatorScales = Arrays.copyOf(denominatorScales, capacity);
+      if (bigNumerators != null && bigDenominators != null) {
+        bigNumerators = Arrays.copyOf(bigNumerators, capacity);
+        bigDenominators = Arrays.copyOf(bigDenominators, capacity);
+      }
+    }
+    int index = size++;
+    begins[index] = begin;
+    ends[index] = end;
+    types[index] = (byte) numberType.ordinal();
+    if (bigNumerators != null && bigDenominators != null) {
+      bigNumerators[index] = null;
+      bigDenominators[index] = null;
+    }
+    return index;
+  }
+
+  /**
+   * Removes all of the numbers, keeping the arrays for reuse.
+   */
+  public void clear() {
+    if (bigNumerators != null && bigDenominators != null) {
+      Arrays.fill(bigNumerators, 0, size, null);
+      Arrays.fill(bigDenominators, 0, size, null);
+    }
+    size = 0;
+  }
+
+  /**
+   * The number of numbers in the buffer.
+   *
+   * @return count of numbers
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * The begin offset of a number.
+   *
+   * @param index the index of the number
+   * @return begin offset
+   */
+  public int getBegin(int index) {
+    checkIndex(index);
+    return begins[index];
+  }
+
+  /**
+   * The end offset of a number.
+   *
+   * @param index the index of the number
+   * @return end offset
+   */
+  public int getEnd(int index) {
+    checkIndex(index);
+    return ends[index];
+  }
+
+  /**
+   * The type of a number.
+   *
+   * @param index the index of the number
+   * @return number type
+   */
+  public NumberType getNumberType(int index) {
+    checkIndex(index);
+    return NUMBER_TYPES[types[index]];
+  }
+
+  /**
+   * Whether the number's numerator and denominator are stored in the unscaled and scale arrays,
+   * see {@link NumberResult#isCompact()}. If it is not then the unscaled values and scales are 0
+   * and the value is only available from {@link #getNumerator(int)} and {@link
+   * #getDenominator(int)}.
+   *
+   * @param index the index of the number
+   * @return true if the number is compact
+   */
+  public boolean isCompact(int index) {
+    checkIndex(index);
+    return bigNumerators == null || bigNumerators[index] == null;
+  }
+
+  /**
+   * The unscaled value of a compact number's numerator.
+   *
+   * @param index the index of the number
+   * @return unscaled numerator
+   */
+  public long getNumeratorUnscaled(int index) {
+    checkIndex(index);
+    return numeratorsUnscaled[index];
+  }
+
+  /**
+   * The scale of a compact number's numerator.
+   *
+   * @param index the index of the number
+   * @return numerator scale
+   */
+  public int getNumeratorScale(int index) {
+    checkIndex(index);
+    return numeratorScales[index];
+  }
+
+  /**
+   * The unscaled value of a compact number's denominator.
+   *
+   * @param index the index of the number
+   * @return unscaled denominator
+   */
+  public long getDenominatorUnscaled(int index) {
+    checkIndex(index);
+    return denominatorsUnscaled[index];
+  }
+
+  /**
+   * The scale of a compact number's denominator.
+   *
+   * @param index the index of the number
+   * @return denominator scale
+   */
+  public int getDenominatorScale(int index) {
+    checkIndex(index);
+    return denominatorScales[index];
+  }
+
+  /**
+   * The numerator of a number.
+   *
+   * @param index the index of the number
+   * @return numerator
+   */
+  public BigDecimal getNumerator(int index) {
+    if (isCompact(index)) {
+      return BigDecimal.valueOf(numeratorsUnscaled[index], numeratorScales[index]);
+    }
+    return bigNumerators[index];
+  }
+
+  /**
+   * The denominator of a number.
+   *
+   * @param index the index of the number
+   * @return denominator, or null if the number has none
+   */
+  @Nullable
+  public BigDecimal getDenominator(int index) {
+    if (isCompact(index)) {
+      return BigDecimal.valueOf(denominatorsUnscaled[index], denominatorScales[index]);
+    }
+    return bigDenominators[index];
+  }
+
+  /**
+   * The begin offsets of the numbers, the array of this buffer.
+   *
+   * @return array of begin offsets, valid up to {@link #size()}
+   */
+  public int[] getBegins() {
+    return begins;
+  }
+
+  /**
+   * The end offsets of the numbers, the array of this buffer.
+   *
+   * @return array of end offsets, valid up to {@link #size()}
+   */
+  public int[] getEnds() {
+    return ends;
+  }
+
+  /**
+   * The types of the numbers as the {@link NumberType#ordinal() ordinals} of the types, the array
+   * of this buffer.
+   *
+   * @return array of number type ordinals, valid up to {@link #size()}
+   */
+  public byte[] getTypes() {
+    return types;
+  }
+
+  /**
+   * The unscaled values of the numerators, the array of this buffer.
+   *
+   * @return array of unscaled numerators, valid up to {@link #size()}
+   */
+  public long[] getNumeratorsUnscaled() {
+    return numeratorsUnscaled;
+  }
+
+  /**
+   * The scales of the numerators, the array of this buffer.
+   *
+   * @return array of numerator scales, valid up to {@link #size()}
+   */
+  public int[] getNumeratorScales() {
+    return numeratorScales;
+  }
+
+  /**
+   * The unscaled values of the denominators, the array of this buffer.
+   *
+   * @return array of unscaled denominators, valid up to {@link #size()}
+   */
+  public long[] getDenominatorsUnscaled() {
+    return denominatorsUnscaled;
+  }
+
+  /**
+   * The scales of the denominators, the array of this buffer.
+   *
+   * @return array of denominator scales, valid up to {@link #size()}
+   */
+  public int[] getDenominatorScales() {
+    return denominatorScales;
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.numbers;
+
+import java.math.BigDecimal;
+import javax.annotation.Nullable;
+
+/**
+ * Receives the numbers found by a detector as they are found, without the detector creating any
+ * {@link NumberResult} objects or lists. Numbers whose values fit in longs are passed as
+ * primitives, the rest as {@link BigDecimal}s.
+ *
+ * <br>Usage:
+ * <pre>
+ *   {@code
+for (Token token : tokens) {
+  detector.tryToken(token.getText(), token.getBegin(), token.getEnd(), sink);
+}
+detector.finish(sink);
+ *   }
+ * </pre>
+ *
+ * @since 2.1.0
+ */
+public interface NumberSink {
+
+  /**
+   * Receives a number whose numerator is {@code numeratorUnscaled * 10^-numeratorScale} and whose
+   * denominator is {@code denominatorUnscaled * 10^-denominatorScale}, the same as {@link
+   * BigDecimal#valueOf(long, int)}.
+   *
+   * @param begin the begin offset of the number
+   * @param end the end offset of the number
+   * @param numberType the type of the number
+   * @param numeratorUnscaled the unscaled value of the numerator
+   * @param numeratorScale the scale of the numerator
+   * @param denominatorUnscaled the unscaled value of the denominator
+   * @param denominatorScale the scale of the denominator
+   */
+  void number(int begin, int end, NumberType numberType, long numeratorUnscaled,
+      int numeratorScale, long denominatorUnscaled, int denominatorScale);
+
+  /**
+   * Receives a number which does not fit in the primitive form, either because its numerator or
+   * denominator needs more than a long or because it has no denominator.
+   *
+   * @param begin the begin offset of the number
+   * @param end the end offset of the number
+   * @param numberType the type of the number
+   * @param numerator the numerator
+   * @param denominator the denominator, or null if the number has none
+   */
+  void bigNumber(int begin, int end, NumberType numberType, BigDecimal numerator,
+      @Nullable BigDecimal denominator);
+}
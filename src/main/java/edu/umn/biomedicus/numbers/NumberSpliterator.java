@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.numbers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+
+/**
+ * A spliterator over the numbers that a detector finds in a spliterator of tokens, see {@link
+ * AbstractNumberDetector#stream(Spliterator)}.
+ *
+ * <p>Splitting moves the cut in the tokens forward to just after a token that leaves the detector
+ * between numbers no matter what state it was in, see {@link
+ * AbstractNumberDetector#isBoundary(CharSequence)}. The prefix is given a new detector, so both
+ * halves find exactly the numbers that one detector would find over all the tokens.</p>
+ *
+ * @since 2.1.0
+ */
+final class NumberSpliterator implements Spliterator<NumberResult> {
+
+  private final Spliterator<Token> tokens;
+
+  private final AbstractNumberDetector detector;
+
+  private List<NumberResult> results = new ArrayList<>();
+
+  private int next = 0;
+
+  private boolean started = false;
+
+  private boolean finished = false;
+
+  NumberSpliterator(Spliterator<Token> tokens, AbstractNumberDetector detector) {
+    this.tokens = tokens;
+    this.detector = detector;
+  }
+
+  private void tryToken(Token token) {
+    results = detector.tryToken(token.getText(), token.getBegin(), token.getEnd());
+    next = 0;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super NumberResult> action) {
+    started = true;
+    while (next == results.size()) {
+      if (finished) {
+        return false;
+      }
+      if (!tokens.tryAdvance(this::tryToken)) {
+        results = detector.finish();
+        next = 0;
+        finished = true;
+      }
+    }
+    action.accept(results.get(next++));
+    return true;
+  }
+
+  @Nullable
+  @Override
+  public Spliterator<NumberResult> trySplit() {
+    if (started) {
+      return null;
+    }
+    AbstractNumberDetector prefixDetector = detector.newDetector();
+    if (prefixDetector == null) {
+      return null;
+    }
+    Spliterator<Token> prefix = tokens.trySplit();
+    if (prefix == null) {
+      return null;
+    }
+    // moves the tokens up to and including the next boundary from the suffix onto the prefix
+    List<Token> moved = new ArrayList<>();
+    while (tokens.tryAdvance(moved::add)) {
+      if (detector.isBoundary(moved.get(moved.size() - 1).getText())) {
+        break;
+      }
+    }
+    return new NumberSpliterator(moved.isEmpty() ? prefix : new Concatenation(prefix, moved),
+        prefixDetector);
+  }
+
+  @Override
+  public long estimateSize() {
+    return tokens.estimateSize();
+  }
+
+  @Override
+  public int characteristics() {
+    return ORDERED | NONNULL;
+  }
+
+  /**
+   * The tokens of a split prefix followed by the tokens that were moved onto it.
+   */
+  private static final class Concatenation implements Spliterator<Token> {
+
+    private final Spliterator<Token> first;
+
+    private final List<Token> rest;
+
+    private int next = 0;
+
+    Concatenation(Spliterator<Token> first, List<Token> rest) {
+      this.first = first;
+      this.rest = rest;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Token> action) {
+      if (next == 0 && first.tryAdvance(action)) {
+        return true;
+      }
+      if (next < rest.size()) {
+        action.accept(rest.get(next++));
+        return true;
+      }
+      return false;
+    }
+
+    @Nullable
+    @Override
+    public Spliterator<Token> trySplit() {
+      return next == 0 ? first.trySplit() : null;
+    }
+
+    @Override
+    public long estimateSize() {
+      long size = first.estimateSize() + rest.size() - next;
+      return size < 0 ? Long.MAX_VALUE : size;
+    }
+
+    @Override
+    public int characteristics() {
+      return ORDERED | NONNULL;
+    }
+  }
+}
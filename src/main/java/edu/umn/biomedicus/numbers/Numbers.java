@@ -51,7 +51,7 @@ public class Numbers {
    * @throws IOException if we fail to load the data from the classpath
    */
   public static CombinedNumberDetector createNumberDetector() throws IOException {
-    NumberModel numberModel = NumberModel.createNumberModel();
+    NumberModel numberModel = NumberModel.createDefaultNumberModel();
     return new CombinedNumberDetector(new FractionNumberDetector(),
         EnglishNumeralsAcceptor.create(numberModel));
   }
@@ -89,6 +89,17 @@ public class Numbers {
     return new DetectorFactory(NumberModel.createNumberModel(nrnumPath, nrvarPath));
   }
 
+  /**
+   * Creates a factory which creates detectors using the supplied number model.
+   *
+   * @param numberModel the number model to supply to the English numeral detectors
+   * @return a factory class used to create detectors
+   * @since 2.1.0
+   */
+  public static DetectorFactory createFactory(NumberModel numberModel) {
+    return new DetectorFactory(numberModel);
+  }
+
   /**
    * Creates a factory using NRNUM and NRVAR from the classpath.
    *
@@ -96,7 +107,7 @@ public class Numbers {
    * @throws IOException if we fail to read the model from the classpath
    */
   public static DetectorFactory createFactory() throws IOException {
-    return new DetectorFactory(NumberModel.createNumberModel());
+    return new DetectorFactory(NumberModel.createDefaultNumberModel());
   }
 
 
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.numbers;
+
+/**
+ * The classes of tokens that the English numeral grammar treats as keywords. Each token is
+ * classified once, and the grammar then dispatches on the integer class instead of comparing the
+ * token against the keywords at every step.
+ *
+ * @since 2.1.0
+ */
+final class NumeralToken {
+
+  static final int OTHER = 0;
+
+  static final int HYPHEN = 1;
+
+  static final int A = 2;
+
+  static final int AND = 3;
+
+  static final int HALF = 4;
+
+  static final int HUNDRED = 5;
+
+  static final int HUNDREDTH = 6;
+
+  static final int HUNDREDTHS = 7;
+
+  private NumeralToken() {
+    throw new UnsupportedOperationException("Instantiation of utility class");
+  }
+
+  /**
+   * Classifies a token, ignoring case using the same rules as {@link
+   * String#equalsIgnoreCase(String)}.
+   *
+   * @param token the token
+   * @return the token class, {@link #OTHER} if the token is not a keyword
+   */
+  static int classify(CharSequence token) {
+    switch (token.length()) {
+      case 1:
+        if (token.charAt(0) == '-') {
+          return HYPHEN;
+        }
+        return CharSequences.equalsIgnoreCase(token, "a") ? A : OTHER;
+      case 3:
+        return CharSequences.equalsIgnoreCase(token, "and") ? AND : OTHER;
+      case 4:
+        return CharSequences.equalsIgnoreCase(token, "half") ? HALF : OTHER;
+      case 7:
+        return CharSequences.equalsIgnoreCase(token, "hundred") ? HUNDRED : OTHER;
+      case 9:
+        return CharSequences.equalsIgnoreCase(token, "hundredth") ? HUNDREDTH : OTHER;
+      case 10:
+        return CharSequences.equalsIgnoreCase(token, "hundredths") ? HUNDREDTHS : OTHER;
+      default:
+        return OTHER;
+    }
+  }
+}
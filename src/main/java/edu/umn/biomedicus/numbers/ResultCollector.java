@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.numbers;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * A sink which creates {@link NumberResult} objects, used to implement the list returning
+ * methods of the detectors on top of their sink methods.
+ *
+ * @since 2.1.0
+ */
+final class ResultCollector implements NumberSink {
+
+  private NumberResult[] results = new NumberResult[2];
+
+  private int count = 0;
+
+  @Override
+  public void number(int begin, int end, NumberType numberType, long numeratorUnscaled,
+      int numeratorScale, long denominatorUnscaled, int denominatorScale) {
+    add(new NumberResult(begin, end, numeratorUnscaled, numeratorScale, denominatorUnscaled,
+        denominatorScale, numberType));
+  }
+
+  @Override
+  public void bigNumber(int begin, int end, NumberType numberType, BigDecimal numerator,
+      @Nullable BigDecimal denominator) {
+    add(new NumberResult(begin, end, numerator, denominator, numberType));
+  }
+
+  private void add(NumberResult result) {
+    if (count == results.length) {
+      results = Arrays.copyOf(results, count * 2);
+    }
+    results[count++] = result;
+  }
+
+  /**
+   * Returns the results collected since the last call and clears this collector.
+   *
+   * @return a new list of the results
+   */
+  List<NumberResult> take() {
+    List<NumberResult> taken;
+    switch (count) {
+      case 0:
+        return Collections.emptyList();
+      case 1:
+        taken = Collections.singletonList(results[0]);
+        break;
+      default:
+        taken = Arrays.asList(Arrays.copyOf(results, count));
+    }
+    Arrays.fill(results, 0, count, null);
+    count = 0;
+    return taken;
+  }
+
+  /**
+   * Passes a result to a sink.
+   *
+   * @param result the result
+   * @param sink the sink
+   */
+  static void emit(NumberResult result, NumberSink sink) {
+    if (result.isCompact()) {
+      sink.number(result.getBegin(), result.getEnd(), result.getNumberType(),
+          result.getNumeratorUnscaled(), result.getNumeratorScale(),
+          result.getDenominatorUnscaled(), result.getDenominatorScale());
+    } else {
+      sink.bigNumber(result.getBegin(), result.getEnd(), result.getNumberType(),
+          result.getNumerator(), result.getDenominator());
+    }
+  }
+}
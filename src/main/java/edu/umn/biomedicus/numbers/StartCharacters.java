@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.numbers;
+
+/**
+ * A table of which kinds of number each character can begin, used to skip tokens that cannot
+ * start a number without classifying them.
+ *
+ * <p>This class is immutable so it is thread-safe.</p>
+ *
+ * @since 2.1.0
+ */
+final class StartCharacters {
+
+  /**
+   * The character cannot begin any number.
+   */
+  static final int NONE = 0;
+
+  /**
+   * The character can begin a decimal number: a digit or a sign.
+   */
+  static final int DECIMAL = 1;
+
+  /**
+   * The character can begin a word in the number model.
+   */
+  static final int WORD = 2;
+
+  private static final int ASCII = 128;
+
+  private final NumberModel numberModel;
+
+  private final byte[] asciiStarts = new byte[ASCII];
+
+  StartCharacters(NumberModel numberModel) {
+    this.numberModel = numberModel;
+    for (char ch = 0; ch < ASCII; ch++) {
+      asciiStarts[ch] = (byte) compute(ch);
+    }
+  }
+
+  /**
+   * Which kinds of number a token starting with the character can begin.
+   *
+   * @param ch the first character of the token
+   * @return a combination of the {@link #DECIMAL} and {@link #WORD} flags, or {@link #NONE}
+   */
+  int classify(char ch) {
+    return ch < ASCII ? asciiStarts[ch] : compute(ch);
+  }
+
+  private int compute(char ch) {
+    int starts = NONE;
+    if (ch == '-' || ch == '+' || Character.isDigit(ch)) {
+      starts |= DECIMAL;
+    }
+    if (numberModel.hasWordStartingWith(ch)) {
+      starts |= WORD;
+    }
+    return starts;
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.numbers;
+
+import edu.umn.biomedicus.internal.Lexicon;
+import javax.annotation.Nullable;
+
+/**
+ * Classifies each token once for all of the detectors: it parses the token as a decimal number,
+ * looks it up in the number model and the units of measure, and checks it against the words and
+ * punctuation that the detectors treat specially. The resulting {@link TokenDescriptor} can be
+ * passed to {@link AbstractNumberDetector#tryToken(TokenDescriptor)} and to the unit recognizer.
+ *
+ * <br>Usage:
+ * <pre>
+ *   {@code
+TokenClassifier classifier = unitRecognizerFactory.createTokenClassifier(numberModel);
+for (Token token : tokens) {
+  TokenDescriptor descriptor = classifier.classify(token.getText(), token.getBegin(),
+      token.getEnd());
+  List<NumberResult> numbers = numberDetector.tryToken(descriptor);
+  Optional<Result> unit = unitRecognizer.advance(descriptor);
+}
+ *   }
+ * </pre>
+ *
+ * <p>It is not safe to use an instance of this class from multiple threads at once, use multiple
+ * instances for concurrency.</p>
+ *
+ * @since 2.1.0
+ */
+public final class TokenClassifier {
+
+  private final NumberModel numberModel;
+
+  @Nullable
+  private final Lexicon units;
+
+  private final TokenDescriptor descriptor = new TokenDescriptor();
+
+  /**
+   * Creates a classifier which doesn't look for units of measure.
+   *
+   * @param numberModel the number model to look up number words in
+   */
+  public TokenClassifier(NumberModel numberModel) {
+    this(numberModel, null);
+  }
+
+  /**
+   * Creates a classifier which also looks up tokens in a units lexicon. Use {@code
+   * UnitRecognizer.Factory.createTokenClassifier} to create a classifier that looks for a
+   * factory's units of measure.
+   *
+   * @param numberModel the number model to look up number words in
+   * @param units the units of measure to look up tokens in, or null to not look for units
+   */
+  TokenClassifier(NumberModel numberModel, @Nullable Lexicon units) {
+    this.numberModel = numberModel;
+    this.units = units;
+  }
+
+  /**
+   * Classifies a token.
+   *
+   * @param token the token text
+   * @param begin an identifying begin index for the token
+   * @param end an identifying end index for the token
+   * @return the descriptor, which is reused by the next call to this method
+   */
+  public TokenDescriptor classify(CharSequence token, int begin, int end) {
+    descriptor.reset(token, begin, end);
+    DecimalNumberAcceptor.parse(token, descriptor);
+    descriptor.entry = numberModel.lookup(token);
+    descriptor.tokenClass = NumeralToken.classify(token);
+    descriptor.slash = CharSequences.isChar(token, '/');
+    descriptor.per = CharSequences.equalsIgnoreCase(token, "per");
+    if (units != null) {
+      descriptor.units = units;
+      descriptor.unit = lookupUnit(units, token);
+    }
+    return descriptor;
+  }
+
+  /**
+   * Looks up a unit, which may be abbreviated with a trailing period.
+   */
+  static int lookupUnit(Lexicon units, CharSequence token) {
+    int length = token.length();
+    int unit = units.lookup(token, 0, length);
+    if (unit == -1 && length > 0 && token.charAt(length - 1) == '.') {
+      unit = units.lookup(token, 0, length - 1);
+    }
+    return unit;
+  }
+}
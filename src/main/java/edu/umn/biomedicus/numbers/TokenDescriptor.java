@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.numbers;
+
+import edu.umn.biomedicus.internal.Lexicon;
+import edu.umn.biomedicus.internal.NumbersBridge;
+import java.math.BigDecimal;
+import javax.annotation.Nullable;
+
+/**
+ * Everything the detectors need to know about a token, computed once by a {@link
+ * TokenClassifier} and shared by the number detectors and the unit recognizer so that none of
+ * them has to parse or look up the token again.
+ *
+ * <p>Descriptors are reused by their classifier, a descriptor is only valid until the next token
+ * is classified and its text only until the caller's token changes.</p>
+ *
+ * @since 2.1.0
+ */
+public final class TokenDescriptor {
+
+  static {
+    NumbersBridge.register(new NumbersBridge() {
+      @Override
+      public TokenClassifier createTokenClassifier(NumberModel numberModel, Lexicon units) {
+        return new TokenClassifier(numberModel, units);
+      }
+
+      @Override
+      public NumberPrefilter createPrefilter(NumberModel numberModel, Lexicon units) {
+        return new NumberPrefilter(numberModel, units);
+      }
+
+      @Override
+      public int getUnit(TokenDescriptor token, Lexicon units) {
+        return token.getUnit(units);
+      }
+    });
+  }
+
+  CharSequence text = "";
+
+  int begin;
+
+  int end;
+
+  /**
+   * Whether the token parsed as a decimal number or hybrid ordinal like "1st".
+   */
+  boolean decimal;
+
+  boolean ordinal;
+
+  long unscaled;
+
+  int scale;
+
+  /**
+   * The value when it has too many digits for {@link #unscaled}, otherwise null.
+   */
+  @Nullable
+  BigDecimal bigValue;
+
+  @Nullable
+  NumberEntry entry;
+
+  int tokenClass;
+
+  boolean slash;
+
+  boolean per;
+
+  @Nullable
+  Lexicon units;
+
+  int unit = -1;
+
+  TokenDescriptor() {
+  }
+
+  void reset(CharSequence text, int begin, int end) {
+    this.text = text;
+    this.begin = begin;
+    this.end = end;
+    decimal = false;
+    ordinal = false;
+    unscaled = 0;
+    scale = 0;
+    bigValue = null;
+    entry = null;
+    tokenClass = NumeralToken.OTHER;
+    slash = false;
+    per = false;
+    units = null;
+    unit = -1;
+  }
+
+  /**
+   * The text of the token.
+   *
+   * @return token text
+   */
+  public CharSequence getText() {
+    return text;
+  }
+
+  /**
+   * The identifying begin index of the token.
+   *
+   * @return begin index
+   */
+  public int getBegin() {
+    return begin;
+  }
+
+  /**
+   * The identifying end index of the token.
+   *
+   * @return end index
+   */
+  public int getEnd() {
+    return end;
+  }
+
+  /**
+   * Whether the token is a decimal number like "1,000.5" or a hybrid ordinal like "2nd".
+   *
+   * @return true if the token is a decimal number
+   */
+  public boolean isDecimal() {
+    return decimal;
+  }
+
+  /**
+   * Whether the token is an English number word, like "five", "fifth", or "fifths".
+   *
+   * @return true if the token is in the number model
+   */
+  public boolean isNumberWord() {
+    return entry != null;
+  }
+
+  /**
+   * Whether the token is the word "and".
+   *
+   * @return true if the token is "and", ignoring case
+   */
+  public boolean isAnd() {
+    return tokenClass == NumeralToken.AND;
+  }
+
+  /**
+   * Whether the token is a hyphen.
+   *
+   * @return true if the token is "-"
+   */
+  public boolean isHyphen() {
+    return tokenClass == NumeralToken.HYPHEN;
+  }
+
+  /**
+   * Whether the token is a slash.
+   *
+   * @return true if the token is "/"
+   */
+  public boolean isSlash() {
+    return slash;
+  }
+
+  /**
+   * Whether the token is the word "per".
+   *
+   * @return true if the token is "per", ignoring case
+   */
+  public boolean isPer() {
+    return per;
+  }
+
+  /**
+   * Which unit of measure the token is. If the token was classified using a different units
+   * lexicon, it is looked up now.
+   *
+   * @param units the units lexicon
+   * @return the value of the unit in the lexicon, or -1 if the token is not a unit
+   */
+  int getUnit(Lexicon units) {
+    if (units == this.units) {
+      return unit;
+    }
+    return TokenClassifier.lookupUnit(units, text);
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.numbers;
+
+import javax.annotation.Nonnull;
+
+/**
+ * A reusable, mutable view of a region of a larger character sequence. Used to pass a token to
+ * the detectors without copying its characters out of the document.
+ *
+ * <p>Instances are owned by a single detector and reset for every token, so they should never be
+ * retained past the call they were passed to.</p>
+ *
+ * @since 2.1.0
+ */
+final class TokenView implements CharSequence {
+
+  private CharSequence document = "";
+
+  private int begin;
+
+  private int end;
+
+  /**
+   * Points this view at a new region.
+   *
+   * @param document the document text
+   * @param begin the offset of the first character in the region
+   * @param end the offset after the last character in the region
+   * @return this view
+   */
+  TokenView set(CharSequence document, int begin, int end) {
+    if (begin < 0 || end < begin || end > document.length()) {
+      throw new IndexOutOfBoundsException(
+          "Invalid region [" + begin + ", " + end + ") for length " + document.length());
+    }
+    this.document = document;
+    this.begin = begin;
+    this.end = end;
+    return this;
+  }
+
+  @Override
+  public int length() {
+    return end - begin;
+  }
+
+  @Override
+  public char charAt(int index) {
+    return document.charAt(begin + index);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return document.subSequence(begin + start, begin + end);
+  }
+
+  @Nonnull
+  @Override
+  public String toString() {
+    return document.subSequence(begin, end).toString();
+  }
+}
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.numbers;
+
+import java.util.Arrays;
+
+/**
+ * Splits text into the tokens that the number detectors and unit recognizers expect, storing
+ * them as arrays of begin and end offsets rather than creating a string or {@link Token} for each
+ * token. The offsets can be passed straight to {@link AbstractNumberDetector#detect(CharSequence,
+ * int[], int[], int, NumberResultBuffer)} and {@code UnitRecognizer.detect}.
+ *
+ * <p>The tokens are:</p>
+ * <ul>
+ *   <li>decimal numbers: digits with periods between digits, commas before groups of exactly three
+ *   digits, a sign when it does not follow a letter or digit, and an ordinal suffix, like
+ *   "1,000.5", "-4" and "2nd", so "1,2,3" is the list "1", ",", "2", ",", "3";</li>
+ *   <li>runs of letters, so "10mg" is "10" and "mg", and "twenty-five" is "twenty", "-" and
+ *   "five";</li>
+ *   <li>a degree sign followed by letters, like "°F";</li>
+ *   <li>every other character that is not whitespace by itself, like "/" and "-".</li>
+ * </ul>
+ *
+ * <br>Usage:
+ * <pre>
+ *   {@code
+Tokenizer tokenizer = new Tokenizer();
+int count = tokenizer.tokenize(document);
+detector.detect(document, tokenizer.getBegins(), tokenizer.getEnds(), count, numbers);
+unitRecognizer.detect(document, tokenizer.getBegins(), tokenizer.getEnds(), count, units);
+ *   }
+ * </pre>
+ *
+ * <p>It is not safe to use an instance of this class from multiple threads at once, use multiple
+ * instances for concurrency.</p>
+ *
+ * @since 2.1.0
+ */
+public final class Tokenizer {
+
+  private int size = 0;
+
+  private int[] begins = new int[256];
+
+  private int[] ends = new int[256];
+
+  /**
+   * Tokenizes the text, replacing the previous tokens.
+   *
+   * @param text the text
+   * @return the number of tokens
+   */
+  public int tokenize(CharSequence text) {
+    return tokenize(text, 0, text.length());
+  }
+
+  /**
+   * Tokenizes the region of the text from {@code begin} to {@code end}, replacing the previous
+   * tokens. The offsets of the tokens are offsets into the text, not the region, and no token
+   * extends outside of the region.
+   *
+   * @param text the text
+   * @param begin the offset of the first character of the region
+   * @param end the offset after the last character of the region
+   * @return the number of tokens
+   */
+  public int tokenize(CharSequence text, int begin, int end) {
+    size = 0;
+    int index = begin;
+    while (index < end) {
+      char ch = text.charAt(index);
+      if (isWhitespace(ch)) {
+        index++;
+        continue;
+      }
+      int tokenEnd;
+      if (isDigit(ch) || ((ch == '-' || ch == '+') && index + 1 < end
+          && isDigit(text.charAt(index + 1))
+          && (index == begin || !isLetterOrDigit(text.charAt(index - 1))))) {
+        tokenEnd = numberEnd(text, index + 1, end);
+      } else if (isLetter(ch)) {
+        tokenEnd = lettersEnd(text, index + 1, end);
+      } else if (ch == '°' && index + 1 < end && isLetter(text.charAt(index + 1))) {
+        tokenEnd = lettersEnd(text, index + 2, end);
+      } else if (Character.isHighSurrogate(ch) && index + 1 < end
+          && Character.isLowSurrogate(text.charAt(index + 1))) {
+        tokenEnd = index + 2;
+      } else {
+        tokenEnd = index + 1;
+      }
+      add(index, tokenEnd);
+      index = tokenEnd;
+    }
+    return size;
+  }
+
+  /**
+   * Finds the last whitespace character in the region from {@code begin} to {@code end}. Tokens
+   * never contain or depend on text across whitespace, so the tokens before that offset are the
+   * same no matter what text follows the region. This is used to tokenize text that is read in
+   * chunks.
+   *
+   * @param text the text
+   * @param begin the offset of the first character of the region
+   * @param end the offset after the last character of the region
+   * @return the offset of the last whitespace character, or -1 if there is none
+   */
+  public static int findBreak(CharSequence text, int begin, int end) {
+    for (int i = end - 1; i >= begin; i--) {
+      if (isWhitespace(text.charAt(i))) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static int numberEnd(CharSequence text, int index, int end) {
+    while (index < end) {
+      char ch = text.charAt(index);
+      if (isDigit(ch)) {
+        index++;
+      } else if (ch == '.' && index + 1 < end && isDigit(text.charAt(index + 1))) {
+        index += 2;
+      } else if (ch == ',' && isGroup(text, index + 1, end)) {
+        index += 4;
+      } else {
+        break;
+      }
+    }
+    // hybrid ordinals, like "2nd", the same suffixes as DecimalNumberAcceptor
+    if (index + 1 < end && (index + 2 == end || !isLetter(text.charAt(index + 2)))) {
+      char first = text.charAt(index);
+      char second = text.charAt(index + 1);
+      if ((first == 't' && second == 'h') || (first == 's' && second == 't')
+          || (first == 'n' && second == 'd') || (first == 'r' && second == 'd')) {
+        index += 2;
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Whether there are exactly three digits at the index, the group after a thousands separator.
+   */
+  private static boolean isGroup(CharSequence text, int index, int end) {
+    if (index + 3 > end) {
+      return false;
+    }
+    for (int i = index; i < index + 3; i++) {
+      if (!isDigit(text.charAt(i))) {
+        return false;
+      }
+    }
+    return index + 3 == end || !isDigit(text.charAt(index + 3));
+  }
+
+  private static int lettersEnd(CharSequence text, int index, int end) {
+    while (index < end && isLetter(text.charAt(index))) {
+      index++;
+    }
+    return index;
+  }
+
+  private void add(int begin, int end) {
+    if (size == begins.length) {
+      begins = Arrays.copyOf(begins, size * 2);
+      ends = Arrays.copyOf(ends, size * 2);
+    }
+    begins[size] = begin;
+    ends[size] = end;
+    size++;
+  }
+
+  private static boolean isWhitespace(char ch) {
+    if (ch < 0x80) {
+      return ch == ' ' || (ch >= '\t' && ch <= '\r') || (ch >= 0x1c && ch <= 0x1f);
+    }
+    return Character.isWhitespace(ch) || Character.isSpaceChar(ch);
+  }
+
+  private static boolean isDigit(char ch) {
+    return (ch >= '0' && ch <= '9') || (ch > 0x7F && Character.isDigit(ch));
+  }
+
+  private static boolean isLetter(char ch) {
+    if (ch < 0x80) {
+      return (ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z');
+    }
+    return Character.isLetter(ch);
+  }
+
+  private static boolean isLetterOrDigit(char ch) {
+    return isDigit(ch) || isLetter(ch);
+  }
+
+  /**
+   * The number of tokens found by the last call to tokenize.
+   *
+   * @return count of tokens
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * The begin offset of a token.
+   *
+   * @param index the index of the token
+   * @return begin offset
+   */
+  public int getBegin(int index) {
+    checkIndex(index);
+    return begins[index];
+  }
+
+  /**
+   * The end offset of a token.
+   *
+   * @param index the index of the token
+   * @return end offset
+   */
+  public int getEnd(int index) {
+    checkIndex(index);
+    return ends[index];
+  }
+
+  /**
+   * The begin offsets of the tokens, the array of this tokenizer.
+   *
+   * @return array of begin offsets, valid up to {@link #size()} until the next call to tokenize
+   */
+  public int[] getBegins() {
+    return begins;
+  }
+
+  /**
+   * The end offsets of the tokens, the array of this tokenizer.
+   *
+   * @return array of end offsets, valid up to {@link #size()} until the next call to tokenize
+   */
+  public int[] getEnds() {
+    return ends;
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+    }
+  }
+}
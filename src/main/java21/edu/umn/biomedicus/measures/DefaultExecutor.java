@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The executor that {@link AsyncDetector} uses when none is given, for Java 21 and newer.
+ *
+ * @since 2.1.0
+ */
+final class DefaultExecutor {
+
+  private static final ExecutorService VIRTUAL_THREADS =
+      Executors.newVirtualThreadPerTaskExecutor();
+
+  private DefaultExecutor() {
+    throw new UnsupportedOperationException("Instantiation of utility class");
+  }
+
+  /**
+   * The default executor.
+   *
+   * @return an executor which starts a new virtual thread for each task
+   */
+  static Executor get() {
+    return VIRTUAL_THREADS;
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.internal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LexiconTest {
+
+  private Lexicon lexicon;
+
+  @BeforeEach
+  void setUp() {
+    Map<String, Integer> entries = new HashMap<>();
+    entries.put("five", 0);
+    entries.put("fifth", 1);
+    entries.put("fifths", 2);
+    entries.put("µg", 3);
+    entries.put("First", 4);
+    lexicon = Lexicon.create(entries);
+  }
+
+  @Test
+  void testLookupIgnoresCase() {
+    assertEquals(0, lexicon.lookup("FiVe"));
+    assertEquals(2, lexicon.lookup("FIFTHS"));
+  }
+
+  @Test
+  void testLookupRegion() {
+    assertEquals(1, lexicon.lookup("the fifth day", 4, 9));
+    assertEquals(-1, lexicon.lookup("the fifth day", 4, 8));
+  }
+
+  @Test
+  void testHasWordStartingWith() {
+    assertTrue(lexicon.hasWordStartingWith('f'));
+    assertTrue(lexicon.hasWordStartingWith('F'));
+    assertTrue(lexicon.hasWordStartingWith('µ'));
+    assertFalse(lexicon.hasWordStartingWith('x'));
+    assertFalse(lexicon.hasWordStartingWith('5'));
+  }
+
+  @Test
+  void testLookupNonAscii() {
+    assertEquals(3, lexicon.lookup("µG"));
+  }
+
+  @Test
+  void testUppercaseWordsNotFound() {
+    assertEquals(-1, lexicon.lookup("First"));
+  }
+
+  @Test
+  void testMissing() {
+    assertEquals(-1, lexicon.lookup(""));
+    assertEquals(-1, lexicon.lookup("six"));
+  }
+
+  @Test
+  void testMapReadsBuffer() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    lexicon.write(new DataOutputStream(bytes));
+    byte[] array = bytes.toByteArray();
+    ByteBuffer buffer = ByteBuffer.wrap(array);
+
+    Lexicon mapped = Lexicon.map(buffer, 5);
+
+    assertFalse(buffer.hasRemaining());
+    assertEquals(5, mapped.size());
+    assertEquals(2, mapped.lookup("Fifths"));
+    assertEquals(3, mapped.lookup("µg"));
+    array[array.length - 1] = 'x';
+    assertEquals(-1, mapped.lookup("µg"));
+  }
+
+  @Test
+  void testMapRejectsOutOfBoundValues() throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    lexicon.write(new DataOutputStream(bytes));
+
+    assertThrows(IOException.class, () -> Lexicon.map(ByteBuffer.wrap(bytes.toByteArray()), 4));
+  }
+}
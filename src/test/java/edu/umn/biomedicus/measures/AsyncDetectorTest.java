@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.umn.biomedicus.numbers.NumberModel;
+import edu.umn.biomedicus.numbers.NumberResultBuffer;
+import edu.umn.biomedicus.numbers.Numbers;
+import edu.umn.biomedicus.numbers.Token;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AsyncDetectorTest {
+
+  private static final Pattern TOKEN = Pattern.compile("\\S+");
+
+  private ExecutorService executor;
+
+  private static List<Token> tokenize(CharSequence document) {
+    List<Token> tokens = new ArrayList<>();
+    Matcher matcher = TOKEN.matcher(document);
+    while (matcher.find()) {
+      tokens.add(new Token(matcher.start(), matcher.end(), matcher.group()));
+    }
+    return tokens;
+  }
+
+  @BeforeEach
+  void setUp() {
+    executor = Executors.newFixedThreadPool(4);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  void testDetectAsync() {
+    AsyncDetector asyncDetector = new AsyncDetector(
+        Numbers.createFactory(NumberModel.createDefaultNumberModel()),
+        UnitRecognizer.createDefaultFactory(), AsyncDetectorTest::tokenize, executor);
+    List<CompletableFuture<DocumentResults>> futures = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      futures.add(asyncDetector.detectAsync("took " + i + " mg and three hundred mL"));
+    }
+
+    for (int i = 0; i < futures.size(); i++) {
+      DocumentResults results = futures.get(i).join();
+      assertEquals(i, results.getIndex());
+      NumberResultBuffer numbers = results.getNumbers();
+      assertEquals(2, numbers.size());
+      assertEquals(i, numbers.getNumeratorUnscaled(0));
+      assertEquals(300, numbers.getNumerator(1).intValue());
+      assertEquals(2, results.getUnits().size());
+    }
+  }
+
+  @Test
+  void testDefaultExecutor() {
+    AsyncDetector asyncDetector = new AsyncDetector(
+        Numbers.createFactory(NumberModel.createDefaultNumberModel()),
+        UnitRecognizer.createDefaultFactory(), AsyncDetectorTest::tokenize);
+
+    DocumentResults results = asyncDetector.detectAsync("5 mg").join();
+
+    assertEquals(1, results.getNumbers().size());
+    assertEquals(1, results.getUnits().size());
+  }
+
+  @Test
+  void testFailedRequest() {
+    AsyncDetector asyncDetector = new AsyncDetector(
+        Numbers.createFactory(NumberModel.createDefaultNumberModel()),
+        UnitRecognizer.createDefaultFactory(), document -> {
+          if (document.length() == 0) {
+            throw new IllegalArgumentException("Empty document");
+          }
+          return tokenize(document);
+        }, executor);
+
+    assertThrows(CompletionException.class, () -> asyncDetector.detectAsync("").join());
+
+    DocumentResults results = asyncDetector.detectAsync("took 5 mg").join();
+
+    assertEquals(1, results.getIndex());
+    assertEquals(1, results.getNumbers().size());
+    assertEquals(1, results.getUnits().size());
+  }
+}
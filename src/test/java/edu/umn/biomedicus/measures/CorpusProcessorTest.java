@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.umn.biomedicus.numbers.NumberModel;
+import edu.umn.biomedicus.numbers.NumberResult;
+import edu.umn.biomedicus.numbers.NumberResultBuffer;
+import edu.umn.biomedicus.numbers.Numbers;
+import edu.umn.biomedicus.numbers.Token;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CorpusProcessorTest {
+
+  private static final Pattern TOKEN = Pattern.compile("\\S+");
+
+  private NumberModel numberModel;
+
+  private ForkJoinPool pool;
+
+  private CorpusProcessor processor;
+
+  private List<String> documents;
+
+  private static List<Token> tokenize(CharSequence document) {
+    List<Token> tokens = new ArrayList<>();
+    Matcher matcher = TOKEN.matcher(document);
+    while (matcher.find()) {
+      tokens.add(new Token(matcher.start(), matcher.end(), matcher.group()));
+    }
+    return tokens;
+  }
+
+  @BeforeEach
+  void setUp() {
+    numberModel = NumberModel.createDefaultNumberModel();
+    pool = new ForkJoinPool(4);
+    processor = new CorpusProcessor(Numbers.createFactory(numberModel),
+        UnitRecognizer.createDefaultFactory(), CorpusProcessorTest::tokenize, pool);
+    documents = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      documents.add("gave " + i + " mg of the drug , then twenty one mL and " + (i % 7)
+          + " / 2 tablets");
+    }
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdown();
+  }
+
+  @Test
+  void testOrderedMatchesSequential() {
+    List<DocumentResults> results = new ArrayList<>();
+    processor.process(documents, results::add);
+
+    assertEquals(documents.size(), results.size());
+    for (int i = 0; i < documents.size(); i++) {
+      DocumentResults documentResults = results.get(i);
+      assertEquals(i, documentResults.getIndex());
+      List<NumberResult> expected = Numbers.createNumberDetector(numberModel)
+          .checkTokens(tokenize(documents.get(i)));
+      NumberResultBuffer numbers = documentResults.getNumbers();
+      assertEquals(expected.size(), numbers.size());
+      for (int j = 0; j < expected.size(); j++) {
+        assertEquals(expected.get(j).getBegin(), numbers.getBegin(j));
+        assertEquals(expected.get(j).getEnd(), numbers.getEnd(j));
+        assertEquals(expected.get(j).getNumerator(), numbers.getNumerator(j));
+      }
+      assertEquals(2, documentResults.getUnits().size());
+    }
+  }
+
+  @Test
+  void testUnorderedDeliversEveryDocument() {
+    boolean[] seen = new boolean[documents.size()];
+    processor.processUnordered(documents.stream(), results -> {
+      int index = (int) results.getIndex();
+      assertEquals(documents.get(index), results.getDocument());
+      seen[index] = true;
+    });
+
+    for (boolean documentSeen : seen) {
+      assertTrue(documentSeen);
+    }
+  }
+}
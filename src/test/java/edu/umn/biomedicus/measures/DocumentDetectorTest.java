@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.umn.biomedicus.measures;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.umn.biomedicus.numbers.NumberModel;
+import edu.umn.biomedicus.numbers.Numbers;
+import edu.umn.biomedicus.numbers.Numbers.DetectorFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class DocumentDetectorTest {
+
+  private DetectorFactory detectorFactory;
+
+  private UnitRecognizer.Factory unitFactory;
+
+  /**
+   * A document that fails when a number of its characters have been read, like text that is read
+   * lazily from a source that goes away.
+   */
+  private static class FailingDocument implements CharSequence {
+
+    private final String text;
+
+    private final int readLimit;
+
+    private int reads = 0;
+
+    FailingDocument(String text, int readLimit) {
+      this.text = text;
+      this.readLimit = readLimit;
+    }
+
+    @Override
+    public int length() {
+      return text.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+      if (++reads == readLimit) {
+        throw new IllegalStateException("Document is no longer available");
+      }
+      return text.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return text.subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+      return text;
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    detectorFactory = Numbers.createFactory(NumberModel.createDefaultNumberModel());
+    unitFactory = UnitRecognizer.createDefaultFactory();
+  }
+
+  @Test
+  void testReuseAfterFailedDocument() {
+    String text = "took 5 mg per x";
+    FailingDocument counting = new FailingDocument(text, -1);
+    new DocumentDetector(detectorFactory, unitFactory, null).detect(0, counting);
+    // the last character read is in the last token, while "mg per" is held by the unit recognizer
+    FailingDocument failing = new FailingDocument(text, counting.reads);
+    DocumentDetector documentDetector = new DocumentDetector(detectorFactory, unitFactory, null);
+    assertThrows(IllegalStateException.class, () -> documentDetector.detect(0, failing));
+
+    DocumentResults results = documentDetector.detect(1, "dL");
+
+    UnitResultBuffer units = results.getUnits();
+    assertEquals(1, units.size());
+    assertEquals(0, units.getBegin(0));
+    assertEquals(2, units.getEnd(0));
+    assertEquals("dL", units.getCode(0));
+  }
+}
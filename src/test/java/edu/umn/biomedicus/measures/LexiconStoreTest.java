@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.umn.biomedicus.numbers.CombinedNumberDetector;
+import edu.umn.biomedicus.numbers.NumberModel;
+import edu.umn.biomedicus.numbers.NumberResult;
+import edu.umn.biomedicus.numbers.Numbers;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LexiconStoreTest {
+
+  private Path store;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    store = Files.createTempFile("lexicons", ".store");
+    LexiconStore.write(store, NumberModel.createDefaultNumberModel(),
+        UnitRecognizer.createDefaultFactory());
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    Files.deleteIfExists(store);
+  }
+
+  @Test
+  void testMappedNumberModel() throws IOException {
+    LexiconStore lexiconStore = LexiconStore.map(store);
+    CombinedNumberDetector detector = Numbers.createNumberDetector(lexiconStore.getNumberModel());
+
+    assertTrue(detector.tryToken("three", 0, 5).isEmpty());
+    List<NumberResult> results = detector.tryToken("hundred", 6, 13);
+    assertTrue(results.isEmpty());
+    results = detector.finish();
+
+    assertEquals(1, results.size());
+    assertEquals(0, results.get(0).getNumerator().compareTo(BigDecimal.valueOf(300)));
+  }
+
+  @Test
+  void testMappedUnits() throws IOException {
+    UnitRecognizer unitRecognizer = LexiconStore.map(store).getUnitRecognizerFactory().create();
+
+    assertTrue(unitRecognizer.isUnitOfMeasureWord("mL"));
+    assertTrue(unitRecognizer.isUnitOfMeasureWord("mg."));
+    assertFalse(unitRecognizer.isUnitOfMeasureWord("tablets"));
+  }
+
+  @Test
+  void testSnapshotIsNotAStore() throws IOException {
+    NumberModel.createDefaultNumberModel().writeSnapshot(store);
+
+    assertThrows(IOException.class, () -> LexiconStore.map(store));
+  }
+}
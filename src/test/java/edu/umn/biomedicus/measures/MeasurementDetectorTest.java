@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.umn.biomedicus.numbers.NumberModel;
+import edu.umn.biomedicus.numbers.NumberType;
+import edu.umn.biomedicus.numbers.Token;
+import edu.umn.biomedicus.numbers.Tokenizer;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MeasurementDetectorTest {
+
+  private MeasurementDetector measurementDetector;
+
+  @BeforeEach
+  void setUp() {
+    measurementDetector = new MeasurementDetector(NumberModel.createDefaultNumberModel(),
+        UnitRecognizer.createDefaultFactory());
+  }
+
+  private static List<Token> tokenize(String document) {
+    Tokenizer tokenizer = new Tokenizer();
+    int count = tokenizer.tokenize(document);
+    List<Token> tokens = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      int begin = tokenizer.getBegin(i);
+      int end = tokenizer.getEnd(i);
+      tokens.add(new Token(begin, end, document.substring(begin, end)));
+    }
+    return tokens;
+  }
+
+  @Test
+  void testCheckTokens() {
+    List<Measurement> measurements = measurementDetector.checkTokens(
+        tokenize("gave 5 mg then 1/2 mL, BP 120/80 mmHg, 90 milligrams per deciliter"));
+
+    assertEquals(4, measurements.size());
+
+    Measurement first = measurements.get(0);
+    assertEquals(5, first.getBegin());
+    assertEquals(9, first.getEnd());
+    assertEquals(0, new BigDecimal(5).compareTo(first.getNumber().getNumerator()));
+    assertEquals(7, first.getUnitBegin());
+    assertEquals("mg", first.getUnitCode());
+
+    Measurement second = measurements.get(1);
+    assertEquals(15, second.getBegin());
+    assertEquals(21, second.getEnd());
+    assertEquals(NumberType.FRACTION, second.getNumber().getNumberType());
+    assertEquals("mL", second.getUnitCode());
+
+    Measurement third = measurements.get(2);
+    assertEquals(26, third.getBegin());
+    assertEquals(37, third.getEnd());
+    assertEquals("mm[Hg]", third.getUnitCode());
+
+    Measurement fourth = measurements.get(3);
+    assertEquals(39, fourth.getBegin());
+    assertEquals(66, fourth.getEnd());
+    assertEquals(42, fourth.getUnitBegin());
+    assertEquals("mg/dL", fourth.getUnitCode());
+  }
+
+  @Test
+  void testEnglishNumber() {
+    List<Measurement> measurements = measurementDetector.checkTokens(
+        tokenize("take two mg daily"));
+
+    assertEquals(1, measurements.size());
+    assertEquals(5, measurements.get(0).getBegin());
+    assertEquals(11, measurements.get(0).getEnd());
+    assertEquals(NumberType.CARDINAL, measurements.get(0).getNumber().getNumberType());
+  }
+
+  @Test
+  void testEnglishFraction() {
+    List<Measurement> measurements = measurementDetector.checkTokens(
+        tokenize("take two and a half mg daily"));
+
+    assertEquals(1, measurements.size());
+    assertEquals(5, measurements.get(0).getBegin());
+    assertEquals(22, measurements.get(0).getEnd());
+    assertEquals(20, measurements.get(0).getUnitBegin());
+    assertEquals("mg", measurements.get(0).getUnitCode());
+  }
+
+  @Test
+  void testNotAdjacent() {
+    List<Measurement> measurements = measurementDetector.checkTokens(
+        tokenize("5 daily mg and 10 tablets"));
+
+    assertEquals(0, measurements.size());
+  }
+
+  @Test
+  void testFindMeasurements() {
+    List<Measurement> measurements = new ArrayList<>();
+    for (Measurement measurement : measurementDetector.findMeasurements(
+        tokenize("3 mL, 4 units per hour"))) {
+      measurements.add(measurement);
+    }
+
+    assertEquals(2, measurements.size());
+    assertEquals("mL", measurements.get(0).getUnitCode());
+    assertEquals("U/h", measurements.get(1).getUnitCode());
+    assertEquals(6, measurements.get(1).getBegin());
+    assertEquals(22, measurements.get(1).getEnd());
+  }
+}
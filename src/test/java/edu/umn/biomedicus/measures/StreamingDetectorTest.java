@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.umn.biomedicus.numbers.NumberModel;
+import edu.umn.biomedicus.numbers.NumberResultBuffer;
+import edu.umn.biomedicus.numbers.Numbers;
+import edu.umn.biomedicus.numbers.Numbers.DetectorFactory;
+import edu.umn.biomedicus.numbers.Tokenizer;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StreamingDetectorTest {
+
+  private DetectorFactory detectorFactory;
+
+  private UnitRecognizer.Factory unitFactory;
+
+  private String document;
+
+  private NumberResultBuffer expectedNumbers;
+
+  private UnitResultBuffer expectedUnits;
+
+  @BeforeEach
+  void setUp() {
+    detectorFactory = Numbers.createFactory(NumberModel.createDefaultNumberModel());
+    unitFactory = UnitRecognizer.createDefaultFactory();
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < 300; i++) {
+      builder.append("BP ").append(100 + i).append("/80, gave twenty-five\n 10mg of 1,234.5 µg"
+          + " then one hundred and ").append(i % 10).append(" °F  ");
+    }
+    document = builder.toString();
+    Tokenizer tokenizer = new Tokenizer();
+    int count = tokenizer.tokenize(document);
+    expectedNumbers = new NumberResultBuffer();
+    detectorFactory.createCombinedNumberDetector()
+        .detect(document, tokenizer.getBegins(), tokenizer.getEnds(), count, expectedNumbers);
+    expectedUnits = new UnitResultBuffer();
+    unitFactory.create()
+        .detect(document, tokenizer.getBegins(), tokenizer.getEnds(), count, expectedUnits);
+  }
+
+  private void assertSameResults(NumberResultBuffer numbers, UnitResultBuffer units) {
+    assertEquals(expectedNumbers.size(), numbers.size());
+    for (int i = 0; i < numbers.size(); i++) {
+      assertEquals(expectedNumbers.getBegin(i), numbers.getBegin(i));
+      assertEquals(expectedNumbers.getEnd(i), numbers.getEnd(i));
+      assertEquals(expectedNumbers.getNumerator(i), numbers.getNumerator(i));
+      assertEquals(expectedNumbers.getDenominator(i), numbers.getDenominator(i));
+    }
+    assertEquals(expectedUnits.size(), units.size());
+    for (int i = 0; i < units.size(); i++) {
+      assertEquals(expectedUnits.getBegin(i), units.getBegin(i));
+      assertEquals(expectedUnits.getEnd(i), units.getEnd(i));
+    }
+  }
+
+  @Test
+  void testSmallBuffers() throws Exception {
+    for (int bufferSize : new int[] {16, 17, 31, 100, 4096}) {
+      StreamingDetector streamingDetector = new StreamingDetector(detectorFactory, unitFactory,
+          bufferSize);
+      NumberResultBuffer numbers = new NumberResultBuffer();
+      UnitResultBuffer units = new UnitResultBuffer();
+
+      long length = streamingDetector.detect(new StringReader(document), numbers, units);
+
+      assertEquals(document.length(), length);
+      assertSameResults(numbers, units);
+    }
+  }
+
+  @Test
+  void testChannel() throws Exception {
+    StreamingDetector streamingDetector = new StreamingDetector(detectorFactory, unitFactory, 64);
+    NumberResultBuffer numbers = new NumberResultBuffer();
+    UnitResultBuffer units = new UnitResultBuffer();
+
+    streamingDetector.detect(Channels.newChannel(new ByteArrayInputStream(
+        document.getBytes(StandardCharsets.UTF_8))), StandardCharsets.UTF_8, numbers, units);
+
+    assertSameResults(numbers, units);
+  }
+
+  @Test
+  void testReuse() throws Exception {
+    StreamingDetector streamingDetector = new StreamingDetector(detectorFactory, unitFactory, 50);
+    streamingDetector.detect(new StringReader("twenty"), new NumberResultBuffer(),
+        new UnitResultBuffer());
+    NumberResultBuffer numbers = new NumberResultBuffer();
+    UnitResultBuffer units = new UnitResultBuffer();
+
+    streamingDetector.detect(new StringReader(document), numbers, units);
+
+    assertSameResults(numbers, units);
+  }
+
+  @Test
+  void testReuseAfterFailedRead() throws Exception {
+    StreamingDetector streamingDetector = new StreamingDetector(detectorFactory, unitFactory, 4);
+    Reader failing = new Reader() {
+      private final Reader text = new StringReader("took 5 mg per ");
+
+      @Override
+      public int read(char[] cbuf, int off, int len) throws IOException {
+        int read = text.read(cbuf, off, len);
+        if (read == -1) {
+          throw new IOException("Connection reset");
+        }
+        return read;
+      }
+
+      @Override
+      public void close() {
+      }
+    };
+    assertThrows(IOException.class, () -> streamingDetector.detect(failing,
+        new NumberResultBuffer(), new UnitResultBuffer()));
+    NumberResultBuffer numbers = new NumberResultBuffer();
+    UnitResultBuffer units = new UnitResultBuffer();
+
+    streamingDetector.detect(new StringReader("dL"), numbers, units);
+
+    assertEquals(0, numbers.size());
+    assertEquals(1, units.size());
+    assertEquals(0, units.getBegin(0));
+    assertEquals(2, units.getEnd(0));
+    assertEquals("dL", units.getCode(0));
+  }
+}
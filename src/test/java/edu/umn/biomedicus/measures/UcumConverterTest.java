@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UcumConverterTest {
+
+  private UcumConverter converter;
+
+  @BeforeEach
+  void setUp() {
+    converter = new UcumConverter(UnitRecognizer.createDefaultFactory());
+  }
+
+  @Test
+  void testCompositeUnits() {
+    assertEquals(0.9, converter.convert(90, "mg/dL", "g/L"), 1e-12);
+    assertEquals(new BigDecimal("0.9"),
+        converter.convert(new BigDecimal("90"), "mg/dL", "g/L", MathContext.DECIMAL64));
+    assertEquals(5, converter.convert(5, "mmol/L", "mol/m*3"), 1e-12);
+  }
+
+  @Test
+  void testPrefixes() {
+    assertEquals(new BigDecimal("0.25"),
+        converter.convert(new BigDecimal("250"), "mL", "L", MathContext.DECIMAL64));
+    assertEquals(1.5e6, converter.convert(1.5, "mg", "ng"), 1e-6);
+    assertEquals(100, converter.convert(1, "cm*2", "mm*2"), 1e-12);
+  }
+
+  @Test
+  void testCustomaryUnits() {
+    assertEquals(new BigDecimal("0.45359237"),
+        converter.convert(BigDecimal.ONE, "[LB_AV]", "kg", MathContext.DECIMAL64));
+    assertEquals(new BigDecimal("0.3048006096012192"),
+        converter.convert(BigDecimal.ONE, "[FT_US]", "m", MathContext.DECIMAL64));
+    assertEquals(96.56064, converter.convert(60, "[MI_US]/h", "km/h"), 1e-3);
+  }
+
+  @Test
+  void testTemperatures() {
+    assertEquals(212, converter.convert(100, "C", "F"), 1e-9);
+    assertEquals(37, converter.convert(98.6, "F", "C"), 1e-9);
+    assertEquals(new BigDecimal("273.15"),
+        converter.convert(BigDecimal.ZERO, "C", "K", MathContext.DECIMAL64));
+    assertEquals(0, converter.convert(273.15, "K", "C"), 1e-9);
+    assertThrows(IllegalArgumentException.class, () -> converter.convert(1, "C/s", "K/s"));
+  }
+
+  @Test
+  void testPi() {
+    assertEquals(Math.PI, converter.convert(180, "deg", "rad"), 1e-12);
+    assertEquals(new BigDecimal("3.141592653589793"),
+        converter.convert(new BigDecimal(180), "deg", "rad", MathContext.DECIMAL64));
+  }
+
+  @Test
+  void testPressure() {
+    assertEquals(new BigDecimal("15.99864"),
+        converter.convert(new BigDecimal(120), "mm[Hg]", "kPa", MathContext.DECIMAL64));
+  }
+
+  @Test
+  void testNumericFactors() {
+    assertEquals(0.05, converter.convert(5, "%", "1"), 1e-12);
+    assertEquals(new BigDecimal("5"),
+        converter.convert(new BigDecimal("0.05"), "1", "%", MathContext.DECIMAL64));
+    assertEquals(4.5, converter.convert(4.5, "10*3/uL", "1000/uL"), 1e-12);
+    assertFalse(converter.isConvertible("1", "mg"));
+    assertFalse(converter.isConvertible("mL/0", "L"));
+    assertThrows(IllegalArgumentException.class, () -> converter.convert(1, "0", "1"));
+  }
+
+  @Test
+  void testIncompatibleUnits() {
+    assertFalse(converter.isConvertible("mg", "mL"));
+    assertFalse(converter.isConvertible("dB", "[lg]"));
+    assertFalse(converter.isConvertible("/", "mg"));
+    assertTrue(converter.isConvertible("U", "umol/min"));
+    assertThrows(IllegalArgumentException.class, () -> converter.convert(1, "mg", "mL"));
+    assertThrows(IllegalArgumentException.class, () -> converter.convert(1, "mg", "[XYZ]"));
+  }
+
+  @Test
+  void testAllCodesParse() {
+    for (String code : UnitRecognizer.createDefaultFactory().getCodes()) {
+      if (!code.equals("/") && !code.equals("dB") && !code.equals("[lg]")) {
+        assertTrue(converter.isConvertible(code, code), code);
+        assertEquals(2.0, converter.convert(2.0, code, code));
+      }
+    }
+  }
+
+  @Test
+  void testBulk() {
+    double[] values = {90, 180, 45, 7};
+    converter.convert(values, 1, 2, "mg/dL", "g/L");
+    assertArrayEquals(new double[] {90, 1.8, 0.45, 7}, values, 1e-12);
+
+    double[] temperatures = {0, 100};
+    converter.convert(temperatures, 0, 2, "C", "F");
+    assertArrayEquals(new double[] {32, 212}, temperatures, 1e-9);
+
+    BigDecimal[] exact = {new BigDecimal("1500"), new BigDecimal("2")};
+    converter.convert(exact, 0, 2, "mL", "L", MathContext.DECIMAL64);
+    assertArrayEquals(new BigDecimal[] {new BigDecimal("1.5"), new BigDecimal("0.002")}, exact);
+  }
+}
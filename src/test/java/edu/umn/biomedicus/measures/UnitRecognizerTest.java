@@ -16,8 +16,34 @@
 
 package edu.umn.biomedicus.measures;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
+import com.sun.management.ThreadMXBean;
+import edu.umn.biomedicus.measures.UnitRecognizer.Factory;
+import edu.umn.biomedicus.measures.UnitRecognizer.Result;
+import edu.umn.biomedicus.numbers.CombinedNumberDetector;
+import edu.umn.biomedicus.numbers.NumberModel;
+import edu.umn.biomedicus.numbers.NumberResult;
+import edu.umn.biomedicus.numbers.NumberResultBuffer;
+import edu.umn.biomedicus.numbers.NumberType;
+import edu.umn.biomedicus.numbers.Numbers;
+import edu.umn.biomedicus.numbers.TokenClassifier;
+import edu.umn.biomedicus.numbers.TokenDescriptor;
+import edu.umn.biomedicus.numbers.Tokenizer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
 import org.junit.jupiter.api.Test;
 
 class UnitRecognizerTest {
@@ -26,4 +52,226 @@ class UnitRecognizerTest {
   void testCreateFactory() throws Exception {
     assertNotNull(UnitRecognizer.createFactory());
   }
-}
\ No newline at end of file
+
+  @Test
+  void testUnitTablesMatchUnitsFile() throws Exception {
+    Path unitsOfMeasure = Paths.get(UnitRecognizerTest.class
+        .getResource("/edu/umn/biomedicus/measures/unitsOfMeasure.txt").toURI());
+    TreeMap<String, String> expected = new TreeMap<>();
+    for (String line : Files.readAllLines(unitsOfMeasure, StandardCharsets.UTF_8)) {
+      String[] splits = line.split(":");
+      if (splits.length == 2) {
+        expected.put(splits[0], splits[1]);
+      }
+    }
+
+    assertEquals(Arrays.asList(expected.keySet().toArray()), Arrays.asList(UnitTables.UNITS));
+    assertEquals(Arrays.asList(expected.values().toArray()), Arrays.asList(UnitTables.CODES));
+    assertTrue(UnitRecognizer.createDefaultFactory().create().isUnitOfMeasureWord("\u00b5g"));
+  }
+
+  @Test
+  void testAdvanceAt() throws Exception {
+    UnitRecognizer unitRecognizer = UnitRecognizer.createFactory().create();
+    String document = "took 5 MG today";
+
+    assertFalse(unitRecognizer.advanceAt(document, 0, 4).isPresent());
+    assertFalse(unitRecognizer.advanceAt(document, 5, 6).isPresent());
+    assertFalse(unitRecognizer.advanceAt(document, 7, 9).isPresent());
+    Optional<Result> result = unitRecognizer.advanceAt(document, 10, 15);
+
+    assertTrue(result.isPresent());
+    assertEquals(7, result.get().getBegin());
+    assertEquals(9, result.get().getEnd());
+  }
+
+  @Test
+  void testSnapshotRoundTrip() throws Exception {
+    Path snapshot = Files.createTempFile("units", ".snapshot");
+    try {
+      UnitRecognizer.createFactory().writeSnapshot(snapshot);
+      UnitRecognizer unitRecognizer = Factory.readSnapshot(snapshot).create();
+
+      assertTrue(unitRecognizer.isUnitOfMeasureWord("mL"));
+      assertTrue(unitRecognizer.isUnitOfMeasureWord("mg."));
+      assertFalse(unitRecognizer.isUnitOfMeasureWord("tablets"));
+    } finally {
+      Files.deleteIfExists(snapshot);
+    }
+  }
+
+  @Test
+  void testAdvanceClassifiedTokens() {
+    NumberModel numberModel = NumberModel.createDefaultNumberModel();
+    Factory factory = UnitRecognizer.createDefaultFactory();
+    TokenClassifier tokenClassifier = factory.createTokenClassifier(numberModel);
+    CombinedNumberDetector detector = Numbers.createFactory(numberModel)
+        .createCombinedNumberDetector();
+    UnitRecognizer unitRecognizer = factory.create();
+
+    TokenDescriptor five = tokenClassifier.classify("five", 5, 9);
+    assertTrue(five.isNumberWord());
+    assertTrue(detector.tryToken(five).isEmpty());
+    assertFalse(unitRecognizer.advance(five).isPresent());
+
+    TokenDescriptor mg = tokenClassifier.classify("MG.", 10, 13);
+    assertFalse(mg.isNumberWord());
+    List<NumberResult> numbers = detector.tryToken(mg);
+    assertEquals(1, numbers.size());
+    assertEquals(5, numbers.get(0).getBegin());
+    assertFalse(unitRecognizer.advance(mg).isPresent());
+
+    Optional<Result> result = unitRecognizer.advance(tokenClassifier.classify("daily", 14, 19));
+    assertTrue(result.isPresent());
+    assertEquals(10, result.get().getBegin());
+    assertEquals(13, result.get().getEnd());
+  }
+
+  @Test
+  void testDetectOffsetArrays() {
+    NumberModel numberModel = NumberModel.createDefaultNumberModel();
+    UnitRecognizer unitRecognizer = UnitRecognizer.createDefaultFactory().create();
+    CombinedNumberDetector detector = Numbers.createFactory(numberModel)
+        .createCombinedNumberDetector();
+    String document = "gave 5 mg / dL and twenty MG.";
+    int[] begins = {0, 5, 7, 10, 12, 15, 19, 26};
+    int[] ends = {4, 6, 9, 11, 14, 18, 25, 29};
+
+    UnitResultBuffer units = new UnitResultBuffer(1);
+    unitRecognizer.detect(document, begins, ends, begins.length, units);
+    NumberResultBuffer numbers = new NumberResultBuffer(1);
+    detector.detect(document, begins, ends, begins.length, numbers);
+
+    assertEquals(2, units.size());
+    assertEquals(7, units.getBegin(0));
+    assertEquals(14, units.getEnd(0));
+    assertEquals("mg/dL", units.getCode(0));
+    assertEquals(26, units.getBegin(1));
+    assertEquals(29, units.getEnd(1));
+    assertEquals("mg", units.getCode(1));
+    assertEquals(2, numbers.size());
+    assertEquals(5, numbers.getBegin(0));
+    assertEquals(6, numbers.getEnd(0));
+    assertEquals(NumberType.DECIMAL, numbers.getNumberType(0));
+    assertEquals(19, numbers.getBegin(1));
+    assertEquals(25, numbers.getEnd(1));
+    assertEquals(20, numbers.getNumeratorUnscaled(1));
+    assertEquals(NumberType.CARDINAL, numbers.getNumberType(1));
+  }
+
+  private static UnitResultBuffer detect(String document) {
+    Tokenizer tokenizer = new Tokenizer();
+    int count = tokenizer.tokenize(document);
+    UnitResultBuffer units = new UnitResultBuffer();
+    UnitRecognizer.createDefaultFactory().create()
+        .detect(document, tokenizer.getBegins(), tokenizer.getEnds(), count, units);
+    return units;
+  }
+
+  @Test
+  void testCompositeUnits() {
+    UnitResultBuffer units = detect("glucose 90 milligrams per deciliter, insulin 2 units per hour");
+
+    assertEquals(2, units.size());
+    assertEquals(11, units.getBegin(0));
+    assertEquals(35, units.getEnd(0));
+    assertEquals("mg/dL", units.getCode(0));
+    assertEquals(47, units.getBegin(1));
+    assertEquals(61, units.getEnd(1));
+    assertEquals("U/h", units.getCode(1));
+  }
+
+  @Test
+  void testPhraseUnits() {
+    UnitResultBuffer units = detect("BP 120 mm Hg, 5 mm wide, 30 international units daily");
+
+    assertEquals(3, units.size());
+    assertEquals(7, units.getBegin(0));
+    assertEquals(12, units.getEnd(0));
+    assertEquals("mm[Hg]", units.getCode(0));
+    assertEquals(16, units.getBegin(1));
+    assertEquals(18, units.getEnd(1));
+    assertEquals("mm", units.getCode(1));
+    assertEquals(28, units.getBegin(2));
+    assertEquals(47, units.getEnd(2));
+    assertEquals("[iU]", units.getCode(2));
+  }
+
+  @Test
+  void testPartialPhraseAfterConnector() {
+    UnitResultBuffer units = detect("2 mg per international dose");
+
+    assertEquals(1, units.size());
+    assertEquals(2, units.getBegin(0));
+    assertEquals(4, units.getEnd(0));
+    assertEquals("mg", units.getCode(0));
+  }
+
+  @Test
+  void testAdjacentUnits() {
+    UnitRecognizer unitRecognizer = UnitRecognizer.createDefaultFactory().create();
+
+    assertFalse(unitRecognizer.advance("mg", 0, 2).isPresent());
+    Optional<Result> result = unitRecognizer.advance("mL", 3, 5);
+    assertTrue(result.isPresent());
+    assertEquals("mg", result.get().getCode());
+    assertEquals(0, result.get().getBegin());
+    result = unitRecognizer.finish();
+    assertTrue(result.isPresent());
+    assertEquals("mL", result.get().getCode());
+    assertEquals(3, result.get().getBegin());
+    assertFalse(unitRecognizer.finish().isPresent());
+  }
+
+  @Test
+  void testDeferredResults() {
+    Map<String, String> unitsOfMeasure = new TreeMap<>();
+    unitsOfMeasure.put("a", "[a]");
+    unitsOfMeasure.put("b", "[b]");
+    unitsOfMeasure.put("a b c", "[abc]");
+    UnitRecognizer unitRecognizer = UnitRecognizer.createFactory(unitsOfMeasure).create();
+
+    assertFalse(unitRecognizer.advance("a", 0, 1).isPresent());
+    assertFalse(unitRecognizer.advance("b", 2, 3).isPresent());
+    Optional<Result> result = unitRecognizer.advance("x", 4, 5);
+    assertTrue(result.isPresent());
+    assertEquals("[a]", result.get().getCode());
+    assertEquals(0, result.get().getBegin());
+    result = unitRecognizer.finish();
+    assertTrue(result.isPresent());
+    assertEquals("[b]", result.get().getCode());
+    assertEquals(2, result.get().getBegin());
+    assertFalse(unitRecognizer.finish().isPresent());
+  }
+
+  @Test
+  void testDetectDoesNotAllocate() {
+    java.lang.management.ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    assumeTrue(threadBean instanceof ThreadMXBean);
+    ThreadMXBean allocationBean = (ThreadMXBean) threadBean;
+    assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+    allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+    String document = "glucose 90 mg/dL, insulin 2 units per hour, BP 120 mm Hg, 5 MG. daily";
+    Tokenizer tokenizer = new Tokenizer();
+    int count = tokenizer.tokenize(document);
+    int[] begins = tokenizer.getBegins();
+    int[] ends = tokenizer.getEnds();
+    UnitRecognizer unitRecognizer = UnitRecognizer.createDefaultFactory().create();
+    int[] found = new int[1];
+    UnitSink sink = (begin, end, code) -> found[0]++;
+    for (int i = 0; i < 20_000; i++) {
+      unitRecognizer.detect(document, begins, ends, count, sink);
+    }
+
+    long threadId = Thread.currentThread().getId();
+    long before = allocationBean.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < 10_000; i++) {
+      unitRecognizer.detect(document, begins, ends, count, sink);
+    }
+    long allocated = allocationBean.getThreadAllocatedBytes(threadId) - before;
+
+    assertEquals(30_000 * 4, found[0]);
+    assertTrue(allocated < 10_000, "Allocated " + allocated + " bytes");
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.measures;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.umn.biomedicus.measures.Utf8Scanner.OffsetUnit;
+import edu.umn.biomedicus.numbers.NumberModel;
+import edu.umn.biomedicus.numbers.NumberResultBuffer;
+import edu.umn.biomedicus.numbers.Numbers;
+import edu.umn.biomedicus.numbers.Numbers.DetectorFactory;
+import edu.umn.biomedicus.numbers.Tokenizer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class Utf8ScannerTest {
+
+  private static final String DOCUMENT = "Café patient, BP 120/80 — gave twenty-five tablets of "
+      + "10mg, then 2.5 µg/kg 😀 -4 x 3rd dose at 98.6 °F; naïve ratio 1/2 mg per dL"
+      + " and one hundred and twenty, \u0661\u0662mg -\u0967,\u0968\u0969\u096a list 1,2,3";
+
+  private DetectorFactory detectorFactory;
+
+  private UnitRecognizer.Factory unitFactory;
+
+  private NumberResultBuffer expectedNumbers;
+
+  private UnitResultBuffer expectedUnits;
+
+  @BeforeEach
+  void setUp() {
+    detectorFactory = Numbers.createFactory(NumberModel.createDefaultNumberModel());
+    unitFactory = UnitRecognizer.createDefaultFactory();
+    Tokenizer tokenizer = new Tokenizer();
+    int count = tokenizer.tokenize(DOCUMENT);
+    expectedNumbers = new NumberResultBuffer();
+    detectorFactory.createCombinedNumberDetector()
+        .detect(DOCUMENT, tokenizer.getBegins(), tokenizer.getEnds(), count, expectedNumbers);
+    expectedUnits = new UnitResultBuffer();
+    unitFactory.create()
+        .detect(DOCUMENT, tokenizer.getBegins(), tokenizer.getEnds(), count, expectedUnits);
+  }
+
+  @Test
+  void testCharOffsets() {
+    Utf8Scanner scanner = new Utf8Scanner(detectorFactory, unitFactory, OffsetUnit.CHARS);
+    NumberResultBuffer numbers = new NumberResultBuffer();
+    UnitResultBuffer units = new UnitResultBuffer();
+
+    int length = scanner.scan(ByteBuffer.wrap(DOCUMENT.getBytes(StandardCharsets.UTF_8)),
+        numbers, units);
+
+    assertEquals(DOCUMENT.length(), length);
+    assertEquals(expectedNumbers.size(), numbers.size());
+    for (int i = 0; i < numbers.size(); i++) {
+      assertEquals(expectedNumbers.getBegin(i), numbers.getBegin(i));
+      assertEquals(expectedNumbers.getEnd(i), numbers.getEnd(i));
+      assertEquals(expectedNumbers.getNumerator(i), numbers.getNumerator(i));
+      assertEquals(expectedNumbers.getDenominator(i), numbers.getDenominator(i));
+    }
+    assertEquals(expectedUnits.size(), units.size());
+    for (int i = 0; i < units.size(); i++) {
+      assertEquals(expectedUnits.getBegin(i), units.getBegin(i));
+      assertEquals(expectedUnits.getEnd(i), units.getEnd(i));
+    }
+  }
+
+  @Test
+  void testByteOffsets() {
+    Utf8Scanner scanner = new Utf8Scanner(detectorFactory, unitFactory, OffsetUnit.BYTES);
+    NumberResultBuffer numbers = new NumberResultBuffer();
+    UnitResultBuffer units = new UnitResultBuffer();
+    byte[] bytes = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+
+    int length = scanner.scan(ByteBuffer.wrap(bytes), numbers, units);
+
+    assertEquals(bytes.length, length);
+    assertEquals(expectedNumbers.size(), numbers.size());
+    for (int i = 0; i < numbers.size(); i++) {
+      int begin = DOCUMENT.substring(0, expectedNumbers.getBegin(i))
+          .getBytes(StandardCharsets.UTF_8).length;
+      int end = DOCUMENT.substring(0, expectedNumbers.getEnd(i))
+          .getBytes(StandardCharsets.UTF_8).length;
+      assertEquals(begin, numbers.getBegin(i));
+      assertEquals(end, numbers.getEnd(i));
+    }
+  }
+
+  @Test
+  void testDegreeSignWithoutLetters() {
+    Utf8Scanner scanner = new Utf8Scanner(detectorFactory, unitFactory, OffsetUnit.CHARS);
+    NumberResultBuffer numbers = new NumberResultBuffer();
+    UnitResultBuffer units = new UnitResultBuffer();
+
+    int length = scanner.scan(ByteBuffer.wrap("90° angle 5 mg".getBytes(StandardCharsets.UTF_8)),
+        numbers, units);
+
+    assertEquals(14, length);
+    assertEquals(2, numbers.size());
+    assertEquals(10, numbers.getBegin(1));
+    assertEquals(11, numbers.getEnd(1));
+    assertEquals(2, units.size());
+    assertEquals(2, units.getBegin(0));
+    assertEquals(3, units.getEnd(0));
+    assertEquals(12, units.getBegin(1));
+    assertEquals(14, units.getEnd(1));
+  }
+
+  @Test
+  void testDegreeSignBeforePunctuation() {
+    Utf8Scanner scanner = new Utf8Scanner(detectorFactory, unitFactory, OffsetUnit.CHARS);
+    NumberResultBuffer numbers = new NumberResultBuffer();
+    UnitResultBuffer units = new UnitResultBuffer();
+
+    int length = scanner.scan(ByteBuffer.wrap("90°, 5 mg".getBytes(StandardCharsets.UTF_8)),
+        numbers, units);
+
+    assertEquals(9, length);
+    assertEquals(2, numbers.size());
+    assertEquals(5, numbers.getBegin(1));
+    assertEquals(6, numbers.getEnd(1));
+    assertEquals(2, units.size());
+    assertEquals(2, units.getBegin(0));
+    assertEquals(3, units.getEnd(0));
+    assertEquals(7, units.getBegin(1));
+    assertEquals(9, units.getEnd(1));
+  }
+
+  @Test
+  void testBufferPosition() {
+    Utf8Scanner scanner = new Utf8Scanner(detectorFactory, unitFactory, OffsetUnit.BYTES);
+    NumberResultBuffer numbers = new NumberResultBuffer();
+    ByteBuffer buffer = ByteBuffer.wrap("xx 10 mg".getBytes(StandardCharsets.US_ASCII));
+    buffer.position(3);
+
+    scanner.scan(buffer, numbers, new UnitResultBuffer());
+
+    assertEquals(3, buffer.position());
+    assertEquals(1, numbers.size());
+    assertEquals(0, numbers.getBegin(0));
+    assertEquals(2, numbers.getEnd(0));
+  }
+
+  @Test
+  void testReuseAfterFailedScan() {
+    Utf8Scanner scanner = new Utf8Scanner(detectorFactory, unitFactory, OffsetUnit.CHARS);
+    UnitSink failing = (begin, end, code) -> {
+      throw new IllegalStateException("Sink closed");
+    };
+    assertThrows(IllegalStateException.class, () -> scanner.scan(
+        ByteBuffer.wrap("took mg mg".getBytes(StandardCharsets.US_ASCII)),
+        new NumberResultBuffer(), failing));
+    UnitResultBuffer units = new UnitResultBuffer();
+
+    scanner.scan(ByteBuffer.wrap("dL".getBytes(StandardCharsets.US_ASCII)),
+        new NumberResultBuffer(), units);
+
+    assertEquals(1, units.size());
+    assertEquals(0, units.getBegin(0));
+    assertEquals(2, units.getEnd(0));
+    assertEquals("dL", units.getCode(0));
+  }
+
+  @Test
+  void testScanFile() throws Exception {
+    Path file = Files.createTempFile("note", ".txt");
+    try {
+      Files.write(file, DOCUMENT.getBytes(StandardCharsets.UTF_8));
+      Utf8Scanner scanner = new Utf8Scanner(detectorFactory, unitFactory, OffsetUnit.CHARS);
+      NumberResultBuffer numbers = new NumberResultBuffer();
+      UnitResultBuffer units = new UnitResultBuffer();
+
+      scanner.scan(file, numbers, units);
+
+      assertEquals(expectedNumbers.size(), numbers.size());
+      assertEquals(expectedUnits.size(), units.size());
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
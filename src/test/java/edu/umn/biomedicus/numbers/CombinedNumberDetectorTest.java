@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.numbers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CombinedNumberDetectorTest {
+
+  private CombinedNumberDetector detector;
+
+  @BeforeEach
+  void setUp() {
+    detector = Numbers.createNumberDetector(NumberModel.createDefaultNumberModel());
+  }
+
+  @Test
+  void testSkipsPunctuationBetweenNumbers() {
+    assertTrue(detector.tryToken("(", 0, 1).isEmpty());
+    assertTrue(detector.tryToken("twenty", 1, 7).isEmpty());
+    assertTrue(detector.tryToken("-", 7, 8).isEmpty());
+    assertTrue(detector.tryToken("five", 8, 12).isEmpty());
+    List<NumberResult> results = detector.tryToken(")", 12, 13);
+
+    assertEquals(1, results.size());
+    NumberResult result = results.get(0);
+    assertEquals(1, result.getBegin());
+    assertEquals(12, result.getEnd());
+    assertEquals(BigDecimal.valueOf(25), result.getNumerator());
+    assertEquals(NumberType.CARDINAL, result.getNumberType());
+  }
+
+  @Test
+  void testDecimalAfterWord() {
+    assertTrue(detector.tryToken("five", 0, 4).isEmpty());
+    List<NumberResult> results = detector.tryToken("5", 5, 6);
+
+    assertEquals(1, results.size());
+    assertEquals(BigDecimal.valueOf(5), results.get(0).getNumerator());
+    assertEquals(0, results.get(0).getBegin());
+    assertEquals(4, results.get(0).getEnd());
+  }
+
+  @Test
+  void testSlashContinuesFraction() {
+    assertTrue(detector.tryToken("1", 0, 1).isEmpty());
+    assertTrue(detector.tryToken("/", 1, 2).isEmpty());
+    assertTrue(detector.tryToken("2", 2, 3).isEmpty());
+    List<NumberResult> results = detector.tryToken(",", 3, 4);
+
+    assertEquals(1, results.size());
+    assertEquals(NumberType.FRACTION, results.get(0).getNumberType());
+    assertEquals(BigDecimal.valueOf(2), results.get(0).getDenominator());
+  }
+
+  @Test
+  void testDecimalAfterRejectedOrdinalMagnitude() {
+    assertTrue(detector.tryToken("hundredth", 0, 9).isEmpty());
+    List<NumberResult> results = detector.tryToken("4th", 10, 13);
+
+    assertEquals(1, results.size());
+    assertEquals(NumberType.ORDINAL, results.get(0).getNumberType());
+
+    assertTrue(detector.tryToken("five", 14, 18).isEmpty());
+    results = detector.finish();
+
+    assertEquals(1, results.size());
+    assertEquals(BigDecimal.valueOf(5), results.get(0).getNumerator());
+    assertNull(results.get(0).getDenominator());
+    assertEquals(NumberType.CARDINAL, results.get(0).getNumberType());
+  }
+}
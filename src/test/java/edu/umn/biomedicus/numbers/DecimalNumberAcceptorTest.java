@@ -75,6 +75,23 @@ class DecimalNumberAcceptorTest {
     assertEquals(result.getEnd(), 6);
   }
 
+  @Test
+  void testParseDecimalTrailingZeros() {
+    NumberResult result = decimalNumberAcceptor.tryToken("1.50", 0, 4);
+
+    assertNotNull(result);
+    assertEquals(new BigDecimal("1.5"), result.getNumerator());
+  }
+
+  @Test
+  void testParseDecimalOverflowsLong() {
+    NumberResult result = decimalNumberAcceptor.tryToken("-123,456,789,012,345,678,901.10", 0, 31);
+
+    assertNotNull(result);
+    assertEquals(new BigDecimal("-123456789012345678901.1"), result.getNumerator());
+    assertEquals(result.getNumberType(), NumberType.DECIMAL);
+  }
+
   @Test
   void testParseDecimalHyphen() {
     assertNull(decimalNumberAcceptor.tryToken("-", 0, 1));
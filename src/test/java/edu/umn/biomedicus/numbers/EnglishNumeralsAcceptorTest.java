@@ -19,6 +19,8 @@ package edu.umn.biomedicus.numbers;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -36,6 +38,12 @@ class EnglishNumeralsAcceptorTest {
 
   private static NumberDefinition fiveDef = new NumberDefinition(5, BasicNumberType.UNIT);
 
+  private static NumberDefinition twoDef = new NumberDefinition(2, BasicNumberType.UNIT);
+
+  private static NumberDefinition threeDef = new NumberDefinition(3, BasicNumberType.UNIT);
+
+  private static NumberDefinition nineDef = new NumberDefinition(9, BasicNumberType.UNIT);
+
   private static NumberDefinition fortyDef = new NumberDefinition(40,
       BasicNumberType.DECADE);
 
@@ -52,6 +60,15 @@ class EnglishNumeralsAcceptorTest {
 
   private static NumberDefinition millionDef = new NumberDefinition(2, BasicNumberType.MAGNITUDE);
 
+  private static NumberDefinition quadrillionDef = new NumberDefinition(5,
+      BasicNumberType.MAGNITUDE);
+
+  private static NumberDefinition quintillionDef = new NumberDefinition(6,
+      BasicNumberType.MAGNITUDE);
+
+  private static NumberDefinition centillionDef = new NumberDefinition(101,
+      BasicNumberType.MAGNITUDE);
+
   private static NumberDefinition sixths = new NumberDefinition(6, BasicNumberType.UNIT);
 
   private static NumberDefinition halfDef = new NumberDefinition(2, BasicNumberType.UNIT);
@@ -74,7 +91,7 @@ class EnglishNumeralsAcceptorTest {
 
   @Test
   void testBasicRecognizesUnit() {
-    when(numbers.getNumberDefinition("four")).thenReturn(fourDef);
+    when(numbers.lookup("four")).thenReturn(new NumberEntry(fourDef, null, null));
 
     assertTrue(basicNumberAcceptor.tryToken("four", 0, 4));
 
@@ -86,7 +103,7 @@ class EnglishNumeralsAcceptorTest {
 
   @Test
   void testBasicRecognizesTeen() {
-    when(numbers.getNumberDefinition("ten")).thenReturn(tenDef);
+    when(numbers.lookup("ten")).thenReturn(new NumberEntry(tenDef, null, null));
 
     assertTrue(basicNumberAcceptor.tryToken("ten", 0, 3));
 
@@ -98,8 +115,8 @@ class EnglishNumeralsAcceptorTest {
 
   @Test
   void testBasicRecognizesDecade() {
-    when(numbers.getNumberDefinition("forty")).thenReturn(fortyDef);
-    when(numbers.getNumberDefinition("people")).thenReturn(null);
+    when(numbers.lookup("forty")).thenReturn(new NumberEntry(fortyDef, null, null));
+    when(numbers.lookup("people")).thenReturn(null);
 
     assertFalse(basicNumberAcceptor.tryToken("forty", 0, 6));
     assertTrue(basicNumberAcceptor.tryToken("people", 7, 13));
@@ -112,8 +129,8 @@ class EnglishNumeralsAcceptorTest {
 
   @Test
   void testBasicRecongizesDecadeAnd() {
-    when(numbers.getNumberDefinition("forty")).thenReturn(fortyDef);
-    when(numbers.getNumberDefinition("five")).thenReturn(fiveDef);
+    when(numbers.lookup("forty")).thenReturn(new NumberEntry(fortyDef, null, null));
+    when(numbers.lookup("five")).thenReturn(new NumberEntry(fiveDef, null, null));
 
     assertFalse(basicNumberAcceptor.tryToken("forty", 0, 6));
     assertTrue(basicNumberAcceptor.tryToken("five", 7, 12));
@@ -126,9 +143,9 @@ class EnglishNumeralsAcceptorTest {
 
   @Test
   void testBasicRecognizesDecadeHyphen() {
-    when(numbers.getNumberDefinition("forty")).thenReturn(fortyDef);
-    when(numbers.getNumberDefinition("-")).thenReturn(null);
-    when(numbers.getNumberDefinition("five")).thenReturn(fiveDef);
+    when(numbers.lookup("forty")).thenReturn(new NumberEntry(fortyDef, null, null));
+    when(numbers.lookup("-")).thenReturn(null);
+    when(numbers.lookup("five")).thenReturn(new NumberEntry(fiveDef, null, null));
 
     assertFalse(basicNumberAcceptor.tryToken("forty", 0, 6));
     assertFalse(basicNumberAcceptor.tryToken("-", 6, 7));
@@ -142,8 +159,8 @@ class EnglishNumeralsAcceptorTest {
 
   @Test
   void testBasicDecadeHyphenUnrelated() {
-    when(numbers.getNumberDefinition("forty")).thenReturn(fortyDef);
-    when(numbers.getNumberDefinition("-")).thenReturn(null);
+    when(numbers.lookup("forty")).thenReturn(new NumberEntry(fortyDef, null, null));
+    when(numbers.lookup("-")).thenReturn(null);
 
     assertFalse(basicNumberAcceptor.tryToken("forty", 0, 5));
     assertFalse(basicNumberAcceptor.tryToken("-", 5, 6));
@@ -157,24 +174,22 @@ class EnglishNumeralsAcceptorTest {
 
   @Test
   void testBasicRandomWord() {
-    when(numbers.getNumberDefinition("the")).thenReturn(null);
-    when(numbers.getOrdinal("the")).thenReturn(null);
+    when(numbers.lookup("the")).thenReturn(null);
 
     assertFalse(basicNumberAcceptor.tryToken("the", 0, 3));
   }
 
   @Test
   void testMagnitude() {
-    when(numbers.getNumberDefinition("five")).thenReturn(fiveDef);
-    when(numbers.getNumberDefinition("billion")).thenReturn(billionDef);
-    when(numbers.getOrdinal("people")).thenReturn(null);
-    when(numbers.getNumberDefinition("people")).thenReturn(null);
+    when(numbers.lookup("five")).thenReturn(new NumberEntry(fiveDef, null, null));
+    when(numbers.lookup("billion")).thenReturn(new NumberEntry(billionDef, null, null));
+    when(numbers.lookup("people")).thenReturn(null);
 
     assertFalse(numberAcceptor.tryToken("five", 0, 4));
     assertFalse(numberAcceptor.tryToken("billion", 5, 12));
     assertTrue(numberAcceptor.tryToken("people", 13, 19));
 
-    assertEquals(numberAcceptor.value,
+    assertEquals(numberAcceptor.getValue(),
         BigDecimal.valueOf(5).multiply(BigDecimal.valueOf(10).pow(9)));
     assertEquals(numberAcceptor.begin, 0);
     assertEquals(numberAcceptor.end, 12);
@@ -183,22 +198,22 @@ class EnglishNumeralsAcceptorTest {
 
   @Test
   void testBasicOnly() {
-    when(numbers.getNumberDefinition("four")).thenReturn(fourDef);
+    when(numbers.lookup("four")).thenReturn(new NumberEntry(fourDef, null, null));
 
     assertFalse(numberAcceptor.tryToken("four", 0, 4));
     assertTrue(numberAcceptor.tryToken("people", 5, 11));
 
     assertEquals(numberAcceptor.begin, 0);
     assertEquals(numberAcceptor.end, 4);
-    assertEquals(numberAcceptor.value, BigDecimal.valueOf(4));
+    assertEquals(numberAcceptor.getValue(), BigDecimal.valueOf(4));
     assertFalse(numberAcceptor.consumedLastToken);
   }
 
   @Test
   void testHundred() {
-    when(numbers.getNumberDefinition("fifteen")).thenReturn(fifteenDef);
-    when(numbers.getNumberDefinition("forty")).thenReturn(fortyDef);
-    when(numbers.getNumberDefinition("five")).thenReturn(fiveDef);
+    when(numbers.lookup("fifteen")).thenReturn(new NumberEntry(fifteenDef, null, null));
+    when(numbers.lookup("forty")).thenReturn(new NumberEntry(fortyDef, null, null));
+    when(numbers.lookup("five")).thenReturn(new NumberEntry(fiveDef, null, null));
 
     assertFalse(numberAcceptor.tryToken("fifteen", 0, 7));
     assertFalse(numberAcceptor.tryToken("hundred", 8, 15));
@@ -206,16 +221,16 @@ class EnglishNumeralsAcceptorTest {
     assertFalse(numberAcceptor.tryToken("five", 22, 26));
     assertTrue(numberAcceptor.finish());
 
-    assertEquals(numberAcceptor.value, BigDecimal.valueOf(1545));
+    assertEquals(numberAcceptor.getValue(), BigDecimal.valueOf(1545));
     assertEquals(numberAcceptor.begin, 0);
     assertEquals(numberAcceptor.end, 26);
   }
 
   @Test
   void testChained() {
-    when(numbers.getNumberDefinition("five")).thenReturn(fiveDef);
-    when(numbers.getNumberDefinition("billion")).thenReturn(billionDef);
-    when(numbers.getNumberDefinition("million")).thenReturn(millionDef);
+    when(numbers.lookup("five")).thenReturn(new NumberEntry(fiveDef, null, null));
+    when(numbers.lookup("billion")).thenReturn(new NumberEntry(billionDef, null, null));
+    when(numbers.lookup("million")).thenReturn(new NumberEntry(millionDef, null, null));
 
     assertFalse(numberAcceptor.tryToken("five", 0, 4));
     assertFalse(numberAcceptor.tryToken("billion", 5, 12));
@@ -223,44 +238,211 @@ class EnglishNumeralsAcceptorTest {
     assertFalse(numberAcceptor.tryToken("million", 18, 25));
     assertTrue(numberAcceptor.finish());
 
-    assertEquals(numberAcceptor.value, BigDecimal.valueOf(5).multiply(BigDecimal.valueOf(10).pow(9))
+    assertEquals(numberAcceptor.getValue(), BigDecimal.valueOf(5).multiply(BigDecimal.valueOf(10).pow(9))
         .add(BigDecimal.valueOf(5).multiply(BigDecimal.valueOf(10).pow(6))));
     assertEquals(numberAcceptor.begin, 0);
     assertEquals(numberAcceptor.end, 25);
   }
 
+  @Test
+  void testChainedFitsInLong() {
+    when(numbers.lookup("five")).thenReturn(new NumberEntry(fiveDef, null, null));
+    when(numbers.lookup("billion")).thenReturn(new NumberEntry(billionDef, null, null));
+    when(numbers.lookup("million")).thenReturn(new NumberEntry(millionDef, null, null));
+
+    assertFalse(numberAcceptor.tryToken("five", 0, 4));
+    assertFalse(numberAcceptor.tryToken("billion", 5, 12));
+    assertFalse(numberAcceptor.tryToken("five", 13, 17));
+    assertFalse(numberAcceptor.tryToken("million", 18, 25));
+    assertTrue(numberAcceptor.finish());
+
+    assertNull(numberAcceptor.bigValue);
+    assertEquals(5_005_000_000L, numberAcceptor.value);
+  }
+
+  @Test
+  void testChainedBeyondLong() {
+    when(numbers.lookup("five")).thenReturn(new NumberEntry(fiveDef, null, null));
+    when(numbers.lookup("centillion")).thenReturn(new NumberEntry(centillionDef, null, null));
+    when(numbers.lookup("million")).thenReturn(new NumberEntry(millionDef, null, null));
+
+    assertFalse(numberAcceptor.tryToken("five", 0, 4));
+    assertFalse(numberAcceptor.tryToken("centillion", 5, 15));
+    assertFalse(numberAcceptor.tryToken("five", 16, 20));
+    assertFalse(numberAcceptor.tryToken("million", 21, 28));
+    assertTrue(numberAcceptor.finish());
+
+    assertNotNull(numberAcceptor.bigValue);
+    assertEquals(numberAcceptor.getValue(), BigDecimal.valueOf(5).multiply(BigDecimal.TEN.pow(303))
+        .add(BigDecimal.valueOf(5).multiply(BigDecimal.TEN.pow(6))));
+    assertEquals(numberAcceptor.end, 28);
+  }
+
+  @Test
+  void testAndAfterMagnitude() {
+    when(numbers.lookup("five")).thenReturn(new NumberEntry(fiveDef, null, null));
+    when(numbers.lookup("million")).thenReturn(new NumberEntry(millionDef, null, null));
+    when(numbers.lookup("four")).thenReturn(new NumberEntry(fourDef, null, null));
+
+    assertFalse(numberAcceptor.tryToken("five", 0, 4));
+    assertFalse(numberAcceptor.tryToken("million", 5, 12));
+    assertFalse(numberAcceptor.tryToken("and", 13, 16));
+    assertFalse(numberAcceptor.tryToken("four", 17, 21));
+    assertTrue(numberAcceptor.finish());
+
+    assertEquals(numberAcceptor.getValue(), BigDecimal.valueOf(5_000_004));
+    assertEquals(numberAcceptor.begin, 0);
+    assertEquals(numberAcceptor.end, 21);
+  }
+
+  @Test
+  void testAndAfterHundred() {
+    when(numbers.lookup("five")).thenReturn(new NumberEntry(fiveDef, null, null));
+    when(numbers.lookup("forty")).thenReturn(new NumberEntry(fortyDef, null, null));
+
+    assertFalse(numberAcceptor.tryToken("five", 0, 4));
+    assertFalse(numberAcceptor.tryToken("hundred", 5, 12));
+    assertFalse(numberAcceptor.tryToken("and", 13, 16));
+    assertFalse(numberAcceptor.tryToken("forty", 17, 22));
+    assertFalse(numberAcceptor.tryToken("five", 23, 27));
+    assertTrue(numberAcceptor.tryToken("people", 28, 34));
+
+    assertEquals(numberAcceptor.getValue(), BigDecimal.valueOf(545));
+    assertEquals(numberAcceptor.end, 27);
+    assertFalse(numberAcceptor.consumedLastToken);
+  }
+
+  @Test
+  void testHundredthsDenominator() {
+    when(numbers.lookup("four")).thenReturn(new NumberEntry(fourDef, null, null));
+    when(numbers.lookup("five")).thenReturn(new NumberEntry(fiveDef, null, null));
+
+    assertTrue(fractionAcceptor.tryToken("four", 0, 4).isEmpty());
+    assertTrue(fractionAcceptor.tryToken("five", 5, 9).isEmpty());
+    List<NumberResult> results = fractionAcceptor.tryToken("hundredths", 10, 20);
+
+    assertEquals(results.size(), 1);
+    NumberResult result = results.get(0);
+    assertEquals(result.getNumerator(), BigDecimal.valueOf(4));
+    assertEquals(result.getDenominator(), BigDecimal.valueOf(500));
+    assertEquals(result.getEnd(), 20);
+    assertEquals(result.getNumberType(), NumberType.FRACTION);
+  }
+
+  @Test
+  void testLargestMagnitudesInLong() {
+    when(numbers.lookup("nine")).thenReturn(new NumberEntry(nineDef, null, null));
+    when(numbers.lookup("quintillion")).thenReturn(new NumberEntry(quintillionDef, null, null));
+    when(numbers.lookup("two")).thenReturn(new NumberEntry(twoDef, null, null));
+    when(numbers.lookup("quadrillion")).thenReturn(new NumberEntry(quadrillionDef, null, null));
+
+    assertFalse(numberAcceptor.tryToken("nine", 0, 4));
+    assertFalse(numberAcceptor.tryToken("quintillion", 5, 16));
+    assertFalse(numberAcceptor.tryToken("two", 17, 20));
+    assertFalse(numberAcceptor.tryToken("hundred", 21, 28));
+    assertFalse(numberAcceptor.tryToken("quadrillion", 29, 40));
+    assertTrue(numberAcceptor.finish());
+
+    assertNull(numberAcceptor.bigValue);
+    assertEquals(9_200_000_000_000_000_000L, numberAcceptor.value);
+  }
+
+  @Test
+  void testSumPastLong() {
+    when(numbers.lookup("nine")).thenReturn(new NumberEntry(nineDef, null, null));
+    when(numbers.lookup("quintillion")).thenReturn(new NumberEntry(quintillionDef, null, null));
+    when(numbers.lookup("three")).thenReturn(new NumberEntry(threeDef, null, null));
+    when(numbers.lookup("quadrillion")).thenReturn(new NumberEntry(quadrillionDef, null, null));
+
+    assertFalse(numberAcceptor.tryToken("nine", 0, 4));
+    assertFalse(numberAcceptor.tryToken("quintillion", 5, 16));
+    assertFalse(numberAcceptor.tryToken("three", 17, 22));
+    assertFalse(numberAcceptor.tryToken("hundred", 23, 30));
+    assertFalse(numberAcceptor.tryToken("quadrillion", 31, 42));
+    assertTrue(numberAcceptor.finish());
+
+    assertNotNull(numberAcceptor.bigValue);
+    assertEquals(new BigDecimal("9300000000000000000"), numberAcceptor.getValue());
+    assertEquals(42, numberAcceptor.end);
+  }
+
+  @Test
+  void testMagnitudePastLong() {
+    when(numbers.lookup("ten")).thenReturn(new NumberEntry(tenDef, null, null));
+    when(numbers.lookup("quintillion")).thenReturn(new NumberEntry(quintillionDef, null, null));
+    when(numbers.lookup("five")).thenReturn(new NumberEntry(fiveDef, null, null));
+
+    assertFalse(numberAcceptor.tryToken("ten", 0, 3));
+    assertFalse(numberAcceptor.tryToken("quintillion", 4, 15));
+    assertFalse(numberAcceptor.tryToken("five", 16, 20));
+    assertTrue(numberAcceptor.finish());
+
+    assertNotNull(numberAcceptor.bigValue);
+    assertEquals(new BigDecimal("10000000000000000005"), numberAcceptor.getValue());
+  }
+
+  @Test
+  void testAndHalfPastLong() {
+    when(numbers.lookup("four")).thenReturn(new NumberEntry(fourDef, null, null));
+    when(numbers.lookup("five")).thenReturn(new NumberEntry(fiveDef, null, null));
+    when(numbers.lookup("quintillion")).thenReturn(new NumberEntry(quintillionDef, null, null));
+
+    assertTrue(fractionAcceptor.tryToken("four", 0, 4).isEmpty());
+    assertTrue(fractionAcceptor.tryToken("quintillion", 5, 16).isEmpty());
+    assertTrue(fractionAcceptor.tryToken("five", 17, 21).isEmpty());
+    assertTrue(fractionAcceptor.tryToken("and", 22, 25).isEmpty());
+    assertTrue(fractionAcceptor.tryToken("a", 26, 27).isEmpty());
+    List<NumberResult> results = fractionAcceptor.tryToken("half", 28, 32);
+
+    assertEquals(1, results.size());
+    assertTrue(results.get(0).isCompact());
+    assertEquals(8_000_000_000_000_000_011L, results.get(0).getNumeratorUnscaled());
+    assertEquals(BigDecimal.valueOf(2), results.get(0).getDenominator());
+
+    assertTrue(fractionAcceptor.tryToken("five", 0, 4).isEmpty());
+    assertTrue(fractionAcceptor.tryToken("quintillion", 5, 16).isEmpty());
+    assertTrue(fractionAcceptor.tryToken("five", 17, 21).isEmpty());
+    assertTrue(fractionAcceptor.tryToken("and", 22, 25).isEmpty());
+    assertTrue(fractionAcceptor.tryToken("a", 26, 27).isEmpty());
+    results = fractionAcceptor.tryToken("half", 28, 32);
+
+    assertEquals(1, results.size());
+    assertFalse(results.get(0).isCompact());
+    assertEquals(new BigDecimal("10000000000000000011"), results.get(0).getNumerator());
+    assertEquals(BigDecimal.valueOf(2), results.get(0).getDenominator());
+  }
+
   @Test
   void testEndOfSentenceHundred() {
-    when(numbers.getNumberDefinition("five")).thenReturn(fiveDef);
-    when(numbers.getNumberDefinition("hundred")).thenReturn(hundredDef);
+    when(numbers.lookup("five")).thenReturn(new NumberEntry(fiveDef, null, null));
+    when(numbers.lookup("hundred")).thenReturn(new NumberEntry(hundredDef, null, null));
 
     assertFalse(numberAcceptor.tryToken("five", 0, 4));
     assertFalse(numberAcceptor.tryToken("hundred", 5, 12));
     assertTrue(numberAcceptor.finish());
 
-    assertEquals(numberAcceptor.value, BigDecimal.valueOf(500));
+    assertEquals(numberAcceptor.getValue(), BigDecimal.valueOf(500));
     assertEquals(numberAcceptor.begin, 0);
     assertEquals(numberAcceptor.end, 12);
   }
 
   @Test
   void testEndOfSentenceDecade() {
-    when(numbers.getNumberDefinition("forty")).thenReturn(fortyDef);
+    when(numbers.lookup("forty")).thenReturn(new NumberEntry(fortyDef, null, null));
 
     assertFalse(numberAcceptor.tryToken("forty", 0, 5));
     assertTrue(numberAcceptor.finish());
 
-    assertEquals(numberAcceptor.value, BigDecimal.valueOf(40));
+    assertEquals(numberAcceptor.getValue(), BigDecimal.valueOf(40));
     assertEquals(numberAcceptor.begin, 0);
     assertEquals(numberAcceptor.end, 5);
   }
 
   @Test
   void testFraction() {
-    when(numbers.getNumberDefinition("five")).thenReturn(fiveDef);
-    when(numbers.getDenominator("forty")).thenReturn(null);
-    when(numbers.getNumberDefinition("forty")).thenReturn(fortyDef);
-    when(numbers.getDenominator("sixths")).thenReturn(sixths);
+    when(numbers.lookup("five")).thenReturn(new NumberEntry(fiveDef, null, null));
+    when(numbers.lookup("forty")).thenReturn(new NumberEntry(fortyDef, null, null));
+    when(numbers.lookup("sixths")).thenReturn(new NumberEntry(null, null, sixths));
 
     assertTrue(fractionAcceptor.tryToken("five", 0, 4).isEmpty());
     assertTrue(fractionAcceptor.tryToken("forty", 5, 10).isEmpty());
@@ -276,9 +458,8 @@ class EnglishNumeralsAcceptorTest {
 
   @Test
   void testFractionTwoWordFraction() {
-    when(numbers.getNumberDefinition("forty")).thenReturn(fortyDef);
-    when(numbers.getNumberDefinition("sixths")).thenReturn(null);
-    when(numbers.getDenominator("sixths")).thenReturn(sixths);
+    when(numbers.lookup("forty")).thenReturn(new NumberEntry(fortyDef, null, null));
+    when(numbers.lookup("sixths")).thenReturn(new NumberEntry(null, null, sixths));
 
     assertTrue(fractionAcceptor.tryToken("forty", 0, 5).isEmpty());
     List<NumberResult> results = fractionAcceptor.tryToken("sixths", 6, 12);
@@ -293,7 +474,7 @@ class EnglishNumeralsAcceptorTest {
 
   @Test
   void testAndHalf() {
-    when(numbers.getNumberDefinition("five")).thenReturn(fiveDef);
+    when(numbers.lookup("five")).thenReturn(new NumberEntry(fiveDef, null, null));
 
     assertTrue(fractionAcceptor.tryToken("five", 0, 4).isEmpty());
     assertTrue(fractionAcceptor.tryToken("and", 5, 8).isEmpty());
@@ -311,8 +492,8 @@ class EnglishNumeralsAcceptorTest {
 
   @Test
   void testFractionAcceptorNumeratorFinish() {
-    when(numbers.getNumberDefinition("five")).thenReturn(fiveDef);
-    when(numbers.getNumberDefinition("hundred")).thenReturn(hundredDef);
+    when(numbers.lookup("five")).thenReturn(new NumberEntry(fiveDef, null, null));
+    when(numbers.lookup("hundred")).thenReturn(new NumberEntry(hundredDef, null, null));
 
     assertTrue(fractionAcceptor.tryToken("five", 0, 4).isEmpty());
     assertTrue(fractionAcceptor.tryToken("hundred", 5, 12).isEmpty());
@@ -329,8 +510,8 @@ class EnglishNumeralsAcceptorTest {
 
   @Test
   void testConsumedLastToken() {
-    when(numbers.getNumberDefinition("five")).thenReturn(fiveDef);
-    when(numbers.getNumberDefinition("5")).thenReturn(null);
+    when(numbers.lookup("five")).thenReturn(new NumberEntry(fiveDef, null, null));
+    when(numbers.lookup("5")).thenReturn(null);
 
     assertTrue(fractionAcceptor.tryToken("five", 0, 4).isEmpty());
     List<NumberResult> results = fractionAcceptor.tryToken("5", 5, 6);
@@ -347,9 +528,8 @@ class EnglishNumeralsAcceptorTest {
 
   @Test
   void testOneHalf() {
-    when(numbers.getNumberDefinition("one")).thenReturn(oneDef);
-    when(numbers.getNumberDefinition("half")).thenReturn(null);
-    when(numbers.getDenominator("half")).thenReturn(halfDef);
+    when(numbers.lookup("one")).thenReturn(new NumberEntry(oneDef, null, null));
+    when(numbers.lookup("half")).thenReturn(new NumberEntry(null, null, halfDef));
 
     assertTrue(fractionAcceptor.tryToken("one", 0, 3).isEmpty());
     List<NumberResult> results = fractionAcceptor.tryToken("half", 4, 8);
@@ -361,9 +541,8 @@ class EnglishNumeralsAcceptorTest {
 
   @Test
   void testOneHyphenHalf() {
-    when(numbers.getNumberDefinition("one")).thenReturn(oneDef);
-    when(numbers.getNumberDefinition("half")).thenReturn(null);
-    when(numbers.getDenominator("half")).thenReturn(halfDef);
+    when(numbers.lookup("one")).thenReturn(new NumberEntry(oneDef, null, null));
+    when(numbers.lookup("half")).thenReturn(new NumberEntry(null, null, halfDef));
 
     assertTrue(fractionAcceptor.tryToken("one", 0, 3).isEmpty());
     assertTrue(fractionAcceptor.tryToken("-", 3, 4).isEmpty());
@@ -376,9 +555,8 @@ class EnglishNumeralsAcceptorTest {
 
   @Test
   void testNumberUnrelated() {
-    when(numbers.getNumberDefinition("four")).thenReturn(fourDef);
-    when(numbers.getNumberDefinition("hours")).thenReturn(null);
-    when(numbers.getDenominator("hours")).thenReturn(null);
+    when(numbers.lookup("four")).thenReturn(new NumberEntry(fourDef, null, null));
+    when(numbers.lookup("hours")).thenReturn(null);
 
     assertTrue(fractionAcceptor.tryToken("four", 0, 4).isEmpty());
     List<NumberResult> results = fractionAcceptor.tryToken("hours", 5, 9);
@@ -392,7 +570,7 @@ class EnglishNumeralsAcceptorTest {
 
   @Test
   void testEmptyToken() {
-    when(numbers.getNumberDefinition("")).thenReturn(null);
+    when(numbers.lookup("")).thenReturn(null);
 
     assertTrue(fractionAcceptor.tryToken("", 6, 6).isEmpty());
   }
@@ -18,10 +18,15 @@ package edu.umn.biomedicus.numbers;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -163,4 +168,75 @@ class FractionNumberAcceptorTest {
     assertEquals(result.getNumerator().compareTo(new BigDecimal(0)), 0);
     assertEquals(result.getNumberType(), NumberType.DECIMAL);
   }
+
+  @Test
+  void testFractionInDocument() {
+    String document = "bp 120/80 mmHg";
+    assertTrue(fractionNumberDetector.tryTokenAt(document, 0, 2).isEmpty());
+    assertTrue(fractionNumberDetector.tryTokenAt(document, 3, 6).isEmpty());
+    assertTrue(fractionNumberDetector.tryTokenAt(document, 6, 7).isEmpty());
+    assertTrue(fractionNumberDetector.tryTokenAt(document, 7, 9).isEmpty());
+    List<NumberResult> results = fractionNumberDetector.tryTokenAt(document, 10, 14);
+
+    assertEquals(results.size(), 1);
+    NumberResult result = results.get(0);
+    assertEquals(result.getBegin(), 3);
+    assertEquals(result.getEnd(), 9);
+    assertEquals(result.getNumerator().compareTo(new BigDecimal(120)), 0);
+    assertEquals(result.getDenominator().compareTo(BigDecimal.valueOf(80)), 0);
+    assertEquals(result.getNumberType(), NumberType.FRACTION);
+  }
+
+  @Test
+  void testFractionToSink() {
+    String document = "bp 120/80 mmHg";
+    List<String> numbers = new ArrayList<>();
+    NumberSink sink = new NumberSink() {
+      @Override
+      public void number(int begin, int end, NumberType numberType, long numeratorUnscaled,
+          int numeratorScale, long denominatorUnscaled, int denominatorScale) {
+        numbers.add(begin + " " + end + " " + numberType + " " + numeratorUnscaled + "e-"
+            + numeratorScale + " " + denominatorUnscaled + "e-" + denominatorScale);
+      }
+
+      @Override
+      public void bigNumber(int begin, int end, NumberType numberType, BigDecimal numerator,
+          @Nullable BigDecimal denominator) {
+        numbers.add(begin + " " + end + " " + numberType + " " + numerator + " " + denominator);
+      }
+    };
+    assertFalse(fractionNumberDetector.tryTokenAt(document, 0, 2, sink));
+    assertFalse(fractionNumberDetector.tryTokenAt(document, 3, 6, sink));
+    assertFalse(fractionNumberDetector.tryTokenAt(document, 6, 7, sink));
+    assertFalse(fractionNumberDetector.tryTokenAt(document, 7, 9, sink));
+    assertTrue(fractionNumberDetector.tryTokenAt(document, 10, 14, sink));
+    assertFalse(fractionNumberDetector.tryToken("1.50", 15, 19, sink));
+    assertTrue(fractionNumberDetector.finish(sink));
+
+    assertEquals(Arrays.asList("3 9 FRACTION 120e-0 80e-0", "15 19 DECIMAL 15e-1 1e-0"), numbers);
+  }
+
+  @Test
+  void testParallelStream() {
+    List<Token> tokens = new ArrayList<>();
+    String[] words = {"bp", "120", "/", "80", "and", "3.5", ",", "1", "/", "2", "2nd", "5", "6"};
+    for (int i = 0; i < 1000; i++) {
+      for (String word : words) {
+        int begin = tokens.isEmpty() ? 0 : tokens.get(tokens.size() - 1).getEnd() + 1;
+        tokens.add(new Token(begin, begin + word.length(), word));
+      }
+    }
+
+    List<NumberResult> expected = new FractionNumberDetector().checkTokens(tokens);
+    List<NumberResult> actual = fractionNumberDetector.stream(tokens.spliterator()).parallel()
+        .collect(Collectors.toList());
+
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).getBegin(), actual.get(i).getBegin());
+      assertEquals(expected.get(i).getEnd(), actual.get(i).getEnd());
+      assertEquals(expected.get(i).getNumerator(), actual.get(i).getNumerator());
+      assertEquals(expected.get(i).getDenominator(), actual.get(i).getDenominator());
+    }
+  }
 }
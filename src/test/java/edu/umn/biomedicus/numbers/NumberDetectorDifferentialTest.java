@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.umn.biomedicus.numbers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the detectors against {@link ReferenceNumberDetector}, the 2.0.x detectors, on
+ * documents of random tokens.
+ */
+class NumberDetectorDifferentialTest {
+
+  private static final String[] VOCABULARY = {
+      "zero", "one", "two", "three", "four", "five", "six", "seven", "eight", "nine", "ten",
+      "eleven", "twelve", "fifteen", "nineteen", "twenty", "thirty", "forty", "ninety",
+      "hundred", "thousand", "million", "billion", "trillion", "quadrillion", "quintillion",
+      "sextillion", "centillion", "first", "second", "third", "fourth", "fifth", "ninth",
+      "twelfth", "twentieth", "hundredth", "thousandth", "millionth", "half", "halves", "thirds",
+      "quarter", "quarters", "fifths", "tenths", "hundredths", "thousandths", "and", "a", "-",
+      "/", ",", ".", "the", "patient", "took", "mg", "of", "Twenty", "HUNDRED", "One", "0", "1",
+      "2", "4", "5", "10", "120", "80", "0.5", "3.25", "1,000", "-4", "+3", ".5", "007", "1st",
+      "2nd", "3rd", "4th", "21st", "10mg", "2.5.6", "12345678901234567890"
+  };
+
+  private static final String[] UNITS = {
+      "one", "two", "three", "four", "five", "six", "seven", "eight", "nine"
+  };
+
+  private static final String[] TEENS = {
+      "ten", "eleven", "twelve", "thirteen", "fourteen", "fifteen", "sixteen", "seventeen",
+      "eighteen", "nineteen"
+  };
+
+  private static final String[] DECADES = {
+      "twenty", "thirty", "forty", "fifty", "sixty", "seventy", "eighty", "ninety"
+  };
+
+  private static final String[] ENDINGS = {
+      "thousand", "million", "billion", "quintillion", "centillion", "hundredth", "thousandth",
+      "halves", "thirds", "quarters", "eighths", "hundredths", "and", "a", "half", "-", "people",
+      "5", "/"
+  };
+
+  /**
+   * Numerals whose values are on either side of {@link Long#MAX_VALUE}, where the acceptor moves
+   * from long arithmetic to BigDecimal.
+   */
+  private static final String[] NEAR_LONG_OVERFLOW = {
+      "nine quintillion", "nine quintillion two hundred quadrillion",
+      "nine quintillion three hundred quadrillion", "ten quintillion five",
+      "four quintillion five and a half", "five quintillion five and a half",
+      "nine quintillion five eighths", "nine quintillion three hundred quadrillion five eighths",
+      "nine quintillion two hundred quadrillion nine hundred trillion eight million",
+      "one centillion two quintillion", "nineteen quintillion and a half"
+  };
+
+  private static final int DOCUMENTS = 20_000;
+
+  private Numbers.DetectorFactory factory;
+
+  private NumberModel numberModel;
+
+  private NumberPrefilter prefilter;
+
+  @BeforeEach
+  void setUp() {
+    numberModel = NumberModel.createDefaultNumberModel();
+    factory = Numbers.createFactory(numberModel);
+    prefilter = new NumberPrefilter(numberModel);
+  }
+
+  private static List<Token> randomDocument(Random random, StringBuilder text) {
+    text.setLength(0);
+    List<Token> tokens = new ArrayList<>();
+    int count = 1 + random.nextInt(24);
+    for (int i = 0; i < count; i++) {
+      if (i > 0) {
+        text.append(' ');
+      }
+      String word = VOCABULARY[random.nextInt(VOCABULARY.length)];
+      tokens.add(new Token(text.length(), text.length() + word.length(), word));
+      text.append(word);
+    }
+    return tokens;
+  }
+
+  /**
+   * Creates a document of well-formed numerals like "forty - two", "six hundred and twelve" or
+   * "three million" joined by other words, so that the grammar gets past its first states more
+   * often than it does on random tokens.
+   */
+  private static List<Token> randomPhrases(Random random, StringBuilder text) {
+    List<String> words = new ArrayList<>();
+    int count = 1 + random.nextInt(8);
+    for (int i = 0; i < count; i++) {
+      switch (random.nextInt(4)) {
+        case 0:
+          words.add(UNITS[random.nextInt(UNITS.length)]);
+          break;
+        case 1:
+          words.add(TEENS[random.nextInt(TEENS.length)]);
+          break;
+        case 2:
+          words.add(DECADES[random.nextInt(DECADES.length)]);
+          if (random.nextBoolean()) {
+            if (random.nextBoolean()) {
+              words.add("-");
+            }
+            words.add(UNITS[random.nextInt(UNITS.length)]);
+          }
+          break;
+        default:
+          words.add(UNITS[random.nextInt(UNITS.length)]);
+          words.add("hundred");
+          if (random.nextBoolean()) {
+            words.add("and");
+          }
+          if (random.nextBoolean()) {
+            words.add(DECADES[random.nextInt(DECADES.length)]);
+          }
+          words.add(UNITS[random.nextInt(UNITS.length)]);
+      }
+      words.add(ENDINGS[random.nextInt(ENDINGS.length)]);
+    }
+    text.setLength(0);
+    List<Token> tokens = new ArrayList<>();
+    for (String word : words) {
+      if (text.length() > 0) {
+        text.append(' ');
+      }
+      tokens.add(new Token(text.length(), text.length() + word.length(), word));
+      text.append(word);
+    }
+    return tokens;
+  }
+
+  private static String format(List<NumberResult> results) {
+    StringBuilder builder = new StringBuilder();
+    for (NumberResult result : results) {
+      builder.append(result.getBegin()).append(' ').append(result.getEnd()).append(' ')
+          .append(result.getNumerator()).append(' ').append(result.getDenominator()).append(' ')
+          .append(result.getNumberType()).append('\n');
+    }
+    return builder.toString();
+  }
+
+  private static String format(NumberResultBuffer buffer) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < buffer.size(); i++) {
+      builder.append(buffer.getBegin(i)).append(' ').append(buffer.getEnd(i)).append(' ')
+          .append(buffer.getNumerator(i)).append(' ').append(buffer.getDenominator(i))
+          .append(' ').append(buffer.getNumberType(i)).append('\n');
+    }
+    return builder.toString();
+  }
+
+  private void assertSamePaths(String expected, Supplier<? extends AbstractNumberDetector> detectors,
+      String text, List<Token> tokens) {
+    assertEquals(expected, format(detectors.get().checkTokens(tokens)), text);
+
+    int[] begins = new int[tokens.size()];
+    int[] ends = new int[tokens.size()];
+    for (int i = 0; i < begins.length; i++) {
+      begins[i] = tokens.get(i).getBegin();
+      ends[i] = tokens.get(i).getEnd();
+    }
+    NumberResultBuffer buffer = new NumberResultBuffer();
+    detectors.get().detect(text, begins, ends, begins.length, buffer);
+    assertEquals(expected, format(buffer), text);
+
+    buffer.clear();
+    detectors.get().checkTokens(tokens, prefilter.scan(text), buffer);
+    assertEquals(expected, format(buffer), text);
+  }
+
+  @Test
+  void testCombinedNumberDetector() {
+    Random random = new Random(2017);
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < DOCUMENTS; i++) {
+      List<Token> tokens = randomDocument(random, text);
+      String expected = format(new ReferenceNumberDetector(numberModel).checkCombined(tokens));
+      assertSamePaths(expected, factory::createCombinedNumberDetector, text.toString(), tokens);
+    }
+  }
+
+  @Test
+  void testEnglishNumeralsAcceptor() {
+    Random random = new Random(2018);
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < DOCUMENTS; i++) {
+      List<Token> tokens = randomDocument(random, text);
+      String expected = format(new ReferenceNumberDetector(numberModel).checkEnglish(tokens));
+      assertSamePaths(expected, factory::createEnglishNumeralsAcceptor, text.toString(), tokens);
+    }
+  }
+
+  @Test
+  void testEnglishNumeralPhrases() {
+    Random random = new Random(2020);
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < DOCUMENTS; i++) {
+      List<Token> tokens = randomPhrases(random, text);
+      String expected = format(new ReferenceNumberDetector(numberModel).checkEnglish(tokens));
+      assertSamePaths(expected, factory::createEnglishNumeralsAcceptor, text.toString(), tokens);
+      expected = format(new ReferenceNumberDetector(numberModel).checkCombined(tokens));
+      assertSamePaths(expected, factory::createCombinedNumberDetector, text.toString(), tokens);
+    }
+  }
+
+  @Test
+  void testValuesNearLongOverflow() {
+    Random random = new Random(2021);
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < DOCUMENTS / 10; i++) {
+      text.setLength(0);
+      List<Token> tokens = new ArrayList<>();
+      int count = 1 + random.nextInt(3);
+      for (int j = 0; j < count; j++) {
+        String numeral = NEAR_LONG_OVERFLOW[random.nextInt(NEAR_LONG_OVERFLOW.length)];
+        for (String word : (numeral + " took").split(" ")) {
+          if (text.length() > 0) {
+            text.append(' ');
+          }
+          tokens.add(new Token(text.length(), text.length() + word.length(), word));
+          text.append(word);
+        }
+      }
+      String expected = format(new ReferenceNumberDetector(numberModel).checkCombined(tokens));
+      assertSamePaths(expected, factory::createCombinedNumberDetector, text.toString(), tokens);
+    }
+  }
+
+  @Test
+  void testFractionNumberDetector() {
+    Random random = new Random(2019);
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < DOCUMENTS; i++) {
+      List<Token> tokens = randomDocument(random, text);
+      String expected = format(new ReferenceNumberDetector(numberModel).checkFractions(tokens));
+      assertSamePaths(expected, factory::createFractionNumberDetector, text.toString(), tokens);
+    }
+  }
+}
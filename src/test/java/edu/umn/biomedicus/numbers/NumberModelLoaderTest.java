@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.numbers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import edu.umn.biomedicus.numbers.NumberModelLoader.Report;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NumberModelLoaderTest {
+
+  private Path nrnum;
+
+  private Path nrvar;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    nrnum = Files.createTempFile("NRNUM", null);
+    nrvar = Files.createTempFile("NRVAR", null);
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    Files.deleteIfExists(nrnum);
+    Files.deleteIfExists(nrvar);
+  }
+
+  private void write(Path path, String contents) throws IOException {
+    Files.write(path, contents.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void testLoad() throws IOException {
+    write(nrnum, "N0000006|five|unit|5|5||plural\n"
+        + "N0000029|thousand|magnitude|1000|1000|1|plural\n");
+    write(nrvar, "fifth|N0000006|ordinal|five\n"
+        + "fifths|N0000006|denominator,plural|five\n");
+
+    Report report = NumberModelLoader.load(nrnum, nrvar);
+
+    assertEquals(2, report.getNrnumLoaded());
+    assertEquals(0, report.getNrnumSkipped());
+    assertEquals(2, report.getNrvarLoaded());
+    assertEquals(0, report.getNrvarSkipped());
+    NumberModel numberModel = report.getNumberModel();
+    NumberEntry five = numberModel.lookup("five");
+    assertNotNull(five);
+    assertEquals(5, five.getNumber().getValue());
+    NumberEntry thousand = numberModel.lookup("thousand");
+    assertNotNull(thousand);
+    assertEquals(1, thousand.getNumber().getValue());
+    assertEquals(BasicNumberType.MAGNITUDE, thousand.getNumber().getBasicNumberType());
+    NumberEntry fifth = numberModel.lookup("fifth");
+    assertNotNull(fifth);
+    assertEquals(5, fifth.getOrdinal().getValue());
+    assertNull(fifth.getDenominator());
+    NumberEntry fifths = numberModel.lookup("fifths");
+    assertNotNull(fifths);
+    assertEquals(5, fifths.getDenominator().getValue());
+  }
+
+  @Test
+  void testMalformedLinesSkipped() throws IOException {
+    write(nrnum, "N0000006|five|unit|5|5||plural\n"
+        + "\n"
+        + "N0000007|six|unit|six\n"
+        + "N0000008|seven|prime|7\n"
+        + "N0000009|eight|unit\n");
+    write(nrvar, "fifth|N0000006|ordinal|five\n"
+        + "sixth|N0000007|ordinal|\n");
+
+    Report report = NumberModelLoader.load(nrnum, nrvar);
+
+    assertEquals(1, report.getNrnumLoaded());
+    assertEquals(4, report.getNrnumSkipped());
+    assertEquals(1, report.getNrvarLoaded());
+    assertEquals(1, report.getNrvarSkipped());
+    assertNull(report.getNumberModel().lookup("six"));
+    assertNull(report.getNumberModel().lookup("sixth"));
+  }
+
+  @Test
+  void testLineTerminators() throws IOException {
+    write(nrnum, "N0000006|five|unit|5|5||plural\r\nN0000007|six|unit|6\rN0000008|seven|unit|7");
+    write(nrvar, "");
+
+    Report report = NumberModelLoader.load(nrnum, nrvar);
+
+    assertEquals(3, report.getNrnumLoaded());
+    assertEquals(0, report.getNrnumSkipped());
+    assertEquals(6, report.getNumberModel().lookup("six").getNumber().getValue());
+    assertEquals(7, report.getNumberModel().lookup("seven").getNumber().getValue());
+  }
+
+  @Test
+  void testLinesLongerThanBuffer() throws IOException {
+    StringBuilder word = new StringBuilder();
+    for (int i = 0; i < 100_000; i++) {
+      word.append('a');
+    }
+    write(nrnum, "N0000001|" + word + "|unit|1\nN0000002|two|unit|2\n");
+    write(nrvar, "");
+
+    Report report = NumberModelLoader.load(nrnum, nrvar);
+
+    assertEquals(2, report.getNrnumLoaded());
+    assertNotNull(report.getNumberModel().lookup(word));
+    assertNotNull(report.getNumberModel().lookup("two"));
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.numbers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.umn.biomedicus.internal.Snapshots;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NumberModelTest {
+
+  private Path snapshot;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    snapshot = Files.createTempFile("numbers", ".snapshot");
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    Files.deleteIfExists(snapshot);
+  }
+
+  @Test
+  void testDefaultModelMatchesLexiconFiles() throws IOException, URISyntaxException {
+    Path nrnum = resource("NRNUM");
+    Path nrvar = resource("NRVAR");
+    NumberModel parsed = NumberModel.createNumberModel(nrnum, nrvar);
+    NumberModel generated = NumberModel.createDefaultNumberModel();
+
+    for (String line : Files.readAllLines(nrnum, StandardCharsets.UTF_8)) {
+      assertSameEntry(parsed.lookup(line.split("\\|")[1]),
+          generated.lookup(line.split("\\|")[1]));
+    }
+    for (String line : Files.readAllLines(nrvar, StandardCharsets.UTF_8)) {
+      assertSameEntry(parsed.lookup(line.split("\\|")[0]),
+          generated.lookup(line.split("\\|")[0]));
+    }
+    assertNull(generated.lookup("people"));
+  }
+
+  @Test
+  void testSnapshotRoundTrip() throws IOException {
+    NumberModel.createNumberModel().writeSnapshot(snapshot);
+    NumberModel numberModel = NumberModel.readSnapshot(snapshot);
+
+    NumberEntry five = numberModel.lookup("Five");
+    assertNotNull(five);
+    assertNotNull(five.getNumber());
+    assertEquals(5, five.getNumber().getValue());
+    assertEquals(BasicNumberType.UNIT, five.getNumber().getBasicNumberType());
+
+    NumberEntry fifths = numberModel.lookup("fifths");
+    assertNotNull(fifths);
+    assertNull(fifths.getNumber());
+    assertNotNull(fifths.getDenominator());
+    assertEquals(5, fifths.getDenominator().getValue());
+
+    assertNull(numberModel.lookup("people"));
+  }
+
+  @Test
+  void testCorruptSnapshotRejected() throws IOException {
+    NumberModel.createNumberModel().writeSnapshot(snapshot);
+    byte[] bytes = Files.readAllBytes(snapshot);
+    bytes[bytes.length / 2] ^= 1;
+    Files.write(snapshot, bytes);
+
+    assertThrows(IOException.class, () -> NumberModel.readSnapshot(snapshot));
+  }
+
+  @Test
+  void testOtherSnapshotRejected() throws IOException {
+    Snapshots.write(snapshot, 0x12345678, 1, out -> out.writeInt(0));
+
+    assertThrows(IOException.class, () -> NumberModel.readSnapshot(snapshot));
+  }
+
+  private static Path resource(String name) throws URISyntaxException {
+    return Paths.get(NumberModelTest.class.getResource("/edu/umn/biomedicus/measures/" + name)
+        .toURI());
+  }
+
+  private static void assertSameEntry(NumberEntry expected, NumberEntry actual) {
+    assertNotNull(expected);
+    assertNotNull(actual);
+    assertSameDefinition(expected.getNumber(), actual.getNumber());
+    assertSameDefinition(expected.getOrdinal(), actual.getOrdinal());
+    assertSameDefinition(expected.getDenominator(), actual.getDenominator());
+  }
+
+  private static void assertSameDefinition(NumberDefinition expected, NumberDefinition actual) {
+    if (expected == null) {
+      assertNull(actual);
+    } else {
+      assertNotNull(actual);
+      assertEquals(expected.getValue(), actual.getValue());
+      assertEquals(expected.getBasicNumberType(), actual.getBasicNumberType());
+    }
+  }
+}
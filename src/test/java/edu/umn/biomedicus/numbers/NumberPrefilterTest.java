@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.numbers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NumberPrefilterTest {
+
+  private NumberModel numberModel;
+
+  private NumberPrefilter prefilter;
+
+  @BeforeEach
+  void setUp() {
+    numberModel = NumberModel.createDefaultNumberModel();
+    prefilter = new NumberPrefilter(numberModel);
+  }
+
+  private static List<Token> tokenize(String text) {
+    List<Token> tokens = new ArrayList<>();
+    Matcher matcher = Pattern.compile("[\\p{L}]+|[0-9]+|[^\\s\\p{L}0-9]").matcher(text);
+    while (matcher.find()) {
+      tokens.add(new Token(matcher.start(), matcher.end(), matcher.group()));
+    }
+    return tokens;
+  }
+
+  @Test
+  void testWindows() {
+    CandidateWindows windows = prefilter.scan("The patient took twenty five tablets.");
+
+    assertEquals(2, windows.size());
+    assertEquals(17, windows.getBegin(0));
+    assertEquals(23, windows.getEnd(0));
+    assertEquals(24, windows.getBegin(1));
+    assertEquals(28, windows.getEnd(1));
+    assertTrue(windows.overlaps(20, 30));
+    assertFalse(windows.overlaps(0, 16));
+    assertFalse(windows.overlaps(23, 24));
+  }
+
+  @Test
+  void testSkippedFraction() {
+    CandidateWindows windows = prefilter.scan("No acute distress, alert and oriented.");
+
+    assertEquals(0, windows.size());
+    assertEquals(1.0, windows.getSkippedFraction());
+    assertEquals(0.0, prefilter.scan("").getSkippedFraction());
+  }
+
+  @Test
+  void testSameResultsAsAllTokens() {
+    String text = "Patient is a 54 year old male, BP 120/80, seen three times in the past "
+        + "twenty-one days. He was given one and a half tablets, then 2.5 mg on the "
+        + "third day. The one hundredth visit.";
+    List<Token> tokens = tokenize(text);
+
+    List<NumberResult> expected = Numbers.createNumberDetector(numberModel)
+        .checkTokens(tokens);
+    ResultCollector collector = new ResultCollector();
+    Numbers.createNumberDetector(numberModel)
+        .checkTokens(tokens, prefilter.scan(text), collector);
+
+    List<NumberResult> actual = collector.take();
+
+    assertTrue(expected.size() > 3);
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).getBegin(), actual.get(i).getBegin());
+      assertEquals(expected.get(i).getEnd(), actual.get(i).getEnd());
+      assertEquals(expected.get(i).getNumerator(), actual.get(i).getNumerator());
+      assertEquals(expected.get(i).getDenominator(), actual.get(i).getDenominator());
+    }
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.numbers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import org.junit.jupiter.api.Test;
+
+class NumberResultTest {
+
+  @Test
+  void testPrimitiveMaterializesBigDecimal() {
+    NumberResult result = new NumberResult(0, 4, 4501, 2, 3, 0, NumberType.FRACTION);
+
+    assertTrue(result.isCompact());
+    assertEquals(new BigDecimal("45.01"), result.getNumerator());
+    assertEquals(BigDecimal.valueOf(3), result.getDenominator());
+  }
+
+  @Test
+  void testBigDecimalPrimitiveAccessors() {
+    NumberResult result = new NumberResult(0, 4, new BigDecimal("-1.25"), BigDecimal.ONE,
+        NumberType.DECIMAL);
+
+    assertTrue(result.isCompact());
+    assertEquals(-125, result.getNumeratorUnscaled());
+    assertEquals(2, result.getNumeratorScale());
+    assertEquals(1, result.getDenominatorUnscaled());
+    assertEquals(0, result.getDenominatorScale());
+  }
+
+  @Test
+  void testBigDecimalTooLarge() {
+    NumberResult result = new NumberResult(0, 4, new BigDecimal("1e30").setScale(0),
+        BigDecimal.ONE, NumberType.DECIMAL);
+
+    assertFalse(result.isCompact());
+    assertThrows(ArithmeticException.class, result::getNumeratorUnscaled);
+  }
+
+  @Test
+  void testBigDecimalNullNumerator() {
+    NumberResult result = new NumberResult(0, 4, null, null, NumberType.DECIMAL);
+
+    assertNull(result.getNumerator());
+    assertNull(result.getDenominator());
+  }
+}
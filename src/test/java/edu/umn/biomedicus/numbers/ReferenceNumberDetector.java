@@ -0,0 +1,723 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package edu.umn.biomedicus.numbers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * The combined number detector as it was in 2.0.x, working on strings with BigDecimal arithmetic
+ * and no shortcuts. It is kept as the oracle for {@link NumberDetectorDifferentialTest}, so it
+ * should not be changed to follow the detectors in the main tree.
+ */
+class ReferenceNumberDetector {
+
+  private final FractionDetector fractionDetector = new FractionDetector();
+
+  private final EnglishDetector englishDetector;
+
+  ReferenceNumberDetector(NumberModel numberModel) {
+    englishDetector = new EnglishDetector(numberModel);
+  }
+
+  /**
+   * Runs the combined detector over the tokens.
+   */
+  List<NumberResult> checkCombined(List<Token> tokens) {
+    List<NumberResult> results = new ArrayList<>();
+    for (Token token : tokens) {
+      List<NumberResult> found = fractionDetector.tryToken(token.getText(), token.getBegin(),
+          token.getEnd());
+      if (!found.isEmpty()) {
+        englishDetector.reset();
+      } else {
+        found = englishDetector.tryToken(token.getText(), token.getBegin(), token.getEnd());
+        if (!found.isEmpty()) {
+          fractionDetector.reset();
+        }
+      }
+      results.addAll(found);
+    }
+    List<NumberResult> found = fractionDetector.finish();
+    if (!found.isEmpty()) {
+      englishDetector.reset();
+    } else {
+      found = englishDetector.finish();
+    }
+    results.addAll(found);
+    return results;
+  }
+
+  /**
+   * Runs only the english numerals detector over the tokens.
+   */
+  List<NumberResult> checkEnglish(List<Token> tokens) {
+    List<NumberResult> results = new ArrayList<>();
+    for (Token token : tokens) {
+      results.addAll(englishDetector.tryToken(token.getText(), token.getBegin(), token.getEnd()));
+    }
+    results.addAll(englishDetector.finish());
+    return results;
+  }
+
+  /**
+   * Runs only the decimal fraction detector over the tokens.
+   */
+  List<NumberResult> checkFractions(List<Token> tokens) {
+    List<NumberResult> results = new ArrayList<>();
+    for (Token token : tokens) {
+      results.addAll(fractionDetector.tryToken(token.getText(), token.getBegin(), token.getEnd()));
+    }
+    results.addAll(fractionDetector.finish());
+    return results;
+  }
+
+  @Nullable
+  private static NumberResult parseDecimal(String token, int tokenBegin, int tokenEnd) {
+    boolean isOrdinal = false;
+
+    if (token.length() == 0) {
+      return null;
+    }
+
+    char ch = token.charAt(0);
+
+    StringBuilder digits;
+    boolean negative = false;
+    if (ch == '+') {
+      digits = new StringBuilder();
+    } else if (ch == '-') {
+      digits = new StringBuilder();
+      negative = true;
+    } else if (Character.isDigit(ch)) {
+      digits = new StringBuilder();
+      digits.append(ch);
+    } else {
+      return null;
+    }
+
+    int period = -1;
+    for (int i = 1; i < token.length(); i++) {
+      ch = token.charAt(i);
+      if (ch == ',') {
+        continue;
+      }
+
+      if (ch == '.') {
+        period = digits.length();
+      } else if (Character.isDigit(ch)) {
+        digits.append(ch);
+      } else {
+        if (i + 1 < token.length()) {
+          if ((ch == 't' && token.charAt(i + 1) == 'h')
+              || (ch == 's' && token.charAt(i + 1) == 't')
+              || (ch == 'n' && token.charAt(i + 1) == 'd')
+              || (ch == 'r' && token.charAt(i + 1) == 'd')) {
+            isOrdinal = true;
+            break;
+          }
+        }
+      }
+    }
+
+    if (digits.length() == 0) {
+      return null;
+    }
+
+    BigDecimal value = BigDecimal.ZERO;
+    BigDecimal ten = BigDecimal.valueOf(10);
+
+    if (period != -1) {
+      for (int i = 0; i < period; i++) {
+        value = value.multiply(ten).add(new BigDecimal("" + digits.charAt(i)));
+      }
+      for (int i = period; i < digits.length(); i++) {
+        value = value.add(new BigDecimal("" + digits.charAt(i))
+            .divide(ten.pow(i - period + 1)));
+      }
+    } else {
+      for (int i = 0; i < digits.length(); i++) {
+        value = value.multiply(ten).add(new BigDecimal("" + digits.charAt(i)));
+      }
+    }
+    if (negative) {
+      value = value.negate();
+    }
+
+    return new NumberResult(tokenBegin, tokenEnd, value, BigDecimal.ONE,
+        isOrdinal ? NumberType.ORDINAL : NumberType.DECIMAL);
+  }
+
+  private static class FractionDetector {
+
+    @Nullable
+    private NumberResult numerator;
+
+    @Nullable
+    private NumberResult denominator;
+
+    private boolean sawSlash;
+
+    void reset() {
+      numerator = null;
+      denominator = null;
+      sawSlash = false;
+    }
+
+    List<NumberResult> tryToken(String token, int begin, int end) {
+      NumberResult next = parseDecimal(token, begin, end);
+      if (numerator == null) {
+        numerator = next;
+        if (numerator != null && numerator.getNumberType().equals(NumberType.ORDINAL)) {
+          return swapAndReturnNumerator(null);
+        }
+      } else if (denominator == null) {
+        if (sawSlash) {
+          denominator = next;
+          if (denominator == null) {
+            List<NumberResult> result = swapAndReturnNumerator(null);
+            sawSlash = false;
+            return result;
+          }
+        } else if (token.length() == 1 && token.charAt(0) == '/') {
+          sawSlash = true;
+        } else {
+          return swapAndReturnNumerator(next);
+        }
+      } else {
+        List<NumberResult> result;
+        if (token.length() == 1 && token.charAt(0) == '/'
+            || denominator.getNumerator().intValue() == 0) {
+          result = Arrays.asList(numerator, denominator);
+        } else {
+          result = buildFraction();
+        }
+        reset();
+        return result;
+      }
+      return Collections.emptyList();
+    }
+
+    List<NumberResult> finish() {
+      List<NumberResult> result;
+      if (numerator == null) {
+        result = Collections.emptyList();
+      } else if (denominator == null) {
+        result = swapAndReturnNumerator(null);
+      } else {
+        result = buildFraction();
+      }
+      reset();
+      return result;
+    }
+
+    private List<NumberResult> buildFraction() {
+      return Collections.singletonList(new NumberResult(numerator.getBegin(),
+          denominator.getEnd(), numerator.getNumerator(), denominator.getNumerator(),
+          NumberType.FRACTION));
+    }
+
+    private List<NumberResult> swapAndReturnNumerator(@Nullable NumberResult replacement) {
+      List<NumberResult> result = Collections.singletonList(numerator);
+      numerator = replacement;
+      return result;
+    }
+  }
+
+  private static class EnglishDetector {
+
+    private final NonFractionAcceptor nonFractionAcceptor;
+
+    @Nullable
+    private BigDecimal numerator;
+
+    @Nullable
+    private BigDecimal denominator;
+
+    private int begin;
+
+    private int end;
+
+    @Nullable
+    private NumberType numberType;
+
+    private int andHalf = 0;
+
+    EnglishDetector(NumberModel numberModel) {
+      nonFractionAcceptor = new NonFractionAcceptor(numberModel,
+          new BasicNumberAcceptor(numberModel));
+    }
+
+    void reset() {
+      numerator = null;
+      denominator = null;
+      nonFractionAcceptor.reset();
+      numberType = null;
+      andHalf = 0;
+    }
+
+    List<NumberResult> tryToken(String token, int tokenBegin, int tokenEnd) {
+      NumberResult previous = null;
+      for (int i = 0; i < 2; i++) {
+        if (numerator == null) {
+          if (nonFractionAcceptor.tryToken(token, tokenBegin, tokenEnd)) {
+            numerator = nonFractionAcceptor.value;
+            begin = nonFractionAcceptor.begin;
+            end = nonFractionAcceptor.end;
+            nonFractionAcceptor.reset();
+            nonFractionAcceptor.setDenominator();
+
+            if (nonFractionAcceptor.isOrdinal) {
+              numberType = NumberType.ORDINAL;
+              NumberResult current = new NumberResult(begin, end, numerator, BigDecimal.ONE,
+                  numberType);
+              reset();
+              return previous != null ? Arrays.asList(previous, current)
+                  : Collections.singletonList(current);
+            }
+
+            numberType = NumberType.CARDINAL;
+
+            if (nonFractionAcceptor.consumedLastToken) {
+              return listOf(previous);
+            }
+          } else {
+            return listOf(previous);
+          }
+        }
+
+        if (token.equals("-")) {
+          return listOf(previous);
+        } else if (andHalf == 1 && token.equalsIgnoreCase("a")) {
+          andHalf = 2;
+        } else if (andHalf == 2 && token.equalsIgnoreCase("half")) {
+          denominator = BigDecimal.valueOf(2);
+          numerator = numerator.multiply(denominator).add(BigDecimal.ONE);
+          numberType = NumberType.FRACTION;
+          end = tokenEnd;
+          NumberResult halfResult = stateToResult();
+          reset();
+          return Collections.singletonList(halfResult);
+        } else if (token.equalsIgnoreCase("and")) {
+          andHalf = 1;
+        } else if (nonFractionAcceptor.tryToken(token, tokenBegin, tokenEnd)) {
+          denominator = nonFractionAcceptor.value;
+          end = nonFractionAcceptor.end;
+          numberType = NumberType.FRACTION;
+
+          previous = stateToResult();
+
+          if (nonFractionAcceptor.consumedLastToken) {
+            reset();
+            return Collections.singletonList(previous);
+          } else {
+            continue;
+          }
+        } else {
+          if (!nonFractionAcceptor.inProgress()) {
+            denominator = BigDecimal.ONE;
+            if (previous != null) {
+              throw new IllegalStateException("Losing a value before returning it.");
+            }
+            previous = stateToResult();
+            reset();
+          }
+
+          if (!nonFractionAcceptor.consumedLastToken) {
+            continue;
+          }
+        }
+        return listOf(previous);
+      }
+      return listOf(previous);
+    }
+
+    List<NumberResult> finish() {
+      if (numerator == null) {
+        if (nonFractionAcceptor.finish()) {
+          numerator = nonFractionAcceptor.value;
+          begin = nonFractionAcceptor.begin;
+          end = nonFractionAcceptor.end;
+          numberType = nonFractionAcceptor.isOrdinal ? NumberType.ORDINAL : NumberType.CARDINAL;
+          return Collections.singletonList(stateToResult());
+        }
+      } else {
+        if (nonFractionAcceptor.finish()) {
+          denominator = nonFractionAcceptor.value;
+          end = nonFractionAcceptor.end;
+          numberType = NumberType.FRACTION;
+          return Collections.singletonList(stateToResult());
+        }
+      }
+      return Collections.emptyList();
+    }
+
+    private NumberResult stateToResult() {
+      return new NumberResult(begin, end, numerator, denominator, numberType);
+    }
+
+    private static List<NumberResult> listOf(@Nullable NumberResult result) {
+      return result != null ? Collections.singletonList(result) : Collections.emptyList();
+    }
+  }
+
+  @Nullable
+  private static NumberDefinition numberDefinition(NumberModel numberModel, String token) {
+    NumberEntry entry = numberModel.lookup(token);
+    return entry != null ? entry.getNumber() : null;
+  }
+
+  @Nullable
+  private static NumberDefinition ordinal(NumberModel numberModel, String token) {
+    NumberEntry entry = numberModel.lookup(token);
+    return entry != null ? entry.getOrdinal() : null;
+  }
+
+  @Nullable
+  private static NumberDefinition denominator(NumberModel numberModel, String token) {
+    NumberEntry entry = numberModel.lookup(token);
+    return entry != null ? entry.getDenominator() : null;
+  }
+
+  private static class BasicNumberAcceptor {
+
+    enum State {
+      DECADE,
+      DECADE_HYPHEN,
+      NONE
+    }
+
+    private final NumberModel numberModel;
+
+    int value;
+
+    int begin;
+
+    int end;
+
+    State state;
+
+    boolean consumedLastToken;
+
+    boolean canBeDenominator;
+
+    boolean isDenominator;
+
+    boolean isOrdinal;
+
+    BasicNumberAcceptor(NumberModel numberModel) {
+      this.numberModel = numberModel;
+      reset();
+    }
+
+    void reset() {
+      value = -1;
+      begin = -1;
+      end = -1;
+      state = State.NONE;
+      consumedLastToken = false;
+      canBeDenominator = false;
+      isDenominator = false;
+      isOrdinal = false;
+    }
+
+    boolean tryToken(String token, int tokenStart, int tokenEnd) {
+      NumberDefinition numberDefinition = null;
+      if (canBeDenominator) {
+        numberDefinition = denominator(numberModel, token);
+        if (numberDefinition != null) {
+          isDenominator = true;
+        }
+      }
+
+      if (numberDefinition == null) {
+        numberDefinition = numberDefinition(numberModel, token);
+      }
+
+      if (numberDefinition == null) {
+        numberDefinition = ordinal(numberModel, token);
+        if (numberDefinition != null) {
+          isOrdinal = true;
+        }
+      }
+
+      switch (state) {
+        case NONE:
+          if (numberDefinition != null) {
+            switch (numberDefinition.getBasicNumberType()) {
+              case TEEN:
+              case UNIT:
+                value = numberDefinition.getValue();
+                begin = tokenStart;
+                end = tokenEnd;
+                consumedLastToken = true;
+                return true;
+              case DECADE:
+                state = State.DECADE;
+                value = numberDefinition.getValue();
+                begin = tokenStart;
+                end = tokenEnd;
+                consumedLastToken = true;
+                if (isDenominator || isOrdinal) {
+                  return true;
+                }
+                break;
+              default:
+            }
+          }
+          break;
+        case DECADE:
+          if ("-".equals(token)) {
+            state = State.DECADE_HYPHEN;
+            return false;
+          }
+          // fall through
+        case DECADE_HYPHEN:
+          if (numberDefinition != null
+              && numberDefinition.getBasicNumberType() == BasicNumberType.UNIT) {
+            value = value + numberDefinition.getValue();
+            end = tokenEnd;
+            consumedLastToken = true;
+            return true;
+          }
+          consumedLastToken = false;
+          return true;
+        default:
+      }
+
+      return false;
+    }
+
+    boolean finish() {
+      return state == State.DECADE_HYPHEN || state == State.DECADE;
+    }
+  }
+
+  private static class NonFractionAcceptor {
+
+    enum State {
+      NONE,
+      HAS_BASIC,
+      RANK_01,
+      PAST_FIRST_PART
+    }
+
+    private final NumberModel numberModel;
+
+    private final BasicNumberAcceptor basicNumberAcceptor;
+
+    private State state;
+
+    @Nullable
+    BigDecimal value;
+
+    private int valueBuilder;
+
+    int begin;
+
+    int end;
+
+    private boolean canBeDenominator;
+
+    boolean isDenominator;
+
+    boolean isOrdinal;
+
+    boolean consumedLastToken;
+
+    NonFractionAcceptor(NumberModel numberModel, BasicNumberAcceptor basicNumberAcceptor) {
+      this.basicNumberAcceptor = basicNumberAcceptor;
+      this.numberModel = numberModel;
+      reset();
+    }
+
+    void reset() {
+      state = State.NONE;
+      value = null;
+      valueBuilder = -1;
+      begin = -1;
+      end = -1;
+      consumedLastToken = false;
+      canBeDenominator = false;
+      isDenominator = false;
+      isOrdinal = false;
+
+      basicNumberAcceptor.reset();
+    }
+
+    boolean tryToken(String token, int tokenBegin, int tokenEnd) {
+      NumberDefinition numberDefinition = numberDefinition(numberModel, token);
+
+      switch (state) {
+        case NONE:
+          if (value != null && "and".equalsIgnoreCase(token)) {
+            return false;
+          }
+
+          boolean basicTry = basicNumberAcceptor.tryToken(token, tokenBegin, tokenEnd);
+          consumedLastToken = basicNumberAcceptor.consumedLastToken;
+          if (basicTry) {
+            state = State.HAS_BASIC;
+            if (value == null) {
+              begin = basicNumberAcceptor.begin;
+            }
+            end = basicNumberAcceptor.end;
+            valueBuilder = basicNumberAcceptor.value;
+            if (basicNumberAcceptor.isDenominator || basicNumberAcceptor.isOrdinal
+                || !basicNumberAcceptor.consumedLastToken) {
+              value = BigDecimal.valueOf(valueBuilder);
+              return true;
+            }
+          } else if (value != null) {
+            break;
+          }
+          return false;
+        case HAS_BASIC:
+          if ("hundred".equalsIgnoreCase(token)) {
+            state = State.RANK_01;
+            valueBuilder = valueBuilder * 100;
+            end = tokenEnd;
+            basicNumberAcceptor.reset();
+            return false;
+          }
+          if ("hundredth".equalsIgnoreCase(token)) {
+            if (canBeDenominator) {
+              isDenominator = true;
+            } else {
+              isOrdinal = true;
+            }
+            valueBuilder = valueBuilder * 100;
+            end = tokenEnd;
+            basicNumberAcceptor.reset();
+            value = BigDecimal.valueOf(valueBuilder);
+            consumedLastToken = true;
+            return true;
+          }
+          if ("hundredths".equalsIgnoreCase(token)) {
+            isDenominator = true;
+            valueBuilder = valueBuilder * 100;
+            end = tokenEnd;
+            basicNumberAcceptor.reset();
+            value = BigDecimal.valueOf(valueBuilder);
+            consumedLastToken = true;
+            return true;
+          }
+          break;
+        case RANK_01:
+          if ("and".equalsIgnoreCase(token)) {
+            return false;
+          }
+
+          if (basicNumberAcceptor.state != BasicNumberAcceptor.State.NONE) {
+            if (basicNumberAcceptor.tryToken(token, tokenBegin, tokenEnd)) {
+              valueBuilder += basicNumberAcceptor.value;
+              end = basicNumberAcceptor.end;
+              state = State.PAST_FIRST_PART;
+            }
+          } else {
+            basicNumberAcceptor.tryToken(token, tokenBegin, tokenEnd);
+            if (basicNumberAcceptor.state == BasicNumberAcceptor.State.NONE) {
+              break;
+            }
+          }
+          return false;
+        default:
+      }
+
+      if (numberDefinition != null
+          && BasicNumberType.MAGNITUDE == numberDefinition.getBasicNumberType()) {
+        addMagnitude(numberDefinition.getValue());
+        valueBuilder = 0;
+        end = tokenEnd;
+        state = State.NONE;
+        return false;
+      }
+
+      if (canBeDenominator) {
+        numberDefinition = denominator(numberModel, token);
+        if (numberDefinition != null
+            && numberDefinition.getBasicNumberType() == BasicNumberType.MAGNITUDE) {
+          addMagnitude(numberDefinition.getValue());
+          end = tokenEnd;
+          consumedLastToken = true;
+          return true;
+        }
+      }
+
+      value = value == null ? BigDecimal.valueOf(valueBuilder)
+          : value.add(BigDecimal.valueOf(valueBuilder));
+
+      consumedLastToken = false;
+      return true;
+    }
+
+    private void addMagnitude(int magnitude) {
+      BigDecimal term = BigDecimal.valueOf(1000).pow(magnitude)
+          .multiply(BigDecimal.valueOf(valueBuilder));
+      value = value == null ? term : value.add(term);
+    }
+
+    boolean finish() {
+      switch (state) {
+        case NONE:
+          if (basicNumberAcceptor.finish()) {
+            state = State.HAS_BASIC;
+            if (value == null) {
+              begin = basicNumberAcceptor.begin;
+            }
+            end = basicNumberAcceptor.end;
+            valueBuilder = basicNumberAcceptor.value;
+          }
+          break;
+        case HAS_BASIC:
+        case RANK_01:
+          if (basicNumberAcceptor.state != BasicNumberAcceptor.State.NONE
+              && basicNumberAcceptor.finish()) {
+            valueBuilder += basicNumberAcceptor.value;
+            end = basicNumberAcceptor.end;
+            state = State.PAST_FIRST_PART;
+          }
+          break;
+        default:
+      }
+      if (value == null) {
+        if (state == State.NONE) {
+          return false;
+        }
+        value = BigDecimal.valueOf(valueBuilder);
+      } else {
+        value = value.add(BigDecimal.valueOf(valueBuilder));
+      }
+
+      return true;
+    }
+
+    boolean inProgress() {
+      return state != State.NONE || basicNumberAcceptor.state != BasicNumberAcceptor.State.NONE;
+    }
+
+    void setDenominator() {
+      this.canBeDenominator = true;
+      basicNumberAcceptor.canBeDenominator = true;
+    }
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2018 Regents of the University of Minnesota.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.umn.biomedicus.numbers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class TokenizerTest {
+
+  private static List<String> tokens(String text) {
+    Tokenizer tokenizer = new Tokenizer();
+    int count = tokenizer.tokenize(text);
+    List<String> tokens = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      tokens.add(text.substring(tokenizer.getBegin(i), tokenizer.getEnd(i)));
+    }
+    return tokens;
+  }
+
+  @Test
+  void testNumbers() {
+    assertEquals(Arrays.asList("BP", "120", "/", "80", ",", "1,000.5", "-4", "5", "-", "6", "."),
+        tokens("BP 120/80, 1,000.5 -4 5-6."));
+  }
+
+  @Test
+  void testThousandsSeparators() {
+    assertEquals(Arrays.asList("1", ",", "2", ",", "3", "12,345", "1,000,000.25", "1", ",", "0000",
+        "10", ",", "20"), tokens("1,2,3 12,345 1,000,000.25 1,0000 10, 20"));
+  }
+
+  @Test
+  void testNonAsciiDigits() {
+    assertEquals(
+        Arrays.asList("\u0663\u0664", "mg", "-\u0967\u0968", "\u0661,\u0662\u0663\u0664"),
+        tokens("\u0663\u0664mg -\u0967\u0968 \u0661,\u0662\u0663\u0664"));
+  }
+
+  @Test
+  void testDetectNonAsciiDigits() {
+    String text = "\u0663\u0664mg";
+    Tokenizer tokenizer = new Tokenizer();
+    int count = tokenizer.tokenize(text);
+    NumberResultBuffer numbers = new NumberResultBuffer();
+    Numbers.createNumberDetector(NumberModel.createDefaultNumberModel())
+        .detect(text, tokenizer.getBegins(), tokenizer.getEnds(), count, numbers);
+
+    assertEquals(1, numbers.size());
+    assertEquals(BigDecimal.valueOf(34), numbers.getNumerator(0));
+    assertEquals(0, numbers.getBegin(0));
+    assertEquals(2, numbers.getEnd(0));
+  }
+
+  @Test
+  void testWordsAndUnits() {
+    assertEquals(Arrays.asList("twenty", "-", "five", "10", "mg", "2nd", "day", "98.6", "°F"),
+        tokens("twenty-five 10mg\t2nd day 98.6 °F"));
+  }
+
+  @Test
+  void testRegion() {
+    Tokenizer tokenizer = new Tokenizer();
+    String text = "take 12345 mg";
+
+    assertEquals(2, tokenizer.tokenize(text, 3, 8));
+    assertEquals(3, tokenizer.getBegin(0));
+    assertEquals(4, tokenizer.getEnd(0));
+    assertEquals(5, tokenizer.getBegin(1));
+    assertEquals(8, tokenizer.getEnd(1));
+  }
+
+  @Test
+  void testDetect() {
+    String text = "BP 120/80, gave twenty-five tablets of 10mg";
+    Tokenizer tokenizer = new Tokenizer();
+    int count = tokenizer.tokenize(text);
+    NumberResultBuffer numbers = new NumberResultBuffer();
+    Numbers.createNumberDetector(NumberModel.createDefaultNumberModel())
+        .detect(text, tokenizer.getBegins(), tokenizer.getEnds(), count, numbers);
+
+    assertEquals(3, numbers.size());
+    assertEquals(NumberType.FRACTION, numbers.getNumberType(0));
+    assertEquals(BigDecimal.valueOf(80), numbers.getDenominator(0));
+    assertEquals(BigDecimal.valueOf(25), numbers.getNumerator(1));
+    assertEquals(16, numbers.getBegin(1));
+    assertEquals(27, numbers.getEnd(1));
+    assertEquals(BigDecimal.valueOf(10), numbers.getNumerator(2));
+    assertEquals(39, numbers.getBegin(2));
+    assertEquals(41, numbers.getEnd(2));
+  }
+}